@@ -0,0 +1,28 @@
+package com.irliao.housie.benchmark;
+
+import com.irliao.housie.simulation.SimulationSettings;
+
+/***
+ * Settings of the games benchmarked, for the default 1 - 90 range.
+ */
+final class BenchmarkSettings {
+
+    static final int NUMBER_RANGE_START = 1;
+    static final int NUMBER_RANGE_END = 90;
+    static final int RANGE_SIZE = NUMBER_RANGE_END - NUMBER_RANGE_START + 1;
+
+    private BenchmarkSettings() {
+    }
+
+    /***
+     * Creates the settings from a ticket shape written as rows x columns x numbers per row, ex. "3x9x5".
+     * @param numberOfPlayers number of players, each holding one ticket
+     * @param ticketShape shape of the tickets
+     * @return settings of the game
+     */
+    static SimulationSettings of(int numberOfPlayers, String ticketShape) {
+        String[] shape = ticketShape.split("x");
+        return new SimulationSettings(NUMBER_RANGE_START, NUMBER_RANGE_END, numberOfPlayers,
+            Integer.parseInt(shape[0]), Integer.parseInt(shape[1]), Integer.parseInt(shape[2]));
+    }
+}
@@ -0,0 +1,48 @@
+package com.irliao.housie.benchmark;
+
+import com.irliao.housie.Housie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Per-draw latency of the hot path: the Dealer drawing and calling a number, the tickets holding it
+ * being marked and the winners being determined.
+ * Every invocation calls the whole range on a freshly dealt hall, so the score is the average over
+ * all the draws of a game, including the ones after the last combination has been claimed.
+ * The hall is dealt outside of the measured time.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(BenchmarkSettings.RANGE_SIZE)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class DrawBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int numberOfPlayers;
+
+    @Param({"3x9x5", "3x10x5", "6x10x5"})
+    private String ticketShape;
+
+    private final Random random = new Random(42L);
+    private Housie housie;
+
+    @Setup(Level.Invocation)
+    public void dealHall() {
+        housie = new Housie();
+        housie.setUpHeadless(BenchmarkSettings.of(numberOfPlayers, ticketShape), random);
+    }
+
+    @Benchmark
+    public int callEveryNumber() {
+        int calledNumberSum = 0;
+        for (int i = 0; i < BenchmarkSettings.RANGE_SIZE; i++) {
+            calledNumberSum += housie.callNextNumber();
+        }
+        return calledNumberSum;
+    }
+}
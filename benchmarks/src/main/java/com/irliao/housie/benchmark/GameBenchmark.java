@@ -0,0 +1,39 @@
+package com.irliao.housie.benchmark;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.simulation.GameSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Full-game throughput: dealing the hall and playing a headless game until every combination is claimed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int numberOfPlayers;
+
+    @Param({"3x9x5", "3x10x5", "6x10x5"})
+    private String ticketShape;
+
+    private final Random random = new Random(42L);
+    private GameSimulator gameSimulator;
+
+    @Setup
+    public void createSimulator() {
+        gameSimulator = new GameSimulator(BenchmarkSettings.of(numberOfPlayers, ticketShape));
+    }
+
+    @Benchmark
+    public GameResult playGame() {
+        return gameSimulator.simulate(random);
+    }
+}
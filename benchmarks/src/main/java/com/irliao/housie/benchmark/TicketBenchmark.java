@@ -0,0 +1,53 @@
+package com.irliao.housie.benchmark;
+
+import com.irliao.housie.ticket.Ticket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/***
+ * Cost of looking up and marking a called number on a single ticket.
+ * Every invocation unmarks the ticket, then calls the whole range on it, so both numbers on the ticket and
+ * numbers not on the ticket are looked up and every number on the ticket is newly marked, like in a game.
+ * The score is per number called; unmarking the ticket is a few words per pass and is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(BenchmarkSettings.RANGE_SIZE)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TicketBenchmark {
+
+    @Param({"3x9x5", "3x10x5", "6x10x5"})
+    private String ticketShape;
+
+    private Ticket ticket;
+
+    @Setup
+    public void createTicket() {
+        String[] shape = ticketShape.split("x");
+        int rows = Integer.parseInt(shape[0]);
+        int numbersPerRow = Integer.parseInt(shape[2]);
+        Deque<Integer> bingoNumbers = new ArrayDeque<>();
+        IntStream.range(0, rows * numbersPerRow)
+                 .forEach(i -> bingoNumbers.add(BenchmarkSettings.NUMBER_RANGE_START + i * 3));
+        ticket = new Ticket(rows, Integer.parseInt(shape[1]), bingoNumbers, numbersPerRow);
+    }
+
+    @Benchmark
+    public int markNumberIfFound() {
+        ticket.getTicketStore().clearMarks();
+        int markedCount = 0;
+        for (int number = BenchmarkSettings.NUMBER_RANGE_START; number <= BenchmarkSettings.NUMBER_RANGE_END; number++) {
+            if (ticket.markNumberIfFound(number)) {
+                markedCount++;
+            }
+        }
+        return markedCount;
+    }
+}
@@ -1,16 +1,32 @@
 package com.irliao.housie;
 
-import com.irliao.housie.bingo.BingoNumberProvider;
-import com.irliao.housie.bingo.RandomBingoNumberProvider;
+import com.irliao.housie.bingo.ShuffledDrawSequence;
+import com.irliao.housie.combination.Claim;
+import com.irliao.housie.combination.ClaimVerdict;
 import com.irliao.housie.command.CallCommand;
 import com.irliao.housie.command.Command;
 import com.irliao.housie.command.QuitCommand;
+import com.irliao.housie.export.ResultExporter;
 import com.irliao.housie.handler.KeyPressHandler;
+import com.irliao.housie.handler.KeyPressReader;
 import com.irliao.housie.handler.SettingHandler;
+import com.irliao.housie.journal.GameFingerprint;
+import com.irliao.housie.journal.GameJournal;
+import com.irliao.housie.journal.GameSnapshotter;
+import com.irliao.housie.journal.JournalContents;
+import com.irliao.housie.render.GameRenderer;
+import com.irliao.housie.role.CallCadence;
+import com.irliao.housie.role.CallDispatcher;
 import com.irliao.housie.role.Dealer;
+import com.irliao.housie.role.PartitionedCallDispatcher;
 import com.irliao.housie.role.Player;
 import com.irliao.housie.ticket.Ticket;
+import com.irliao.housie.ticket.TicketFactory;
+import com.irliao.housie.ticket.TicketStore;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.IntStream;
 
@@ -18,22 +34,47 @@ import java.util.stream.IntStream;
  * Base class of Bingo for other types of Bingo games to subclass.
  * This requires the Bingo subclass to define how the winners are chosen, how the game ends, and
  * how the summary should be displayed.
+ * The game is either played on the console with play(), or run to completion without any console
+ * input or output with playHeadless().
  */
 public abstract class AbstractBingoGame {
 
     public static final String KEY_TO_QUIT = "Q"; // both Q and q will be registered as Quit command
     private static final String KEY_TO_CONTINUE = "N"; // both N and n will be registered as Continue command
+    private static final int KEY_PRESS_QUEUE_CAPACITY = 64;
 
-    private final Scanner inputScanner;
     private final KeyPressHandler keyPressHandler;
     private Dealer dealer;
-    private BingoNumberProvider bingoNumberProvider;
+    private TicketStore ticketStore;
+    private boolean dealTickets;
+    private boolean headless;
+    private GameJournal gameJournal;
+    private GameSnapshotter gameSnapshotter;
+    private int journaledDrawCount;
+    private int journaledClaimCount;
+    private ResultExporter resultExporter;
+    private int exportedClaimCount;
+    private int partitionCount = 1;
+    private GameSettings gameSettings;
+    private GameRenderer consoleRenderer;
+    private Path ticketDumpFile;
+    private CallCadence autoCallCadence;
+    private KeyPressReader keyPressReader;
     String gameName;
     List<Player> players;
+    Random random;
 
     public AbstractBingoGame() {
-        inputScanner = new Scanner(System.in);
+        this(new Random());
+    }
+
+    /***
+     * Creates the game with the source of randomness it uses until a game is set up with another one.
+     * @param random source of randomness for the game
+     */
+    public AbstractBingoGame(Random random) {
         keyPressHandler = new KeyPressHandler();
+        this.random = random;
     }
 
     /***
@@ -61,13 +102,55 @@ public abstract class AbstractBingoGame {
      */
     abstract String generateGameSummary();
 
+    /***
+     * Gets the combinations claimed so far in the game.
+     * @return claims in the order they were claimed
+     */
+    abstract List<Claim> getClaims();
+
+    /***
+     * Restores a combination claimed before the game was stopped, as claimed by the same player on the same draw.
+     * @param claim claim recovered from the journal
+     * @throws IllegalArgumentException if the combination is not in the game or has been claimed already
+     */
+    abstract void restoreClaim(Claim claim);
+
+    /***
+     * Verifies a combination claimed by a player, such as a claim sent by a remote player, against the player's
+     * ticket and the claims of the game. The game awards the combinations itself on every call, so this only
+     * tells the player whether the claim holds and was awarded.
+     * @param playerId ID of the player claiming
+     * @param combinationName name of the combination claimed
+     * @return verdict on the claim
+     * @throws IllegalArgumentException if there is no player of that ID
+     */
+    public abstract ClaimVerdict verifyClaim(int playerId, String combinationName);
+
+    /***
+     * Checks if the ticket may have won something on the call that just marked it.
+     * Run right after the ticket is marked, from the threads marking the partitions when there are more than one,
+     * so it must only read the ticket and state that does not change during a call.
+     * Only the players passing the check are handed to determineWinners() as marked by the last call.
+     * @param ticket ticket marked by the last call
+     * @return true if the ticket may have won, which is always by default
+     */
+    boolean canWinOnTicket(Ticket ticket) {
+        return true;
+    }
+
     /***
      * Starts the bingo game application, using the implementations specified by the subclass.
      * Will first request user input to set up the game, then execute the game loop.
      * Each time the play() is called, the subclass needs to properly handle any state
      * cleanup via implementing the setUpGame() as this method may be called more than once.
+     * The input is read by a single reader for the lifetime of the game, so no line meant for a later play()
+     * is taken by the reader of an earlier one.
      */
     public void play() {
+        headless = false;
+        dealTickets = true;
+        KeyPressReader keyPressReader = getKeyPressReader();
+
         displayGameIntro();
 
         // registering here because we want to print the instruction to Quit after the intro
@@ -76,66 +159,431 @@ public abstract class AbstractBingoGame {
         registerQuitCommand();
 
         // requests the user for inputs on how the game should be set up
-        SettingHandler settingHandler = new SettingHandler(inputScanner);
+        SettingHandler settingHandler = new SettingHandler(keyPressReader);
         settingHandler.requestUserInputsForSetting();
 
-        // sets up the roles needed in a bingo game
-        bingoNumberProvider = new RandomBingoNumberProvider(settingHandler.getNumberRangeStart(), settingHandler.getNumberRangeEnd());
-        dealer = new Dealer(bingoNumberProvider.createBingoNumbers());
-        players = createAndRegisterPlayersWithTicket(settingHandler);
-
-        // sets up game to the implementation provided by the subclass
-        setUpGame();
+        // sets up the roles needed in a bingo game and the game to the implementation provided by the subclass
+        setUpRolesAndGame(settingHandler);
+        getConsoleRenderer().flush();
 
         // register this after the setup has been completed
         registerCallCommand();
 
         // game loop (specific implementations provided by subclass)
-        do {
-            try {
-                keyPressHandler.runCommand(inputScanner.nextLine());
-                determineWinners();
-            } catch (IllegalArgumentException e) {
-                System.out.println(e.getMessage());
+        // the key presses are read on a thread of their own, so typing ahead or quitting does not wait for the winners
+        try {
+            if (autoCallCadence != null) {
+                autoCallCadence.reset();
+            }
+            do {
+                try {
+                    if (autoCallCadence == null) {
+                        keyPressHandler.runCommand(keyPressReader.nextKeyPress());
+                    } else {
+                        // only the immediate commands (Quit) are run while the numbers are called automatically
+                        keyPressReader.discardPendingKeyPresses();
+                        autoCallCadence.awaitNextCall();
+                        keyPressHandler.runCommand(KEY_TO_CONTINUE);
+                    }
+                    determineWinners();
+                    journalLastCall();
+                    exportLastClaims();
+                } catch (IllegalArgumentException e) {
+                    announce(e.getMessage());
+                }
+                getConsoleRenderer().flush();
+                if (autoCallCadence != null) {
+                    autoCallCadence.callCompleted();
+                }
             }
+            while (!isGameOver());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        while (isGameInProgress());
 
         displayGameSummary();
 
-        printAllTickets();
+        if (ticketDumpFile == null) {
+            printAllTickets(getConsoleRenderer());
+        } else {
+            try (GameRenderer fileRenderer = GameRenderer.toFile(ticketDumpFile)) {
+                printAllTickets(fileRenderer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Tickets could not be written to " + ticketDumpFile, e);
+            }
+            announce("Tickets written to " + ticketDumpFile);
+        }
+        getConsoleRenderer().flush();
+    }
+
+    /***
+     * Sets the file every players' ticket is written to when a game played on the console ends,
+     * instead of printing them after the summary.
+     * @param ticketDumpFile file to write the tickets to, replacing its contents, or null to print them
+     */
+    public void setTicketDumpFile(Path ticketDumpFile) {
+        this.ticketDumpFile = ticketDumpFile;
+    }
+
+    /***
+     * Sets the game played on the console to call the numbers automatically, instead of on key press.
+     * @param autoCallCadence cadence of the calls, or null to call a number on every key press
+     */
+    public void setAutoCallCadence(CallCadence autoCallCadence) {
+        this.autoCallCadence = autoCallCadence;
+    }
+
+    /***
+     * Runs the bingo game to completion without any console input or output.
+     * The Dealer keeps drawing numbers until the game is over or every number has been called,
+     * as if the Call command was pressed each time.
+     * Like play(), this may be called more than once and each call plays a fresh game.
+     * All the randomness of the game (draw order, tickets and tie-breaks) comes from the given Random,
+     * so a Random owned by the calling thread keeps games on different threads independent.
+     * @param gameSettings settings of the game to play
+     * @param random source of randomness for the game
+     * @return result of the game
+     */
+    public GameResult playHeadless(GameSettings gameSettings, Random random) {
+        setUpHeadless(gameSettings, random);
+
+        do {
+            callNextNumber();
+        }
+        while (!isGameOver());
+
+        return getGameResult();
     }
 
     /***
-     * Creates the players with tickets and registers the players to listen to Dealer calling numbers.
-     * The number of player and size of ticket will be specified in the SettingHandler.
+     * Runs the bingo game to completion without any console input or output, like playHeadless(), calling the
+     * numbers at the cadence given. A call is complete once the tickets are marked, the winners determined and
+     * the claims journaled and exported, and the next one is never started before, so the cadence measures the
+     * rate of calls the game can sustain.
+     * @param gameSettings settings of the game to play
+     * @param random source of randomness for the game
+     * @param callCadence cadence of the calls, reset before the first one
+     * @return result of the game
+     * @throws InterruptedException if interrupted while waiting for the next call
+     */
+    public GameResult playAutoCalled(GameSettings gameSettings, Random random, CallCadence callCadence) throws InterruptedException {
+        setUpHeadless(gameSettings, random);
+        callCadence.reset();
+
+        do {
+            callCadence.awaitNextCall();
+            callNextNumber();
+            callCadence.callCompleted();
+        }
+        while (!isGameOver());
+
+        return getGameResult();
+    }
+
+    /***
+     * Sets how many partitions the players are split into from the next game set up on, each partition
+     * marked and checked on its own thread on every call. Results are the same for any partition count.
+     * @param partitionCount number of partitions, 1 to mark every ticket on the thread calling the numbers
+     * @throws IllegalArgumentException if the partition count is not positive
+     */
+    public void setPartitionCount(int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("Invalid partition count, must be > 0");
+        }
+        this.partitionCount = partitionCount;
+    }
+
+    /***
+     * Sets up a fresh game to be driven one draw at a time with callNextNumber(), without any console output.
+     * @param gameSettings settings of the game to play
+     * @param random source of randomness for the game
+     */
+    public void setUpHeadless(GameSettings gameSettings, Random random) {
+        headless = true;
+        dealTickets = true;
+        this.random = random;
+        setUpRolesAndGame(gameSettings);
+    }
+
+    /***
+     * Sets up a fresh game over tickets dealt before, e.g. a MappedTicketStore opened again after a restart,
+     * to be driven one draw at a time with callNextNumber(), without any console output.
+     * Player#N holds the ticket with ID N - 1 of the store, with the marks the store already holds.
+     * @param gameSettings settings of the game to play
+     * @param ticketStore store holding a ticket for every player
+     * @param random source of randomness for the game
+     * @throws IllegalArgumentException if the store does not hold a ticket of the settings' shape for every player
+     */
+    public void setUpHeadless(GameSettings gameSettings, TicketStore ticketStore, Random random) {
+        if (ticketStore.getTicketCount() < gameSettings.getNumberOfPlayers() ||
+            ticketStore.getRowSize() != gameSettings.getNumberOfRows() || ticketStore.getColSize() != gameSettings.getNumberOfCols() ||
+            ticketStore.getNumbersPerRow() != gameSettings.getNumberPerRow()) {
+            throw new IllegalArgumentException("Ticket store does not hold a ticket of the settings for every player");
+        }
+
+        headless = true;
+        dealTickets = false;
+        this.ticketStore = ticketStore;
+        this.random = random;
+        setUpRolesAndGame(gameSettings);
+    }
+
+    /***
+     * Has the Dealer draw and call the next number, then determines the winners of that call.
+     * This is what the Call command and the following winner check do in the game loop of play().
+     * @return the number called
+     * @throws java.util.NoSuchElementException if every number of the range has been called already
+     */
+    public int callNextNumber() {
+        int calledNumber = dealer.drawAndCallNextNumber();
+        determineWinners();
+        journalLastCall();
+        exportLastClaims();
+        return calledNumber;
+    }
+
+    /***
+     * Journals the game from now on, after restoring the draws and claims the journal already holds.
+     * Restoring unmarks every ticket, then calls again the numbers of the journal in order so the tickets are
+     * marked exactly as they were, even a MappedTicketStore holding marks of draws that never reached the journal.
+     * The tickets are unmarked even when the journal is empty, so a store holding marks of an earlier game, or of a
+     * game stopped before its first call was committed, starts with none.
+     * The fingerprint of the tickets is journaled with the first call and checked when the journal is attached again.
+     * The claims are restored as journaled, so the winners do not depend on the tie-breaks of the replay.
+     * Every later call and the claims it wins are appended to the journal, which commits them in the background.
+     * This must be called right after the game is set up, before any number is called.
+     * @param gameJournal journal of the game, empty for a new game
+     * @throws IllegalStateException if a number has been called already
+     * @throws IllegalArgumentException if the journal does not belong to a game with the tickets and combinations of this one
+     */
+    public void attachJournal(GameJournal gameJournal) {
+        try {
+            attachJournal(gameJournal, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // only reading a snapshot throws
+        }
+    }
+
+    /***
+     * Journals the game from now on, like attachJournal(GameJournal), and takes periodic snapshots of the marks.
+     * Restoring loads the marks of the latest snapshot instead of unmarking every ticket, then only calls
+     * again the numbers journaled after the snapshot; the numbers before it are only taken out of the draw.
+     * A journal written before fingerprints were journaled is replayed without being checked.
+     * @param gameJournal journal of the game, empty for a new game
+     * @param gameSnapshotter snapshotter of the game, null to not take snapshots
+     * @throws IOException if the latest snapshot cannot be read or was taken for other tickets
+     * @throws IllegalStateException if a number has been called already
+     * @throws IllegalArgumentException if the journal does not belong to a game with the tickets and combinations of this one
+     */
+    public void attachJournal(GameJournal gameJournal, GameSnapshotter gameSnapshotter) throws IOException {
+        if (dealer.getDrawCount() > 0) {
+            throw new IllegalStateException("Journal must be attached before the first number is called");
+        }
+
+        JournalContents journalContents = gameJournal.getRecoveredContents();
+        GameFingerprint gameFingerprint = new GameFingerprint(players.size(), ticketStore.getRowSize(), ticketStore.getColSize(),
+            ticketStore.getNumbersPerRow(), gameSettings.getNumberRangeStart(), gameSettings.getNumberRangeEnd());
+        GameFingerprint journaledFingerprint = journalContents.getGameFingerprint();
+        if (journaledFingerprint != null && !journaledFingerprint.equals(gameFingerprint)) {
+            throw new IllegalArgumentException("Journal belongs to a game of " + journaledFingerprint + ", not " + gameFingerprint);
+        }
+
+        int[] calledNumbers = journalContents.getCalledNumbers();
+        int snapshotDrawCount = gameSnapshotter == null || calledNumbers.length == 0 ? 0 : gameSnapshotter.restore(ticketStore, calledNumbers.length);
+        if (snapshotDrawCount == 0) {
+            ticketStore.clearMarks();
+        }
+        for (int draw = 0; draw < calledNumbers.length; draw++) {
+            if (draw < snapshotDrawCount) {
+                dealer.restoreCall(calledNumbers[draw]);
+            } else {
+                dealer.replayCall(calledNumbers[draw]);
+            }
+        }
+        journalContents.getClaims().forEach(this::restoreClaim);
+        if (journaledFingerprint == null) {
+            gameJournal.appendGame(gameFingerprint);
+        }
+
+        this.gameJournal = gameJournal;
+        this.gameSnapshotter = gameSnapshotter;
+        journaledDrawCount = dealer.getDrawCount();
+        journaledClaimCount = getClaims().size();
+    }
+
+    /***
+     * Gets the result of the game so far.
+     * The claims are copied, so the result is left as it is when the game goes on or another game is set up.
+     * @return draws so far and the combinations claimed
+     */
+    public GameResult getGameResult() {
+        return new GameResult(dealer.getDrawCount(), Collections.unmodifiableList(new ArrayList<>(getClaims())));
+    }
+
+    /***
+     * Gets how many numbers have been called in the game so far.
+     * @return number of draws
+     */
+    public int getDrawCount() {
+        return dealer.getDrawCount();
+    }
+
+    /***
+     * Checks if the game set up last is over, every combination claimed or no player left,
+     * or every number called without that happening.
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return !isGameInProgress() || !dealer.hasNumbersLeft();
+    }
+
+    /***
+     * Gets how many players play the game set up last. Player#N holds the ticket with ID N - 1 of the ticket store.
+     * @return number of players
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /***
+     * Sets up the roles needed in a bingo game, then the game to the implementation provided by the subclass.
+     * @param gameSettings settings of the game to play
+     */
+    void setUpRolesAndGame(GameSettings gameSettings) {
+        this.gameSettings = gameSettings;
+        gameJournal = null;
+        gameSnapshotter = null;
+        resultExporter = null;
+        CallDispatcher callDispatcher = partitionCount == 1
+            ? new CallDispatcher(gameSettings.getNumberRangeStart(), gameSettings.getNumberRangeEnd())
+            : new PartitionedCallDispatcher(gameSettings.getNumberRangeStart(), gameSettings.getNumberRangeEnd(), partitionCount);
+        callDispatcher.setWinCheck(this::canWinOnTicket);
+        // the numbers are shuffled as they are drawn, so setting up a game allocates nothing for the range
+        dealer = new Dealer(new ShuffledDrawSequence(gameSettings.getNumberRangeStart(), gameSettings.getNumberRangeEnd(), random), callDispatcher);
+        players = createAndRegisterPlayersWithTicket(gameSettings);
+
+        setUpGame();
+    }
+
+    /***
+     * Gets the settings of the game set up last.
+     * @return settings of the game
+     */
+    GameSettings getGameSettings() {
+        return gameSettings;
+    }
+
+    /***
+     * Gets the Dealer calling the numbers of this game.
+     * @return the dealer
+     */
+    Dealer getDealer() {
+        return dealer;
+    }
+
+    /***
+     * Gets the store holding the tickets of the players.
+     * @return the ticket store of the game
+     */
+    public TicketStore getTicketStore() {
+        return ticketStore;
+    }
+
+    /***
+     * Creates the players with tickets and registers the players to the Dealer calling numbers.
+     * The number of player and size of ticket will be specified in the GameSettings.
+     * The tickets are dealt in bulk by the TicketFactory, unless the game was set up over a store dealt before,
+     * then all the players are registered in one step.
      * The list of players here will be sequentially generated, with ID from 1 to number of players.
-     * @param settingHandler settings from the user input
+     * @param settingHandler settings of the game, from the user input when played on the console
      * @return list of players participating in this bingo game.
      */
-    List<Player> createAndRegisterPlayersWithTicket(SettingHandler settingHandler) {
-        int ticketRowSize = settingHandler.getNumberOfRows();
-        int ticketColSize = settingHandler.getNumberOfCols();
-        List<Player> players = new ArrayList<>();
+    List<Player> createAndRegisterPlayersWithTicket(GameSettings settingHandler) {
+        if (dealTickets || ticketStore == null) {
+            ticketStore = new TicketFactory(settingHandler).createTickets(settingHandler.getNumberOfPlayers(), random);
+        }
+        List<Player> players = new ArrayList<>(settingHandler.getNumberOfPlayers());
         IntStream.rangeClosed(1, settingHandler.getNumberOfPlayers())
-            .forEach(playerId -> {
-                Ticket ticket = new Ticket(ticketRowSize, ticketColSize, bingoNumberProvider.createBingoNumbers(), settingHandler.getNumberPerRow());
-                Player player = new Player(playerId, ticket);
-                players.add(player);
-                dealer.addListener(player);
-            });
+            .forEach(playerId -> players.add(new Player(playerId, new Ticket(ticketStore, playerId - 1))));
+        dealer.addPlayers(players);
 
-        System.out.println("\n***Ticket Created Successfully ****");
+        announce("\n***Ticket Created Successfully ****");
 
         return players;
     }
 
     /***
-     * Registers the Quit (exit the application) command to key press.
+     * Exports the claims of the game as they are won, from the claims restored from a journal, if any, on.
+     * This must be called after the game is set up, and after the journal is attached if there is one.
+     * The exporter is detached when the next game is set up, and closing it is up to the caller.
+     * @param resultExporter exporter of the claims
+     */
+    public void attachResultExporter(ResultExporter resultExporter) {
+        this.resultExporter = resultExporter;
+        exportedClaimCount = 0;
+        exportLastClaims();
+    }
+
+    /***
+     * Exports the claims won since the last export, if an exporter is attached, and writes them out.
+     */
+    private void exportLastClaims() {
+        if (resultExporter == null) {
+            return;
+        }
+
+        List<Claim> claims = getClaims();
+        if (exportedClaimCount == claims.size()) {
+            return;
+        }
+        for (; exportedClaimCount < claims.size(); exportedClaimCount++) {
+            resultExporter.exportClaim(claims.get(exportedClaimCount));
+        }
+        resultExporter.flush();
+    }
+
+    /***
+     * Appends the last draw and the claims it won to the journal, if the game is journaled,
+     * then lets the snapshotter start a snapshot if one is due.
+     */
+    private void journalLastCall() {
+        if (gameJournal == null) {
+            return;
+        }
+
+        boolean newDraw = dealer.getDrawCount() > journaledDrawCount;
+        List<Claim> claims = getClaims();
+        if (newDraw) {
+            // the draw and its claims go in as one record, so they are recovered together or not at all
+            gameJournal.appendCall(dealer.getDrawCount(), dealer.getCalledNumber(), claims.subList(journaledClaimCount, claims.size()));
+            journaledDrawCount = dealer.getDrawCount();
+            journaledClaimCount = claims.size();
+        }
+        for (; journaledClaimCount < claims.size(); journaledClaimCount++) {
+            gameJournal.appendClaim(claims.get(journaledClaimCount));
+        }
+        if (newDraw && gameSnapshotter != null) {
+            gameSnapshotter.drawCalled(journaledDrawCount, ticketStore, gameJournal, dealer::getDrawCount);
+        }
+    }
+
+    /***
+     * Prints the message to the console, unless the game is played headless.
+     * The message is buffered and written along with the rest of the output of the same call.
+     * @param message message to print
+     */
+    void announce(String message) {
+        if (!headless) {
+            getConsoleRenderer().line(message);
+        }
+    }
+
+    /***
+     * Registers the Quit (exit the application) command to key press, run as soon as the key is read.
      */
     void registerQuitCommand() {
         Command quitCommand = new QuitCommand();
-        keyPressHandler.registerCommand(KEY_TO_QUIT, quitCommand);
+        keyPressHandler.registerImmediateCommand(KEY_TO_QUIT, quitCommand);
         System.out.println("Note: - Press '" + KEY_TO_QUIT + "' to quit any time.\n");
     }
 
@@ -143,10 +591,14 @@ public abstract class AbstractBingoGame {
      * Registers the Call (Dealer drawing and calling the next number) command to key press.
      */
     void registerCallCommand() {
-        Command nextCommand = new CallCommand(dealer);
+        Command nextCommand = new CallCommand(dealer, getConsoleRenderer());
         keyPressHandler.registerCommand(KEY_TO_CONTINUE, nextCommand);
         keyPressHandler.registerCommand("", nextCommand); // NOTE: this is only registered for easy of use in demo
-        System.out.println(">> Press " + KEY_TO_CONTINUE + " to generate next number.\n");
+        if (autoCallCadence == null) {
+            System.out.println(">> Press " + KEY_TO_CONTINUE + " to generate next number.\n");
+        } else {
+            System.out.println(">> Numbers are called automatically.\n");
+        }
     }
 
     /***
@@ -161,23 +613,44 @@ public abstract class AbstractBingoGame {
      * Displays the summary of the game when the game ends.
      */
     void displayGameSummary() {
-        System.out.println("***** Game Over *****");
-        System.out.println("======================");
-        System.out.println("Summary:");
-        System.out.println(generateGameSummary());
-        System.out.println("=======================");
+        getConsoleRenderer().line("***** Game Over *****")
+                            .line("======================")
+                            .line("Summary:")
+                            .line(generateGameSummary())
+                            .line("=======================");
+    }
+
+    /***
+     * Gets the renderer buffering the console output of the game, created on first use.
+     * @return console renderer
+     */
+    /***
+     * Gets the reader of the key presses, reading the standard input from its first use on.
+     * It is left running once started, so the input typed after one play() is kept for the next.
+     * @return started reader of the key presses
+     */
+    private KeyPressReader getKeyPressReader() {
+        if (keyPressReader == null) {
+            keyPressReader = new KeyPressReader(new Scanner(System.in), keyPressHandler, KEY_PRESS_QUEUE_CAPACITY);
+            keyPressReader.start();
+        }
+        return keyPressReader;
+    }
+
+    private GameRenderer getConsoleRenderer() {
+        if (consoleRenderer == null) {
+            consoleRenderer = GameRenderer.toConsole();
+        }
+        return consoleRenderer;
     }
 
     /***
-     * Prints every players' ticket, ordered by player's ID
+     * Renders every players' ticket, ordered by player's ID
+     * @param gameRenderer renderer to render the tickets with, flushed by the caller
      */
-    void printAllTickets() {
+    void printAllTickets(GameRenderer gameRenderer) {
         players.stream()
                .sorted(Comparator.comparingInt(Player::getId))
-               .forEach(player -> {
-                    System.out.println("Player#" + player.getId() + ":");
-                    player.getTicket().printTicket();
-                    System.out.println(" ");
-               });
+               .forEachOrdered(player -> gameRenderer.playerTicket(player.getId(), player.getTicket()));
     }
 }
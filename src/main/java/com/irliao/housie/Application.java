@@ -1,12 +1,48 @@
 package com.irliao.housie;
 
+import com.irliao.housie.role.CallCadence;
+import com.irliao.housie.server.GameServer;
+import com.irliao.housie.simulation.SimulationSettings;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
 /***
  * Application running the Housie game.
+ * Passing a number of milliseconds as argument calls the numbers automatically at that interval, 0 for as fast as possible.
+ * Passing "serve", a port, a number of players and an interval in milliseconds serves a game of classic 3 x 9 tickets
+ * over TCP instead, calling the numbers at that interval once every seat is taken.
  */
 public class Application {
     // main driver of the Housie game
-    public static void main(String... args) {
+    public static void main(String... args) throws IOException, InterruptedException {
+        if (args.length == 4 && "serve".equals(args[0])) {
+            serve(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]));
+            return;
+        }
+
         Housie housie = new Housie();
+        if (args.length > 0) {
+            housie.setAutoCallCadence(new CallCadence(Long.parseLong(args[0]), TimeUnit.MILLISECONDS));
+        }
         housie.play();
     }
+
+    private static void serve(int port, int numberOfPlayers, long intervalMillis) throws IOException, InterruptedException {
+        Housie housie = new Housie();
+        housie.setUpHeadless(new SimulationSettings(1, 90, numberOfPlayers, 3, 9, 5), new Random());
+        try (GameServer gameServer = new GameServer(housie, new InetSocketAddress(port))) {
+            gameServer.start();
+            System.out.println("Serving " + numberOfPlayers + " players on " + gameServer.getLocalAddress());
+            while (gameServer.getConnectionCount() < numberOfPlayers) {
+                Thread.sleep(100);
+            }
+            CallCadence callCadence = new CallCadence(intervalMillis, TimeUnit.MILLISECONDS);
+            GameResult gameResult = gameServer.play(callCadence);
+            System.out.println("Game over after " + gameResult.getDrawCount() + " draws, " +
+                               String.format("%.1f", callCadence.getCallsPerSecond()) + " calls per second");
+        }
+    }
 }
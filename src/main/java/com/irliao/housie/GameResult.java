@@ -0,0 +1,36 @@
+package com.irliao.housie;
+
+import com.irliao.housie.combination.Claim;
+
+import java.util.List;
+
+/***
+ * Result of a bingo game played to completion.
+ * Contains how many numbers were drawn and every combination claimed, in the order they were claimed.
+ */
+public class GameResult {
+
+    private final int drawCount;
+    private final List<Claim> claims;
+
+    public GameResult(int drawCount, List<Claim> claims) {
+        this.drawCount = drawCount;
+        this.claims = claims;
+    }
+
+    /***
+     * Gets how many numbers were drawn before the game ended.
+     * @return number of draws
+     */
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    /***
+     * Gets the combinations claimed during the game, in the order they were claimed.
+     * @return claims of the game
+     */
+    public List<Claim> getClaims() {
+        return claims;
+    }
+}
@@ -0,0 +1,45 @@
+package com.irliao.housie;
+
+/***
+ * Settings of a bingo game: the range of numbers, the number of players and the shape of the tickets.
+ * Implemented by SettingHandler for settings entered by the user, and by fixed settings for games
+ * run without the console.
+ */
+public interface GameSettings {
+
+    /***
+     * Gets the starting range of numbers allowed on the ticket.
+     * @return starting range
+     */
+    int getNumberRangeStart();
+
+    /***
+     * Gets the ending range of numbers allowed on the ticket.
+     * @return ending range
+     */
+    int getNumberRangeEnd();
+
+    /***
+     * Gets the number of players in the bingo game.
+     * @return number of players
+     */
+    int getNumberOfPlayers();
+
+    /***
+     * Gets the number of rows on the ticket.
+     * @return number of rows
+     */
+    int getNumberOfRows();
+
+    /***
+     * Gets the number of columns on the ticket.
+     * @return number of columns
+     */
+    int getNumberOfCols();
+
+    /***
+     * Gets the number of slots on each row of the ticket to fill with a number.
+     * @return numbers per row
+     */
+    int getNumberPerRow();
+}
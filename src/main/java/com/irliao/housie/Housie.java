@@ -1,10 +1,13 @@
 package com.irliao.housie;
 
 import com.irliao.housie.combination.AbstractCombination;
-import com.irliao.housie.combination.EarlyFiveCombination;
-import com.irliao.housie.combination.FullHouseCombination;
-import com.irliao.housie.combination.TopLineCombination;
+import com.irliao.housie.combination.Claim;
+import com.irliao.housie.combination.ClaimArbiter;
+import com.irliao.housie.combination.ClaimVerdict;
+import com.irliao.housie.combination.CombinationRegistry;
+import com.irliao.housie.combination.TiePolicy;
 import com.irliao.housie.role.Player;
+import com.irliao.housie.ticket.Ticket;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -17,11 +20,35 @@ public class Housie extends AbstractBingoGame {
 
     private final Set<AbstractCombination> winnableCombinations;
     private final Map<Integer, Set<AbstractCombination>> currentWinners;
+    private final List<Claim> claims;
+    private final Map<String, TiePolicy> tiePolicies;
+    private final Map<String, Integer> tierCounts;
+    private final Map<AbstractCombination, Integer> winnerCounts;
+    private CombinationRegistry combinationRegistry;
+    private ClaimArbiter claimArbiter;
+    private int[] winnerIds;
 
     public Housie() {
+        this(new Random());
+    }
+
+    /***
+     * Creates the game with the source of randomness it uses until a game is set up with another one,
+     * the tie-breaks of the ClaimArbiter included.
+     * @param random source of randomness for the game
+     */
+    public Housie(Random random) {
+        super(random);
         gameName = "Housie";
         currentWinners = new HashMap<>();
-        winnableCombinations = new HashSet<>();
+        claims = new ArrayList<>();
+        tiePolicies = new HashMap<>();
+        tierCounts = new HashMap<>();
+        winnerCounts = new HashMap<>();
+        combinationRegistry = CombinationRegistry.standard();
+        winnableCombinations = new LinkedHashSet<>();
+        claimArbiter = new ClaimArbiter(random.nextLong());
+        winnerIds = new int[16];
     }
 
     /***
@@ -32,46 +59,213 @@ public class Housie extends AbstractBingoGame {
         return currentWinners;
     }
 
+    /***
+     * Gets the combinations claimed so far, in the order they were claimed.
+     * @return list of claims
+     */
+    @Override
+    List<Claim> getClaims() {
+        return claims;
+    }
+
+    /***
+     * Sets the combinations the game can be won with, from the next game set up on.
+     * @param combinationRegistry registry of the combinations, e.g. CombinationRegistry.withPatterns()
+     */
+    public void setCombinationRegistry(CombinationRegistry combinationRegistry) {
+        this.combinationRegistry = combinationRegistry;
+    }
+
+    /***
+     * Sets how the combination is awarded when more than one player wins it on the same draw,
+     * from the next game set up on. Combinations without a tie policy set are awarded FIRST_WINS.
+     * @param combinationName name of the combination, e.g. FullHouseCombination.COMBINATION_NAME
+     * @param tiePolicy policy deciding the winners of a draw
+     * @param tierCount number of prize tiers, 1 unless the policy is MULTI_TIER, and no more than the number of players
+     */
+    public void setTiePolicy(String combinationName, TiePolicy tiePolicy, int tierCount) {
+        tiePolicies.put(combinationName, tiePolicy);
+        tierCounts.put(combinationName, tierCount);
+    }
+
     /***
      * Sets up the game to the specification of the Housie type bingo.
-     * For Housie, we want to register 3 types of winnable combinations and also
-     * create a new map for the game to keep track of all the winners.
+     * For Housie, we want to create the winnable combinations of the CombinationRegistry, by default the
+     * 3 classic ones, and also create a new map for the game to keep track of all the winners.
+     * The combinations are checked in the order they are registered, and ties are decided by a ClaimArbiter
+     * seeded from the game's Random, so a game played again with the same seed has the same claims.
+     * The tie policies set with setTiePolicy() are applied to the new combinations, a player winning each tier
+     * at most once so a combination cannot have more tiers than there are players.
      * Before we add the setup, we clear the current state so when play() is called
      * multiple times, each game will have a fresh/clean state.
      */
     @Override
     void setUpGame() {
         currentWinners.clear();
+        claims.clear();
+        winnerCounts.clear();
 
         winnableCombinations.clear();
-        winnableCombinations.add(new EarlyFiveCombination());
-        winnableCombinations.add(new FullHouseCombination());
-        winnableCombinations.add(new TopLineCombination());
+        winnableCombinations.addAll(combinationRegistry.createCombinations(getGameSettings()));
+        for (AbstractCombination winCombination : winnableCombinations) {
+            TiePolicy tiePolicy = tiePolicies.get(winCombination.getName());
+            if (tiePolicy != null) {
+                int tierCount = tierCounts.get(winCombination.getName());
+                if (tierCount > getGameSettings().getNumberOfPlayers()) {
+                    throw new IllegalArgumentException("Combination '" + winCombination.getName() + "' has more tiers than there are players");
+                }
+                winCombination.setTiePolicy(tiePolicy, tierCount);
+            }
+        }
+        if (!winnableCombinations.stream().map(AbstractCombination::getName).collect(Collectors.toSet()).containsAll(tiePolicies.keySet())) {
+            throw new IllegalArgumentException("Tie policy set for a combination not in the game");
+        }
+
+        claimArbiter = new ClaimArbiter(random.nextLong());
+    }
+
+    /***
+     * Gets the arbiter deciding which player claims a combination won by more than one player on the same draw.
+     * @return claim arbiter of the game
+     */
+    ClaimArbiter getClaimArbiter() {
+        return claimArbiter;
     }
 
     /***
-     * Checks the current players' tickets to see if any combination has been won.
-     * Once the combination has been claimed by a player, it is no longer claimable by other players.
-     * Since the players are sequentially created, this method will shuffle the players each time so
-     * the order of checking will be fair to all even though we are sequentially traversing the list.
+     * Checks if the ticket wins any of the combinations not claimed yet.
+     * The combinations are only claimed between calls, so this can be run while the tickets are being marked.
+     * @param ticket ticket marked by the last call
+     * @return true if the ticket wins a combination still claimable
+     */
+    @Override
+    boolean canWinOnTicket(Ticket ticket) {
+        for (AbstractCombination winCombination : winnableCombinations) {
+            if (!winCombination.getClaimed() && winCombination.isWinningTicket(ticket)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /***
+     * Checks the tickets marked by the last call to see if any combination has been won.
+     * A ticket can only complete a combination on the call that marked it, so the players whose ticket
+     * was not marked are not looked at, nor the ones whose ticket failed canWinOnTicket() while being marked.
+     * All the players winning a combination on the call are found in the same pass over the candidates, then the
+     * tie policy of the combination decides who claims it: the one picked by the ClaimArbiter for FIRST_WINS, so
+     * deciding a tie only costs as much as the number of winners and can be recomputed from the seed, or every
+     * winner sharing the prize of the next tier for SPLIT and MULTI_TIER.
+     * Once every tier of the combination has been claimed, it is no longer claimable by other players.
+     * Neither is it once every player has won it, ties having used up the players before the tiers.
      */
     @Override
     void determineWinners() {
-        // shuffle the players each time before we attempt to determine the winners, this provides fairness
-        // to the player so each player at each round will have equal chance of claiming the combination first
-        Collections.shuffle(players);
-
-        players.forEach(player ->
-            winnableCombinations.stream()
-                .filter(winCombination -> !winCombination.getClaimed()) // this would be commented out
-                .forEach(winCombination ->  {
-                    if (winCombination.isWinningTicket(player.getTicket())) {
-                        System.out.println("\n");
-                        System.out.println("We have a winner: Player#" + player.getId() + " has won " + "'" + winCombination.getName() + "'" + " winning combination.");
-                        registerWinner(player.getId(), winCombination);
-                        winCombination.setClaimed(true);
+        List<Player> candidates = getDealer().getPlayersMarkedByLastCall();
+        for (AbstractCombination winCombination : winnableCombinations) {
+            if (winCombination.getClaimed()) {
+                continue;
+            }
+
+            int winnerCount = 0;
+            for (Player player : candidates) {
+                if (winCombination.isWinningTicket(player.getTicket()) && !hasWon(player.getId(), winCombination)) {
+                    if (winnerCount == winnerIds.length) {
+                        winnerIds = Arrays.copyOf(winnerIds, winnerCount * 2);
                     }
-                }));
+                    winnerIds[winnerCount++] = player.getId();
+                }
+            }
+            if (winnerCount == 0) {
+                continue;
+            }
+            if (winCombination.getTiePolicy() == TiePolicy.FIRST_WINS) {
+                winnerIds[0] = claimArbiter.pickWinner(getDealer().getDrawCount(), winnerIds, winnerCount);
+                winnerCount = 1;
+            }
+
+            int tier = winCombination.getClaimedTierCount() + 1;
+            for (int i = 0; i < winnerCount; i++) {
+                announce("\n");
+                announce("We have a winner: Player#" + winnerIds[i] + " has won " + "'" + winCombination.getName() + "'" + " winning combination" +
+                         (winCombination.getTierCount() > 1 ? ", tier " + tier : "") + (winnerCount > 1 ? ", shared by " + winnerCount + " players." : "."));
+                registerWinner(winnerIds[i], winCombination);
+                claims.add(new Claim(winCombination.getName(), winnerIds[i], getDealer().getDrawCount(), getDealer().getCalledNumber(), tier, winnerCount));
+            }
+            winCombination.claimTier();
+            closeIfWonByEveryPlayer(winCombination);
+        }
+    }
+
+    /***
+     * Restores the claim as if the player had just won the combination, without announcing it.
+     * A claim of the tier claimed last is a share of that tier, any other claim must be of the next tier.
+     * @param claim claim recovered from the journal
+     * @throws IllegalArgumentException if the combination is not in the game or the tier has been claimed already
+     */
+    @Override
+    void restoreClaim(Claim claim) {
+        AbstractCombination claimedCombination = winnableCombinations.stream()
+            .filter(winCombination -> winCombination.getName().equals(claim.getCombinationName()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Combination '" + claim.getCombinationName() + "' is not in the game"));
+        boolean sharedTier = claim.getShareCount() > 1 && claim.getTier() == claimedCombination.getClaimedTierCount();
+        if (!sharedTier && (claimedCombination.getClaimed() || claim.getTier() != claimedCombination.getClaimedTierCount() + 1)) {
+            throw new IllegalArgumentException("Combination '" + claim.getCombinationName() + "' has been claimed already");
+        }
+
+        registerWinner(claim.getPlayerId(), claimedCombination);
+        claims.add(claim);
+        if (!sharedTier) {
+            claimedCombination.claimTier();
+        }
+        closeIfWonByEveryPlayer(claimedCombination);
+    }
+
+    /***
+     * Marks the combination as claimed once every player has won it, as the tiers left cannot be won by anyone.
+     * @param winCombination combination just claimed
+     */
+    private void closeIfWonByEveryPlayer(AbstractCombination winCombination) {
+        if (!winCombination.getClaimed() && winnerCounts.getOrDefault(winCombination, 0) >= players.size()) {
+            winCombination.setClaimed(true);
+        }
+    }
+
+    /***
+     * Verifies the claim against the player's ticket: the claim is accepted if the ticket wins the combination
+     * and the player was awarded it, on this draw or an earlier one.
+     * @param playerId ID of the player claiming
+     * @param combinationName name of the combination claimed
+     * @return verdict on the claim
+     * @throws IllegalArgumentException if there is no player of that ID
+     */
+    @Override
+    public ClaimVerdict verifyClaim(int playerId, String combinationName) {
+        if (playerId <= 0 || playerId > players.size()) {
+            throw new IllegalArgumentException("There is no Player#" + playerId + " in the game");
+        }
+        Player player = players.get(playerId - 1);
+        for (AbstractCombination winCombination : winnableCombinations) {
+            if (winCombination.getName().equals(combinationName)) {
+                if (!winCombination.isWinningTicket(player.getTicket())) {
+                    return ClaimVerdict.NOT_WON;
+                }
+                return hasWon(playerId, winCombination) ? ClaimVerdict.ACCEPTED : ClaimVerdict.CLAIMED_BY_OTHER;
+            }
+        }
+        return ClaimVerdict.UNKNOWN_COMBINATION;
+    }
+
+    /***
+     * Checks if the player has won the combination already, on a previous tier.
+     * @param id id of the player
+     * @param winCombination combination to check
+     * @return true if the player has won the combination
+     */
+    private boolean hasWon(int id, AbstractCombination winCombination) {
+        Set<AbstractCombination> combinationsWon = currentWinners.get(id);
+        return combinationsWon != null && combinationsWon.contains(winCombination);
     }
 
     /***
@@ -81,9 +275,9 @@ public class Housie extends AbstractBingoGame {
      * @param combinationWon the combination the player has won
      */
     void registerWinner(int id, AbstractCombination combinationWon) {
-        Set<AbstractCombination> combinationsWon = currentWinners.getOrDefault(id, new HashSet<>());
-        combinationsWon.add(combinationWon);
-        currentWinners.put(id, combinationsWon);
+        if (currentWinners.computeIfAbsent(id, winnerId -> new HashSet<>()).add(combinationWon)) {
+            winnerCounts.merge(combinationWon, 1, Integer::sum);
+        }
     }
 
     /***
@@ -103,8 +297,9 @@ public class Housie extends AbstractBingoGame {
      * Generates a string of current summary of the game.
      * The summary contains player ID and the combinations claimed by the player.
      * The summary should be specific to Housie type bingo.
-     * Since we are shuffling the players each time we determine the winners, we need to sort
-     * the list here to print the summary of players in ascending order to their IDs.
+     * The list is sorted here to print the summary of players in ascending order to their IDs.
+     * The names of the combinations won are appended straight into the summary, without a collection per player.
+     * For a game with many players, attach a ResultExporter to stream the claims instead.
      * @return summary of the Housie game
      */
     @Override
@@ -112,14 +307,19 @@ public class Housie extends AbstractBingoGame {
         StringBuilder stringBuilder = new StringBuilder();
         players.stream()
                .sorted(Comparator.comparingInt(Player::getId))
-               .forEach(player -> {
-                    Set<AbstractCombination> winCombinations = currentWinners.getOrDefault(player.getId(), new HashSet<>());
-                    List<String> winningCombinationsString = winCombinations.stream()
-                        .map(AbstractCombination::getName)
-                        .collect(Collectors.toList());
-                    boolean isWinningTicket = !winningCombinationsString.isEmpty();
-                    String playerSummary = isWinningTicket ? String.join(" and ", winningCombinationsString) : "Nothing";
-                    stringBuilder.append("Player#").append(player.getId()).append(" : ").append(playerSummary).append("\n");
+               .forEachOrdered(player -> {
+                    stringBuilder.append("Player#").append(player.getId()).append(" : ");
+                    Set<AbstractCombination> winCombinations = currentWinners.get(player.getId());
+                    if (winCombinations == null || winCombinations.isEmpty()) {
+                        stringBuilder.append("Nothing");
+                    } else {
+                        String separator = "";
+                        for (AbstractCombination winCombination : winCombinations) {
+                            stringBuilder.append(separator).append(winCombination.getName());
+                            separator = " and ";
+                        }
+                    }
+                    stringBuilder.append("\n");
                });
 
         return stringBuilder.toString();
@@ -12,4 +12,11 @@ public interface BingoNumberProvider {
      * @return Deque of numbers
      */
     Deque<Integer> createBingoNumbers();
+
+    /***
+     * Fills the array with distinct numbers drawn at random from the bag, without boxing.
+     * Only as many numbers as the array holds are drawn, so the array can be reused for every ticket.
+     * @param bingoNumbers array to fill, no longer than the bag
+     */
+    void fillWithBingoNumbers(int[] bingoNumbers);
 }
@@ -0,0 +1,55 @@
+package com.irliao.housie.bingo;
+
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+/***
+ * Sequence of numbers the Dealer draws from, one number at a time.
+ */
+public interface DrawSequence {
+
+    /***
+     * Checks if there are numbers left to draw.
+     * @return true if next() can be called
+     */
+    boolean hasNext();
+
+    /***
+     * Draws the next number of the sequence.
+     * @return number drawn
+     * @throws NoSuchElementException if every number has been drawn already
+     */
+    int next();
+
+    /***
+     * Removes the number from the numbers left to draw, as if it had just been drawn.
+     * Used to restore a game, for the numbers called before the game was stopped.
+     * @param number number to remove
+     * @return true if the number was left to draw, false if it was drawn already or is not in the sequence
+     */
+    boolean remove(int number);
+
+    /***
+     * Creates a sequence drawing the numbers of the Deque, in the order they are popped.
+     * @param bingoNumbers Deque of numbers, already in random order
+     * @return sequence backed by the Deque
+     */
+    static DrawSequence of(Deque<Integer> bingoNumbers) {
+        return new DrawSequence() {
+            @Override
+            public boolean hasNext() {
+                return !bingoNumbers.isEmpty();
+            }
+
+            @Override
+            public int next() {
+                return bingoNumbers.pop();
+            }
+
+            @Override
+            public boolean remove(int number) {
+                return bingoNumbers.removeFirstOccurrence(number);
+            }
+        };
+    }
+}
@@ -1,20 +1,28 @@
 package com.irliao.housie.bingo;
 
 import java.util.*;
-import java.util.stream.IntStream;
 
 /***
  * Provides a Deque of random numbers in the given range.
  * This is used to represent a bag of bingo numbers that the Dealer and Ticket can use.
+ * The bag is a primitive array shuffled in place with Fisher-Yates, and only partially shuffled
+ * when fewer numbers than the whole bag are needed.
  */
 public class RandomBingoNumberProvider implements BingoNumberProvider {
 
-    private final List<Integer> bingoNumbers;
+    private final int[] bingoNumbers;
+    private final Random random;
 
     public RandomBingoNumberProvider(int numberRangeStart, int numberRangeEnd) {
-        bingoNumbers = new LinkedList<>();
-        IntStream.rangeClosed(numberRangeStart, numberRangeEnd)
-                 .forEach(bingoNumbers::add);
+        this(numberRangeStart, numberRangeEnd, new Random());
+    }
+
+    public RandomBingoNumberProvider(int numberRangeStart, int numberRangeEnd, Random random) {
+        this.random = random;
+        bingoNumbers = new int[numberRangeEnd - numberRangeStart + 1];
+        for (int i = 0; i < bingoNumbers.length; i++) {
+            bingoNumbers[i] = numberRangeStart + i;
+        }
     }
 
     /***
@@ -23,10 +31,36 @@ public class RandomBingoNumberProvider implements BingoNumberProvider {
      */
     @Override
     public Deque<Integer> createBingoNumbers() {
-        Deque<Integer> randomBingoNumbers = new LinkedList<>();
-        Collections.shuffle(bingoNumbers);
-        bingoNumbers.forEach(randomBingoNumbers::push);
+        shuffle(bingoNumbers.length);
+        Deque<Integer> randomBingoNumbers = new ArrayDeque<>(bingoNumbers.length);
+        for (int bingoNumber : bingoNumbers) {
+            randomBingoNumbers.push(bingoNumber);
+        }
 
         return randomBingoNumbers;
     }
+
+    /***
+     * Fills the array with distinct random numbers specified in the range.
+     * @param randomBingoNumbers array to fill, no longer than the range
+     */
+    @Override
+    public void fillWithBingoNumbers(int[] randomBingoNumbers) {
+        shuffle(randomBingoNumbers.length);
+        System.arraycopy(bingoNumbers, 0, randomBingoNumbers, 0, randomBingoNumbers.length);
+    }
+
+    /***
+     * Shuffles the first count numbers of the bag in place with a partial Fisher-Yates shuffle.
+     * Each of them is drawn uniformly from the numbers not drawn yet, whatever order the bag was left in.
+     * @param count how many numbers to draw to the front of the bag
+     */
+    private void shuffle(int count) {
+        for (int i = 0; i < count; i++) {
+            int swapIndex = i + random.nextInt(bingoNumbers.length - i);
+            int bingoNumber = bingoNumbers[swapIndex];
+            bingoNumbers[swapIndex] = bingoNumbers[i];
+            bingoNumbers[i] = bingoNumber;
+        }
+    }
 }
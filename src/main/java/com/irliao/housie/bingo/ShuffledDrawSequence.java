@@ -0,0 +1,112 @@
+package com.irliao.housie.bingo;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/***
+ * Draws the numbers of a range in random order, shuffling them one draw at a time.
+ * Each draw is one step of a Fisher-Yates shuffle over a primitive array, so creating the sequence costs
+ * nothing and the array is only allocated on the first draw.
+ * A slot of the array holding 0 still holds its own number, which is why no initial fill of the range
+ * is needed and large ranges (ex. 1 - 1,000,000) never hold boxed numbers.
+ * A second array, kept the same way, holds the position of every number in the first, so a number
+ * can be removed without looking for it.
+ */
+public class ShuffledDrawSequence implements DrawSequence {
+
+    private final int numberRangeStart;
+    private final int rangeSize;
+    private final Random random;
+    private int[] shuffledOffsets; // offset of the number from the range start + 1, 0 for the slot's own number
+    private int[] positions; // index of the offset in shuffledOffsets + 1, 0 for the offset's own index
+    private int drawCount;
+
+    public ShuffledDrawSequence(int numberRangeStart, int numberRangeEnd, Random random) {
+        this.numberRangeStart = numberRangeStart;
+        this.rangeSize = numberRangeEnd - numberRangeStart + 1;
+        this.random = random;
+    }
+
+    /***
+     * Checks if there are numbers of the range left to draw.
+     * @return true if next() can be called
+     */
+    @Override
+    public boolean hasNext() {
+        return drawCount < rangeSize;
+    }
+
+    /***
+     * Draws a number at random from the numbers of the range not drawn yet.
+     * @return number drawn
+     * @throws NoSuchElementException if every number of the range has been drawn already
+     */
+    @Override
+    public int next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Every number of the range has been drawn");
+        }
+        allocate();
+
+        int swapIndex = drawCount + random.nextInt(rangeSize - drawCount);
+        int drawnOffset = offsetAt(swapIndex);
+        swap(swapIndex, drawCount);
+        drawCount++;
+
+        return numberRangeStart + drawnOffset;
+    }
+
+    /***
+     * Removes the number from the numbers left to draw, as if next() had drawn it.
+     * The position of the number is looked up, so this costs the same whatever the size of the range.
+     * @param number number to remove
+     * @return true if the number was left to draw, false if it was drawn already or is outside of the range
+     */
+    @Override
+    public boolean remove(int number) {
+        int offset = number - numberRangeStart;
+        if (offset < 0 || offset >= rangeSize) {
+            return false;
+        }
+        allocate();
+
+        int index = indexOf(offset);
+        if (index < drawCount) {
+            return false;
+        }
+        swap(index, drawCount);
+        drawCount++;
+        return true;
+    }
+
+    private void allocate() {
+        if (shuffledOffsets == null) {
+            shuffledOffsets = new int[rangeSize];
+            positions = new int[rangeSize];
+        }
+    }
+
+    /***
+     * Swaps the numbers at the two indexes of the shuffled array, keeping their positions up to date.
+     * @param index index of the first number
+     * @param otherIndex index of the second number
+     */
+    private void swap(int index, int otherIndex) {
+        int offset = offsetAt(index);
+        int otherOffset = offsetAt(otherIndex);
+        shuffledOffsets[index] = otherOffset + 1;
+        shuffledOffsets[otherIndex] = offset + 1;
+        positions[offset] = otherIndex + 1;
+        positions[otherOffset] = index + 1;
+    }
+
+    private int offsetAt(int index) {
+        int shuffledOffset = shuffledOffsets[index];
+        return shuffledOffset == 0 ? index : shuffledOffset - 1;
+    }
+
+    private int indexOf(int offset) {
+        int position = positions[offset];
+        return position == 0 ? offset : position - 1;
+    }
+}
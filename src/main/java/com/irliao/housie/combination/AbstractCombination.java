@@ -4,12 +4,16 @@ import com.irliao.housie.ticket.Ticket;
 
 /***
  * Base class for a winnable combination.
- * Contains state on whether the combination has been claimed yet.
+ * Contains state on whether the combination has been claimed yet, and the policy deciding how it is awarded
+ * when it is won by more than one player on the same draw. A combination is awarded FIRST_WINS by default.
  */
 public abstract class AbstractCombination {
 
     private final String name;
     private boolean isClaimed = false;
+    private TiePolicy tiePolicy = TiePolicy.FIRST_WINS;
+    private int tierCount = 1;
+    private int claimedTierCount = 0;
 
     public AbstractCombination(String name) {
         this.name = name;
@@ -31,6 +35,52 @@ public abstract class AbstractCombination {
         this.isClaimed = claimed;
     }
 
+    /***
+     * Sets how this combination is awarded when more than one player wins it on the same draw.
+     * @param tiePolicy policy deciding the winners of a draw
+     * @param tierCount number of prize tiers, 1 unless the policy is MULTI_TIER
+     * @throws IllegalArgumentException if the tier count is not positive, or more than 1 for a single tier policy
+     */
+    public void setTiePolicy(TiePolicy tiePolicy, int tierCount) {
+        if (tierCount <= 0 || (tierCount > 1 && tiePolicy != TiePolicy.MULTI_TIER)) {
+            throw new IllegalArgumentException("Invalid tier count, must be 1, or > 0 for " + TiePolicy.MULTI_TIER);
+        }
+        this.tiePolicy = tiePolicy;
+        this.tierCount = tierCount;
+    }
+
+    /***
+     * Gets how this combination is awarded when more than one player wins it on the same draw.
+     * @return tie policy of this combination
+     */
+    public TiePolicy getTiePolicy() {
+        return tiePolicy;
+    }
+
+    /***
+     * Gets the number of prize tiers of this combination.
+     * @return number of tiers, 1 unless the tie policy is MULTI_TIER
+     */
+    public int getTierCount() {
+        return tierCount;
+    }
+
+    /***
+     * Gets how many tiers of this combination have been claimed so far.
+     * @return number of tiers claimed, the last tier claimed being the tier of that number
+     */
+    public int getClaimedTierCount() {
+        return claimedTierCount;
+    }
+
+    /***
+     * Records the next tier of this combination as claimed, the combination being claimed once every tier is.
+     */
+    public void claimTier() {
+        claimedTierCount++;
+        isClaimed = claimedTierCount >= tierCount;
+    }
+
     /***
      * Gets the name of this combination.
      * @return name of combination
@@ -42,6 +92,8 @@ public abstract class AbstractCombination {
     /***
      * Checks if the ticket is a winning ticket.
      * Subclass will provide the implementation to determine if a ticket has won.
+     * The check is expected to be a threshold check against the running counters the ticket keeps
+     * as slots are marked, so it costs the same no matter the size of the ticket.
      * @param ticket ticket to check
      * @return true if the ticket has met the winning conditions
      */
@@ -0,0 +1,85 @@
+package com.irliao.housie.combination;
+
+/***
+ * Record of a player claiming a winning combination.
+ * Contains which draw of the game the combination was won on and the number called on that draw,
+ * the prize tier claimed and how many players share the prize of that tier.
+ */
+public class Claim {
+
+    private final String combinationName;
+    private final int playerId;
+    private final int drawCount;
+    private final int calledNumber;
+    private final int tier;
+    private final int shareCount;
+
+    public Claim(String combinationName, int playerId, int drawCount, int calledNumber) {
+        this(combinationName, playerId, drawCount, calledNumber, 1, 1);
+    }
+
+    public Claim(String combinationName, int playerId, int drawCount, int calledNumber, int tier, int shareCount) {
+        this.combinationName = combinationName;
+        this.playerId = playerId;
+        this.drawCount = drawCount;
+        this.calledNumber = calledNumber;
+        this.tier = tier;
+        this.shareCount = shareCount;
+    }
+
+    /***
+     * Gets the name of the combination claimed.
+     * @return name of combination
+     */
+    public String getCombinationName() {
+        return combinationName;
+    }
+
+    /***
+     * Gets the ID of the player who claimed the combination.
+     * @return player's ID
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /***
+     * Gets how many numbers had been drawn when the combination was claimed, starting at 1 for the first draw.
+     * @return draw the combination was won on
+     */
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    /***
+     * Gets the number called on the draw the combination was won on.
+     * @return number called
+     */
+    public int getCalledNumber() {
+        return calledNumber;
+    }
+
+    /***
+     * Gets the prize tier claimed, starting at 1 for the first draw the combination was won on.
+     * @return tier claimed
+     */
+    public int getTier() {
+        return tier;
+    }
+
+    /***
+     * Gets how many players claimed the same tier of the combination on the same draw and share its prize.
+     * @return number of players sharing the prize, 1 if the player claimed the tier alone
+     */
+    public int getShareCount() {
+        return shareCount;
+    }
+
+    /***
+     * Gets the part of the tier's prize going to the player.
+     * @return prize share, 1 if the player claimed the tier alone
+     */
+    public double getPrizeShare() {
+        return 1.0 / shareCount;
+    }
+}
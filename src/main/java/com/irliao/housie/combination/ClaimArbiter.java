@@ -0,0 +1,69 @@
+package com.irliao.housie.combination;
+
+/***
+ * Decides which player claims a combination won by more than one player on the same draw.
+ * Every player gets a draw score, a 64-bit hash of the game's seed, the draw count and the player's ID, and among
+ * the simultaneous winners the player with the lowest score claims the combination (the lowest ID if two scores
+ * are equal). The hash mixes its input well enough for every winner to have the same chance of the lowest score,
+ * without shuffling or even looking at the players who did not win.
+ * The rule only depends on the seed, so anyone knowing the seed can recompute the scores and audit every claim.
+ * A player's score is the same for every combination of a draw, so a player claiming one combination also claims
+ * the other combinations of that draw the player is tied on.
+ */
+public class ClaimArbiter {
+
+    private final long seed;
+
+    public ClaimArbiter(long seed) {
+        this.seed = seed;
+    }
+
+    /***
+     * Gets the seed the draw scores are computed from.
+     * @return seed of the arbiter
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /***
+     * Gets the draw score of the player, SplitMix64's mixer applied to the seed and draw count, then to the player's ID.
+     * @param drawCount draw the combination was won on
+     * @param playerId ID of the player
+     * @return score of the player on the draw
+     */
+    public long getDrawScore(int drawCount, int playerId) {
+        return mix(mix(seed ^ drawCount) ^ playerId);
+    }
+
+    /***
+     * Picks the player claiming a combination among the players who won it on the same draw.
+     * @param drawCount draw the combination was won on
+     * @param playerIds IDs of the players who won the combination
+     * @param winnerCount how many IDs of playerIds to pick from, starting from the first
+     * @return ID of the player claiming the combination
+     * @throws IllegalArgumentException if there is no player to pick from
+     */
+    public int pickWinner(int drawCount, int[] playerIds, int winnerCount) {
+        if (winnerCount <= 0) {
+            throw new IllegalArgumentException("There must be at least 1 winner to pick from");
+        }
+
+        int winnerId = playerIds[0];
+        long winnerScore = getDrawScore(drawCount, winnerId);
+        for (int i = 1; i < winnerCount; i++) {
+            long score = getDrawScore(drawCount, playerIds[i]);
+            if (score < winnerScore || (score == winnerScore && playerIds[i] < winnerId)) {
+                winnerId = playerIds[i];
+                winnerScore = score;
+            }
+        }
+        return winnerId;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,27 @@
+package com.irliao.housie.combination;
+
+/***
+ * Verdict on a combination claimed by a player, checked against the player's ticket and the claims of the game.
+ */
+public enum ClaimVerdict {
+
+    /***
+     * The player's ticket wins the combination and the player was awarded it.
+     */
+    ACCEPTED,
+
+    /***
+     * The player's ticket does not win the combination.
+     */
+    NOT_WON,
+
+    /***
+     * The player's ticket wins the combination, but it was awarded to other players, who won it earlier or won the tie.
+     */
+    CLAIMED_BY_OTHER,
+
+    /***
+     * The combination is not in the game.
+     */
+    UNKNOWN_COMBINATION
+}
@@ -0,0 +1,113 @@
+package com.irliao.housie.combination;
+
+import com.irliao.housie.GameSettings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/***
+ * Registry of the combinations a game can be won with, in the order they are checked.
+ * A combination is registered with a factory creating a fresh, unclaimed combination for the settings of a game,
+ * so the same registry sets up any number of games. Patterns over the ticket grid are compiled once per game,
+ * for the ticket shape of its settings.
+ */
+public class CombinationRegistry {
+
+    public static final String MIDDLE_LINE = "Middle Line";
+    public static final String BOTTOM_LINE = "Bottom Line";
+    public static final String FOUR_CORNERS = "Four Corners";
+    public static final String PYRAMID = "Pyramid";
+
+    private final Map<String, Function<GameSettings, AbstractCombination>> combinationFactories;
+
+    public CombinationRegistry() {
+        combinationFactories = new LinkedHashMap<>();
+    }
+
+    /***
+     * Creates a registry of the combinations of a classic Housie game: Early Five, Full House and Top Line.
+     * @return registry of the classic combinations
+     */
+    public static CombinationRegistry standard() {
+        CombinationRegistry combinationRegistry = new CombinationRegistry();
+        combinationRegistry.register(EarlyFiveCombination.COMBINATION_NAME, gameSettings -> new EarlyFiveCombination());
+        combinationRegistry.register(FullHouseCombination.COMBINATION_NAME, gameSettings -> new FullHouseCombination());
+        combinationRegistry.register(TopLineCombination.COMBINATION_NAME, gameSettings -> new TopLineCombination());
+        return combinationRegistry;
+    }
+
+    /***
+     * Creates a registry of the classic combinations plus the Middle Line, Bottom Line, Four Corners and Pyramid patterns.
+     * The middle line is the row in the middle of the ticket, the lower one of the two for an even number of rows.
+     * @return registry of the classic combinations and patterns
+     */
+    public static CombinationRegistry withPatterns() {
+        CombinationRegistry combinationRegistry = standard();
+        combinationRegistry.registerPattern(MIDDLE_LINE, gameSettings ->
+            TicketPattern.rows(gameSettings.getNumberOfRows(), gameSettings.getNumberOfCols(), gameSettings.getNumberOfRows() / 2));
+        combinationRegistry.registerPattern(BOTTOM_LINE, gameSettings ->
+            TicketPattern.rows(gameSettings.getNumberOfRows(), gameSettings.getNumberOfCols(), gameSettings.getNumberOfRows() - 1));
+        combinationRegistry.registerPattern(FOUR_CORNERS, gameSettings ->
+            TicketPattern.fourCorners(gameSettings.getNumberOfRows(), gameSettings.getNumberOfCols()));
+        combinationRegistry.registerPattern(PYRAMID, gameSettings ->
+            TicketPattern.pyramid(gameSettings.getNumberOfRows(), gameSettings.getNumberOfCols(), gameSettings.getNumberPerRow()));
+        return combinationRegistry;
+    }
+
+    /***
+     * Registers a combination, checked after the combinations registered before it.
+     * @param name name of the combination, as returned by its getName()
+     * @param combinationFactory creates an unclaimed combination for the settings of a game
+     * @throws IllegalArgumentException if a combination of that name is registered already
+     */
+    public void register(String name, Function<GameSettings, AbstractCombination> combinationFactory) {
+        if (combinationFactories.containsKey(name)) {
+            throw new IllegalArgumentException("Combination '" + name + "' is registered already");
+        }
+        combinationFactories.put(name, combinationFactory);
+    }
+
+    /***
+     * Registers a combination won by marking a pattern, compiled for the ticket shape of every game set up.
+     * @param name name of the combination
+     * @param patternCompiler compiles the pattern for the settings of a game
+     * @throws IllegalArgumentException if a combination of that name is registered already
+     */
+    public void registerPattern(String name, Function<GameSettings, TicketPattern> patternCompiler) {
+        register(name, gameSettings -> new PatternCombination(name, patternCompiler.apply(gameSettings)));
+    }
+
+    /***
+     * Removes a combination from the registry.
+     * @param name name of the combination
+     * @return true if the combination was registered
+     */
+    public boolean unregister(String name) {
+        return combinationFactories.remove(name) != null;
+    }
+
+    /***
+     * Gets the names of the registered combinations, in the order they are checked.
+     * @return names of the combinations
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(combinationFactories.keySet());
+    }
+
+    /***
+     * Creates an unclaimed instance of every registered combination for a game.
+     * @param gameSettings settings of the game
+     * @return combinations of the game, in registration order
+     * @throws IllegalArgumentException if a pattern does not fit the tickets of the settings
+     */
+    public List<AbstractCombination> createCombinations(GameSettings gameSettings) {
+        List<AbstractCombination> combinations = new ArrayList<>(combinationFactories.size());
+        combinationFactories.values().forEach(combinationFactory -> combinations.add(combinationFactory.apply(gameSettings)));
+        return combinations;
+    }
+}
@@ -1,11 +1,6 @@
 package com.irliao.housie.combination;
 
 import com.irliao.housie.ticket.Ticket;
-import com.irliao.housie.ticket.TicketSlot;
-
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
 
 /**
  * Object to check if a ticket has 5 slots marked.
@@ -26,11 +21,6 @@ public class EarlyFiveCombination extends AbstractCombination {
      */
     @Override
     public boolean isWinningTicket(Ticket ticket) {
-        List<List<TicketSlot>> slots = ticket.getSlots();
-        return slots.stream()
-                    .flatMap(Collection::stream)
-                    .filter(Objects::nonNull)
-                    .filter(TicketSlot::getMarked)
-                    .count() >= 5;
+        return ticket.getMarkedCount() >= 5;
     }
 }
@@ -1,11 +1,6 @@
 package com.irliao.housie.combination;
 
 import com.irliao.housie.ticket.Ticket;
-import com.irliao.housie.ticket.TicketSlot;
-
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
 
 /***
  * Object to check if a ticket has all the slots marked.
@@ -26,10 +21,6 @@ public class FullHouseCombination extends AbstractCombination {
      */
     @Override
     public boolean isWinningTicket(Ticket ticket) {
-        List<List<TicketSlot>> slots = ticket.getSlots();
-        return slots.stream()
-                    .flatMap(Collection::stream)
-                    .filter(Objects::nonNull)
-                    .allMatch(TicketSlot::getMarked);
+        return ticket.getMarkedCount() == ticket.getFilledCount();
     }
 }
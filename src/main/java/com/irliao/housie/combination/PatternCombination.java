@@ -0,0 +1,36 @@
+package com.irliao.housie.combination;
+
+import com.irliao.housie.ticket.Ticket;
+
+/***
+ * Combination won by marking every number of a pattern over the ticket grid, such as a line, the four corners
+ * or a pyramid. The pattern is compiled into masks once for the shape of the tickets, so checking a ticket
+ * costs a mask-AND per word of the pattern.
+ */
+public class PatternCombination extends AbstractCombination {
+
+    private final TicketPattern ticketPattern;
+
+    public PatternCombination(String name, TicketPattern ticketPattern) {
+        super(name);
+        this.ticketPattern = ticketPattern;
+    }
+
+    /***
+     * Gets the pattern to mark to win this combination.
+     * @return compiled pattern
+     */
+    public TicketPattern getTicketPattern() {
+        return ticketPattern;
+    }
+
+    /***
+     * Checks if every number of the pattern is marked on the ticket.
+     * @param ticket ticket to check
+     * @return true if the ticket matches the pattern
+     */
+    @Override
+    public boolean isWinningTicket(Ticket ticket) {
+        return ticketPattern.matches(ticket);
+    }
+}
@@ -0,0 +1,211 @@
+package com.irliao.housie.combination;
+
+import com.irliao.housie.ticket.Ticket;
+
+/***
+ * Pattern of slots over the grid of a ticket, compiled for one ticket shape into masks laid out like the marked
+ * slots bitset of the tickets, so checking a ticket against the pattern is a mask-AND per word.
+ * A pattern selects slots in two ways, which can be combined:
+ * - cells: slots by row and column, of which only the ones holding a number need to be marked
+ * - numbers: the Nth number of a row counting from the left or from the right, wherever it lies on the row,
+ *   such as the first and last number of a row for the corners of a ticket
+ * A ticket matches the pattern when every selected slot holding a number is marked, and at least one does.
+ */
+public class TicketPattern {
+
+    private final int rowSize;
+    private final int colSize;
+    private final int wordsPerRow;
+    private final long[] cellMasks;
+    private final int[] cellWords;
+    private final long[] numberMasks;
+    private final long[] lastNumberMasks;
+    private final int[] numberRows;
+
+    /***
+     * Compiles a pattern for tickets of the given shape.
+     * @param rowSize number of rows of the tickets
+     * @param colSize number of columns of the tickets
+     * @param cellMasks per row, then per word of the row, bit N of a row's first word selecting the slot of column N
+     * @param numberMasks per row, bit N selecting the Nth number of the row from the left, starting at 0
+     * @param lastNumberMasks per row, bit N selecting the Nth number of the row from the right, starting at 0
+     */
+    private TicketPattern(int rowSize, int colSize, long[] cellMasks, long[] numberMasks, long[] lastNumberMasks) {
+        this.rowSize = rowSize;
+        this.colSize = colSize;
+        wordsPerRow = wordsPerRow(colSize);
+        this.cellMasks = cellMasks;
+        this.numberMasks = numberMasks;
+        this.lastNumberMasks = lastNumberMasks;
+
+        int cellWordCount = 0;
+        for (long cellMask : cellMasks) {
+            cellWordCount += cellMask != 0 ? 1 : 0;
+        }
+        cellWords = new int[cellWordCount];
+        for (int word = 0, i = 0; word < cellMasks.length; word++) {
+            if (cellMasks[word] != 0) {
+                cellWords[i++] = word;
+            }
+        }
+
+        int numberRowCount = 0;
+        for (int row = 0; row < rowSize; row++) {
+            numberRowCount += (numberMasks[row] | lastNumberMasks[row]) != 0 ? 1 : 0;
+        }
+        numberRows = new int[numberRowCount];
+        for (int row = 0, i = 0; row < rowSize; row++) {
+            if ((numberMasks[row] | lastNumberMasks[row]) != 0) {
+                numberRows[i++] = row;
+            }
+        }
+    }
+
+    /***
+     * Creates the pattern of every number on the given rows.
+     * @param rowSize number of rows of the tickets
+     * @param colSize number of columns of the tickets
+     * @param rows rows of the pattern, from 0 for the top row
+     * @return pattern of the rows
+     * @throws IllegalArgumentException if there is no row or a row is outside of the ticket
+     */
+    public static TicketPattern rows(int rowSize, int colSize, int... rows) {
+        if (rows.length == 0) {
+            throw new IllegalArgumentException("Pattern must have at least 1 row");
+        }
+        long[] cellMasks = new long[rowSize * wordsPerRow(colSize)];
+        for (int row : rows) {
+            checkSlot(rowSize, colSize, row, 0);
+            for (int col = 0; col < colSize; col++) {
+                cellMasks[row * wordsPerRow(colSize) + (col >>> 6)] |= 1L << col;
+            }
+        }
+        return new TicketPattern(rowSize, colSize, cellMasks, new long[rowSize], new long[rowSize]);
+    }
+
+    /***
+     * Creates the pattern of arbitrary slots of the grid.
+     * @param rowSize number of rows of the tickets
+     * @param colSize number of columns of the tickets
+     * @param cells slots of the pattern, each as {row, column} from 0 for the top left slot
+     * @return pattern of the slots
+     * @throws IllegalArgumentException if there is no slot or a slot is outside of the ticket
+     */
+    public static TicketPattern cells(int rowSize, int colSize, int[]... cells) {
+        if (cells.length == 0) {
+            throw new IllegalArgumentException("Pattern must have at least 1 cell");
+        }
+        long[] cellMasks = new long[rowSize * wordsPerRow(colSize)];
+        for (int[] cell : cells) {
+            if (cell.length != 2) {
+                throw new IllegalArgumentException("Cell must be given as {row, column}");
+            }
+            checkSlot(rowSize, colSize, cell[0], cell[1]);
+            cellMasks[cell[0] * wordsPerRow(colSize) + (cell[1] >>> 6)] |= 1L << cell[1];
+        }
+        return new TicketPattern(rowSize, colSize, cellMasks, new long[rowSize], new long[rowSize]);
+    }
+
+    /***
+     * Creates the pattern of the four corners: the first and last numbers of the top and bottom rows.
+     * @param rowSize number of rows of the tickets
+     * @param colSize number of columns of the tickets
+     * @return pattern of the four corners
+     */
+    public static TicketPattern fourCorners(int rowSize, int colSize) {
+        long[] numberMasks = new long[rowSize];
+        long[] lastNumberMasks = new long[rowSize];
+        numberMasks[0] = numberMasks[rowSize - 1] = 1L;
+        lastNumberMasks[0] = lastNumberMasks[rowSize - 1] = 1L;
+        return new TicketPattern(rowSize, colSize, new long[rowSize * wordsPerRow(colSize)], numberMasks, lastNumberMasks);
+    }
+
+    /***
+     * Creates the pattern of a pyramid: the middle number of the top row, the middle three numbers of the next row,
+     * and so on, each row holding two more numbers than the row above, up to every number of the row.
+     * @param rowSize number of rows of the tickets
+     * @param colSize number of columns of the tickets
+     * @param numbersPerRow numbers on each row of the tickets
+     * @return pattern of the pyramid
+     * @throws IllegalArgumentException if a row holds more than 64 numbers
+     */
+    public static TicketPattern pyramid(int rowSize, int colSize, int numbersPerRow) {
+        if (numbersPerRow > Long.SIZE) {
+            throw new IllegalArgumentException("Pyramid pattern supports up to " + Long.SIZE + " numbers per row");
+        }
+        long[] numberMasks = new long[rowSize];
+        for (int row = 0; row < rowSize; row++) {
+            int count = Math.min(numbersPerRow, 2 * row + 1);
+            int first = (numbersPerRow - count) / 2;
+            numberMasks[row] = (count == Long.SIZE ? -1L : (1L << count) - 1) << first;
+        }
+        return new TicketPattern(rowSize, colSize, new long[rowSize * wordsPerRow(colSize)], numberMasks, new long[rowSize]);
+    }
+
+    /***
+     * Checks if every selected slot of the ticket holding a number is marked, and at least one does.
+     * The cells are checked with a mask-AND per word; the numbers of a row are only looked for in the
+     * filled slots bitset of the rows that select some.
+     * @param ticket ticket of the shape the pattern was compiled for
+     * @return true if the ticket matches the pattern
+     * @throws IllegalArgumentException if the ticket does not have the shape the pattern was compiled for
+     */
+    public boolean matches(Ticket ticket) {
+        if (ticket.getTicketStore().getRowSize() != rowSize || ticket.getTicketStore().getColSize() != colSize) {
+            throw new IllegalArgumentException("Ticket does not have the shape of the pattern");
+        }
+
+        boolean anySelected = false;
+        for (int word : cellWords) {
+            long selected = ticket.getFilledWord(word) & cellMasks[word];
+            if ((ticket.getMarkWord(word) & selected) != selected) {
+                return false;
+            }
+            anySelected |= selected != 0;
+        }
+
+        for (int row : numberRows) {
+            int rowNumberCount = 0;
+            for (int word = row * wordsPerRow; word < (row + 1) * wordsPerRow; word++) {
+                rowNumberCount += Long.bitCount(ticket.getFilledWord(word));
+            }
+            int ordinal = 0;
+            for (int word = row * wordsPerRow; word < (row + 1) * wordsPerRow; word++) {
+                long filled = ticket.getFilledWord(word);
+                long marks = ticket.getMarkWord(word);
+                for (; filled != 0; filled &= filled - 1, ordinal++) {
+                    if (isSelected(row, ordinal, rowNumberCount)) {
+                        if ((marks & Long.lowestOneBit(filled)) == 0) {
+                            return false;
+                        }
+                        anySelected = true;
+                    }
+                }
+            }
+        }
+        return anySelected;
+    }
+
+    /***
+     * Checks if the Nth number of the row is selected by the pattern, counting from the left or from the right.
+     * @param row row of the number
+     * @param ordinal position of the number among the numbers of the row, from 0 for the leftmost one
+     * @param rowNumberCount how many numbers the row holds
+     * @return true if the number is selected
+     */
+    private boolean isSelected(int row, int ordinal, int rowNumberCount) {
+        int lastOrdinal = rowNumberCount - 1 - ordinal;
+        return (ordinal < Long.SIZE && (numberMasks[row] & (1L << ordinal)) != 0) ||
+               (lastOrdinal < Long.SIZE && (lastNumberMasks[row] & (1L << lastOrdinal)) != 0);
+    }
+
+    private static int wordsPerRow(int colSize) {
+        return (colSize + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static void checkSlot(int rowSize, int colSize, int row, int col) {
+        if (row < 0 || row >= rowSize || col < 0 || col >= colSize) {
+            throw new IllegalArgumentException("Slot (" + row + ", " + col + ") is outside of a " + rowSize + " x " + colSize + " ticket");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.irliao.housie.combination;
+
+/***
+ * How a combination is awarded when more than one player wins it on the same draw.
+ */
+public enum TiePolicy {
+
+    /***
+     * Only one of the simultaneous winners claims the combination, picked by the ClaimArbiter.
+     */
+    FIRST_WINS,
+
+    /***
+     * Every simultaneous winner claims the combination, sharing its prize equally.
+     */
+    SPLIT,
+
+    /***
+     * The combination has a prize for each of several tiers and stays claimable until every tier is claimed.
+     * Every draw the combination is won on awards the next tier, shared equally by the simultaneous winners.
+     */
+    MULTI_TIER
+}
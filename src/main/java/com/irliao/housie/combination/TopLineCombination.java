@@ -1,10 +1,6 @@
 package com.irliao.housie.combination;
 
 import com.irliao.housie.ticket.Ticket;
-import com.irliao.housie.ticket.TicketSlot;
-
-import java.util.List;
-import java.util.Objects;
 
 /***
  * Object to check if the ticket's top row has all filled slots marked.
@@ -25,9 +21,6 @@ public class TopLineCombination extends AbstractCombination {
      */
     @Override
     public boolean isWinningTicket(Ticket ticket) {
-        List<TicketSlot> topLine = ticket.getSlots().get(0);
-        return topLine.stream()
-                      .filter(Objects::nonNull)
-                      .allMatch(TicketSlot::getMarked);
+        return ticket.getRowMarkedCount(0) == ticket.getRowFilledCount(0);
     }
 }
@@ -1,5 +1,6 @@
 package com.irliao.housie.command;
 
+import com.irliao.housie.render.GameRenderer;
 import com.irliao.housie.role.Dealer;
 
 /***
@@ -8,18 +9,20 @@ import com.irliao.housie.role.Dealer;
 public class CallCommand implements Command {
 
     private final Dealer dealer;
+    private final GameRenderer gameRenderer;
 
-    public CallCommand(Dealer dealer) {
+    public CallCommand(Dealer dealer, GameRenderer gameRenderer) {
         this.dealer = dealer;
+        this.gameRenderer = gameRenderer;
     }
 
     /***
      * Have the Dealer call the next number.
-     * Also prints the number called by the Dealer.
+     * Also renders the number called by the Dealer, written out along with the rest of the output of the call.
      */
     @Override
     public void execute() {
         int drawnNumber = dealer.drawAndCallNextNumber();
-        System.out.println("Next number is: " + drawnNumber + " ");
+        gameRenderer.text("Next number is: ").number(drawnNumber).line(" ");
     }
 }
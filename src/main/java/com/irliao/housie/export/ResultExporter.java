@@ -0,0 +1,91 @@
+package com.irliao.housie.export;
+
+import com.irliao.housie.combination.Claim;
+import com.irliao.housie.render.GameRenderer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/***
+ * Exports the results of a game as CSV while the game is played, one row per claim:
+ * draw,called_number,player_id,combination,tier,share_count
+ * Rows are rendered into the buffer of a GameRenderer and written at the end of every call that won something,
+ * so the file can be read by other processes during the game, and memory does not grow with the players.
+ * Players who won nothing have no row.
+ */
+public class ResultExporter implements Closeable {
+
+    public static final String HEADER = "draw,called_number,player_id,combination,tier,share_count";
+
+    private final GameRenderer gameRenderer;
+    private long exportedClaimCount;
+
+    /***
+     * Creates an exporter rendering the rows with the renderer, starting with the header.
+     * @param gameRenderer renderer to render the rows with, closed with the exporter
+     */
+    public ResultExporter(GameRenderer gameRenderer) {
+        this.gameRenderer = gameRenderer;
+        gameRenderer.line(HEADER);
+    }
+
+    /***
+     * Creates an exporter writing to the file, replacing its contents.
+     * @param file file to export the results to
+     * @return exporter writing to the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static ResultExporter toFile(Path file) throws IOException {
+        return new ResultExporter(GameRenderer.toFile(file));
+    }
+
+    /***
+     * Renders the row of the claim, written on the next flush.
+     * @param claim claim to export
+     */
+    public void exportClaim(Claim claim) {
+        gameRenderer.number(claim.getDrawCount()).text(",")
+                    .number(claim.getCalledNumber()).text(",")
+                    .number(claim.getPlayerId()).text(",");
+        renderField(claim.getCombinationName());
+        gameRenderer.text(",").number(claim.getTier())
+                    .text(",").number(claim.getShareCount())
+                    .newLine();
+        exportedClaimCount++;
+    }
+
+    /***
+     * Writes the rows exported so far to the file.
+     * @throws UncheckedIOException if the rows could not be written
+     */
+    public void flush() {
+        gameRenderer.flush();
+    }
+
+    /***
+     * Gets how many claims have been exported.
+     * @return number of rows exported, not counting the header
+     */
+    public long getExportedClaimCount() {
+        return exportedClaimCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        gameRenderer.close();
+    }
+
+    /***
+     * Renders the text as a CSV field, quoted if it holds a comma, a quote or a line break.
+     * @param text text of the field
+     */
+    private void renderField(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            gameRenderer.text(text);
+        } else {
+            gameRenderer.text("\"").text(text.replace("\"", "\"\"")).text("\"");
+        }
+    }
+}
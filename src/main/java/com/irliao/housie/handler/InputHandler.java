@@ -4,9 +4,11 @@ import com.irliao.housie.AbstractBingoGame;
 import com.irliao.housie.command.Command;
 import com.irliao.housie.command.QuitCommand;
 
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Scanner;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /***
  * Handles the inputs entered by the user from stdin.
@@ -16,11 +18,31 @@ import java.util.function.Predicate;
  */
 class InputHandler {
 
-    private final Scanner inputScanner;
+    private final Supplier<String> lineReader;
     private final Command quitCommand;
 
     InputHandler(Scanner inputScanner) {
-        this.inputScanner = inputScanner;
+        this(inputScanner::nextLine);
+    }
+
+    /***
+     * Creates a handler taking the inputs from the key presses read by the reader, for the input to be read
+     * by the reader alone.
+     * @param keyPressReader reader of the key presses, started
+     */
+    InputHandler(KeyPressReader keyPressReader) {
+        this(() -> {
+            try {
+                return keyPressReader.nextKeyPress();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NoSuchElementException("Interrupted while waiting for input");
+            }
+        });
+    }
+
+    private InputHandler(Supplier<String> lineReader) {
+        this.lineReader = lineReader;
         quitCommand = new QuitCommand();
     }
 
@@ -39,7 +61,7 @@ class InputHandler {
         Optional<Integer> inputIntOpt = Optional.empty();
         while (!inputIntOpt.isPresent()) {
             System.out.print(promptMessage);
-            String inputString = inputScanner.nextLine();
+            String inputString = lineReader.get();
             if (AbstractBingoGame.KEY_TO_QUIT.equalsIgnoreCase(inputString)) {
                 quitCommand.execute();
             }
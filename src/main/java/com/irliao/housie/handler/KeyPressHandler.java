@@ -9,10 +9,13 @@ import java.util.stream.Collectors;
 /***
  * Handles all the actions performed for the mapped key presses.
  * Commands need to be registered to this handler to it to be used.
+ * Immediate commands, such as Quit, are run by the KeyPressReader as soon as their key is read,
+ * instead of waiting in the queue behind the key presses the game has not handled yet.
  */
 public class KeyPressHandler {
 
     private final Map<String, Command> keyMap = new HashMap<>();
+    private final Map<String, Command> immediateKeyMap = new HashMap<>();
 
     /***
      * Registers a key press to a command into our map.
@@ -27,6 +30,31 @@ public class KeyPressHandler {
         keyMap.put(keyPress.toLowerCase(), command);
     }
 
+    /***
+     * Registers a key press to a command run as soon as the key is read, on the thread reading the keys.
+     * The command is also run by runCommand(), for key presses not read through a KeyPressReader.
+     * @param keyPress letter string of the key press
+     * @param command command to execute, safe to run from another thread than the game loop
+     */
+    public void registerImmediateCommand(String keyPress, Command command) {
+        registerCommand(keyPress, command);
+        immediateKeyMap.put(keyPress.toLowerCase(), command);
+    }
+
+    /***
+     * Runs the command mapped to the key pressed if it is an immediate command.
+     * @param keyPress letter string of the key press
+     * @return true if an immediate command was run
+     */
+    public boolean runImmediateCommand(String keyPress) {
+        Command command = immediateKeyMap.get(keyPress.toLowerCase());
+        if (command == null) {
+            return false;
+        }
+        command.execute();
+        return true;
+    }
+
     /***
      * Runs the command mapped to the key pressed (if found).
      * The key press will be to lowered before checking since we registered the key press in lower case
@@ -0,0 +1,125 @@
+package com.irliao.housie.handler;
+
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/***
+ * Reads the key presses on a thread of its own into a queue, for the game loop to take them from.
+ * Reading goes on while the game loop is busy calling a number and checking the winners, so key presses are
+ * never lost or delayed by the game, and immediate commands of the KeyPressHandler (Quit) run as soon as
+ * they are read. The queue is bounded: once it is full, reading waits for the game loop to catch up.
+ * Closing cannot unblock a reader waiting on the input, which would take the next line before stopping, so
+ * an input read by more than one session is read by a single reader kept for all of them.
+ */
+public class KeyPressReader implements AutoCloseable {
+
+    // compared by reference, so no key press can be mistaken for it
+    private static final String END_OF_INPUT = new String("end of input");
+
+    private final Scanner inputScanner;
+    private final KeyPressHandler keyPressHandler;
+    private final BlockingQueue<String> keyPresses;
+    private final Thread reader;
+    private volatile boolean closed;
+
+    /***
+     * Creates a reader of the key presses, not reading until started.
+     * @param inputScanner scanner of the input, no longer used by anything else once the reader is started
+     * @param keyPressHandler handler of the key presses, running the immediate commands
+     * @param capacity how many key presses can be read ahead of the game loop
+     * @throws IllegalArgumentException if the capacity is not > 0
+     */
+    public KeyPressReader(Scanner inputScanner, KeyPressHandler keyPressHandler, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity, must be > 0");
+        }
+        this.inputScanner = inputScanner;
+        this.keyPressHandler = keyPressHandler;
+        keyPresses = new ArrayBlockingQueue<>(capacity);
+        reader = new Thread(this::readKeyPresses, "key-press-reader");
+        reader.setDaemon(true);
+    }
+
+    /***
+     * Starts reading the key presses.
+     */
+    public void start() {
+        reader.start();
+    }
+
+    /***
+     * Takes the next key press read, waiting for one if none is.
+     * @return key press read
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NoSuchElementException if the input has ended, or the reader was closed
+     */
+    public String nextKeyPress() throws InterruptedException {
+        if (closed) {
+            throw new NoSuchElementException("Key press reader is closed");
+        }
+        String keyPress = keyPresses.take();
+        if (keyPress == END_OF_INPUT) {
+            keyPresses.offer(END_OF_INPUT); // for any later call
+            throw new NoSuchElementException("No more key presses");
+        }
+        return keyPress;
+    }
+
+    /***
+     * Discards the key presses read but not taken yet, so reading never waits for a game loop not taking them.
+     * The end of the input is kept, for nextKeyPress() to report it.
+     * @return number of key presses discarded
+     */
+    public int discardPendingKeyPresses() {
+        int discardedCount = 0;
+        for (String keyPress = keyPresses.poll(); keyPress != null; keyPress = keyPresses.poll()) {
+            if (keyPress == END_OF_INPUT) {
+                keyPresses.offer(END_OF_INPUT);
+                break;
+            }
+            discardedCount++;
+        }
+        return discardedCount;
+    }
+
+    /***
+     * Gets how many key presses have been read but not taken yet.
+     * @return number of pending key presses
+     */
+    public int getPendingCount() {
+        return keyPresses.size();
+    }
+
+    /***
+     * Stops reading the key presses. A reader blocked on the input stops once the next line is read.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        reader.interrupt();
+    }
+
+    private void readKeyPresses() {
+        boolean endQueued = false;
+        try {
+            while (!closed && inputScanner.hasNextLine()) {
+                String keyPress = inputScanner.nextLine();
+                if (!closed && !keyPressHandler.runImmediateCommand(keyPress)) {
+                    keyPresses.put(keyPress);
+                }
+            }
+            // the key presses read before the input ended are still taken first
+            keyPresses.put(END_OF_INPUT);
+            endQueued = true;
+        } catch (InterruptedException e) {
+            // closed while waiting for the game loop to catch up
+        } finally {
+            if (!endQueued) {
+                keyPresses.clear();
+                keyPresses.offer(END_OF_INPUT);
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.irliao.housie.handler;
 
+import com.irliao.housie.GameSettings;
+
 import java.util.Scanner;
 
-public class SettingHandler {
+public class SettingHandler implements GameSettings {
 
     private static final int DEFAULT_NUMBER_OF_PLAYERS = 5;
     private static final int DEFAULT_NUMBER_RANGE_START = 1;
@@ -24,6 +26,14 @@ public class SettingHandler {
         inputHandler = new InputHandler(inputScanner);
     }
 
+    /***
+     * Creates the handler taking the settings from the key presses read by the reader.
+     * @param keyPressReader reader of the key presses, started
+     */
+    public SettingHandler(KeyPressReader keyPressReader) {
+        inputHandler = new InputHandler(keyPressReader);
+    }
+
     /***
      * Requests user for settings of the bingo game.
      */
@@ -40,6 +50,7 @@ public class SettingHandler {
      * Gets the number of players in the bingo game.
      * @return number of players
      */
+    @Override
     public int getNumberOfPlayers() {
         return numberOfPlayers;
     }
@@ -48,6 +59,7 @@ public class SettingHandler {
      * Gets the starting range of numbers allowed on the ticket.
      * @return starting range
      */
+    @Override
     public int getNumberRangeStart() {
         return numberRangeStart;
     }
@@ -56,6 +68,7 @@ public class SettingHandler {
      * Gets the ending range of numbers allowed on the ticket.
      * @return ending range
      */
+    @Override
     public int getNumberRangeEnd() {
         return numberRangeEnd;
     }
@@ -64,6 +77,7 @@ public class SettingHandler {
      * Gets the number of rows on the ticket.
      * @return number of rows
      */
+    @Override
     public int getNumberOfRows() {
         return numberOfRows;
     }
@@ -72,6 +86,7 @@ public class SettingHandler {
      * Gets the number of columns on the ticket.
      * @return number of columns
      */
+    @Override
     public int getNumberOfCols() {
         return numberOfCols;
     }
@@ -80,6 +95,7 @@ public class SettingHandler {
      * Gets the number of slots on the ticket to fill with a number.
      * @return numbers per row
      */
+    @Override
     public int getNumberPerRow() {
         return numberPerRow;
     }
@@ -0,0 +1,99 @@
+package com.irliao.housie.journal;
+
+/***
+ * Identity of the tickets a journaled game is played with: how many tickets, their shape and the range of numbers.
+ * Journaled once at the start of a game, so a journal is never replayed over the tickets of another game.
+ */
+public class GameFingerprint {
+
+    private final int ticketCount;
+    private final int rowSize;
+    private final int colSize;
+    private final int numbersPerRow;
+    private final int numberRangeStart;
+    private final int numberRangeEnd;
+
+    public GameFingerprint(int ticketCount, int rowSize, int colSize, int numbersPerRow, int numberRangeStart, int numberRangeEnd) {
+        this.ticketCount = ticketCount;
+        this.rowSize = rowSize;
+        this.colSize = colSize;
+        this.numbersPerRow = numbersPerRow;
+        this.numberRangeStart = numberRangeStart;
+        this.numberRangeEnd = numberRangeEnd;
+    }
+
+    /***
+     * Gets how many tickets the game is played with, one per player.
+     * @return number of tickets
+     */
+    public int getTicketCount() {
+        return ticketCount;
+    }
+
+    /***
+     * Gets the number of rows of a ticket.
+     * @return number of rows
+     */
+    public int getRowSize() {
+        return rowSize;
+    }
+
+    /***
+     * Gets the number of columns of a ticket.
+     * @return number of columns
+     */
+    public int getColSize() {
+        return colSize;
+    }
+
+    /***
+     * Gets how many numbers are on each row of a ticket.
+     * @return numbers per row
+     */
+    public int getNumbersPerRow() {
+        return numbersPerRow;
+    }
+
+    /***
+     * Gets the first number of the range called.
+     * @return starting range of numbers
+     */
+    public int getNumberRangeStart() {
+        return numberRangeStart;
+    }
+
+    /***
+     * Gets the last number of the range called.
+     * @return ending range of numbers
+     */
+    public int getNumberRangeEnd() {
+        return numberRangeEnd;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameFingerprint)) {
+            return false;
+        }
+        GameFingerprint fingerprint = (GameFingerprint) other;
+        return ticketCount == fingerprint.ticketCount && rowSize == fingerprint.rowSize && colSize == fingerprint.colSize &&
+               numbersPerRow == fingerprint.numbersPerRow && numberRangeStart == fingerprint.numberRangeStart &&
+               numberRangeEnd == fingerprint.numberRangeEnd;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = ticketCount;
+        hash = 31 * hash + rowSize;
+        hash = 31 * hash + colSize;
+        hash = 31 * hash + numbersPerRow;
+        hash = 31 * hash + numberRangeStart;
+        return 31 * hash + numberRangeEnd;
+    }
+
+    @Override
+    public String toString() {
+        return ticketCount + " tickets of " + rowSize + " x " + colSize + " with " + numbersPerRow + " numbers per row, numbers "
+               + numberRangeStart + " - " + numberRangeEnd;
+    }
+}
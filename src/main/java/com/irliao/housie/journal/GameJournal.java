@@ -0,0 +1,404 @@
+package com.irliao.housie.journal;
+
+import com.irliao.housie.combination.Claim;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/***
+ * Append-only journal of the draws and claims of a game, to restore the game after the JVM stopped mid-game.
+ * The file starts with a small header followed by one record per draw or claim: the record type, the length
+ * of the payload, the payload and a CRC32 of the type, length and payload. All values are little-endian.
+ * Appending only copies the record into a buffer; a background thread writes the buffered records and forces
+ * them to the disk, while the next records are appended to a second buffer. All the records appended while the
+ * previous write was in progress are committed together by the next one, so the draw loop never waits on the disk.
+ * The records not committed yet when the JVM stops are lost, and a record torn by the stop is dropped when the
+ * journal is opened again. sync() waits for the records appended so far to be committed.
+ * A call of the game is appended with appendCall() as a single record holding the draw and every claim it won,
+ * so a draw is never recovered without its claims: a call lost or torn by the stop is lost as a whole.
+ * A game record holding the fingerprint of the tickets is appended before the first call, so the journal is only
+ * ever replayed over the tickets it was written for.
+ */
+public class GameJournal implements Closeable {
+
+    static final int MAGIC = 0x4A4B4448; // "HDKJ"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final byte DRAW_RECORD = 1;
+    static final byte CLAIM_RECORD = 2;
+    static final byte TIER_CLAIM_RECORD = 3; // claim of a tier other than the first, or of a prize shared
+    static final byte CALL_RECORD = 4; // draw followed by the claims it won
+    static final byte GAME_RECORD = 5; // fingerprint of the tickets of the game
+    private static final int RECORD_OVERHEAD = 1 + Integer.BYTES + Integer.BYTES; // type, payload length and CRC
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final FileChannel fileChannel;
+    private final JournalContents recoveredContents;
+    private final Object lock = new Object();
+    private final CRC32 crc32 = new CRC32();
+    private final Thread flusher;
+    private ByteBuffer pending;
+    private ByteBuffer flushing;
+    private int recordStart;
+    private long appendedRecords;
+    private long committedRecords;
+    private boolean closed;
+    private IOException failure;
+
+    private GameJournal(FileChannel fileChannel, JournalContents recoveredContents) {
+        this.fileChannel = fileChannel;
+        this.recoveredContents = recoveredContents;
+        pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        flushing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        flusher = new Thread(this::flushCommittedRecords, "game-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /***
+     * Opens the journal of a game, creating the file if it does not exist.
+     * The draws and claims already in the file are read first, see getRecoveredContents(), and a record
+     * torn at the end of the file is cut off so new records are appended after the last complete one.
+     * @param file file of the journal
+     * @return journal appending to the file
+     * @throws IOException if the file cannot be read or written, or is not a journal of this version
+     */
+    public static GameJournal open(Path file) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            JournalContents recoveredContents;
+            if (fileChannel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION);
+                ((Buffer) header).flip();
+                writeFully(fileChannel, header);
+                fileChannel.force(false);
+                recoveredContents = new JournalContents(null, new int[0], new ArrayList<>());
+            } else {
+                ByteBuffer data = ByteBuffer.allocate(Math.toIntExact(fileChannel.size())).order(ByteOrder.LITTLE_ENDIAN);
+                while (data.hasRemaining() && fileChannel.read(data, data.position()) >= 0) {
+                    // positional reads until the buffer is full
+                }
+                ((Buffer) data).flip();
+                recoveredContents = readRecords(data, file);
+                fileChannel.truncate(data.position());
+            }
+            fileChannel.position(fileChannel.size());
+            return new GameJournal(fileChannel, recoveredContents);
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    /***
+     * Gets the draws and claims that were in the journal when it was opened.
+     * @return contents recovered from the file
+     */
+    public JournalContents getRecoveredContents() {
+        return recoveredContents;
+    }
+
+    /***
+     * Appends the fingerprint of the tickets of the game to the journal, without waiting for it to be committed.
+     * @param gameFingerprint fingerprint of the game
+     * @throws UncheckedIOException if the journal could not be written
+     */
+    public void appendGame(GameFingerprint gameFingerprint) {
+        synchronized (lock) {
+            ByteBuffer record = startRecord(GAME_RECORD, 6 * Integer.BYTES);
+            record.putInt(gameFingerprint.getTicketCount()).putInt(gameFingerprint.getRowSize()).putInt(gameFingerprint.getColSize())
+                  .putInt(gameFingerprint.getNumbersPerRow()).putInt(gameFingerprint.getNumberRangeStart()).putInt(gameFingerprint.getNumberRangeEnd());
+            endRecord();
+        }
+    }
+
+    /***
+     * Appends the draw to the journal, without waiting for it to be committed.
+     * @param drawCount how many numbers have been drawn, including this draw
+     * @param calledNumber number called on the draw
+     * @throws UncheckedIOException if the journal could not be written
+     */
+    public void appendDraw(int drawCount, int calledNumber) {
+        synchronized (lock) {
+            ByteBuffer record = startRecord(DRAW_RECORD, 2 * Integer.BYTES);
+            record.putInt(drawCount).putInt(calledNumber);
+            endRecord();
+        }
+    }
+
+    /***
+     * Appends the claim to the journal, without waiting for it to be committed.
+     * @param claim combination claimed
+     * @throws UncheckedIOException if the journal could not be written
+     */
+    public void appendClaim(Claim claim) {
+        byte[] combinationName = claim.getCombinationName().getBytes(StandardCharsets.UTF_8);
+        synchronized (lock) {
+            if (claim.getTier() == 1 && claim.getShareCount() == 1) {
+                ByteBuffer record = startRecord(CLAIM_RECORD, 3 * Integer.BYTES + combinationName.length);
+                record.putInt(claim.getDrawCount()).putInt(claim.getCalledNumber()).putInt(claim.getPlayerId()).put(combinationName);
+            } else {
+                ByteBuffer record = startRecord(TIER_CLAIM_RECORD, 5 * Integer.BYTES + combinationName.length);
+                record.putInt(claim.getDrawCount()).putInt(claim.getCalledNumber()).putInt(claim.getPlayerId())
+                      .putInt(claim.getTier()).putInt(claim.getShareCount()).put(combinationName);
+            }
+            endRecord();
+        }
+    }
+
+    /***
+     * Appends the draw and the claims it won to the journal as one record, without waiting for it to be committed.
+     * The flusher commits the record as a whole, so the draw and its claims are recovered together or not at all.
+     * @param drawCount how many numbers have been drawn, including this draw
+     * @param calledNumber number called on the draw
+     * @param claims combinations claimed on the draw, possibly none
+     * @throws UncheckedIOException if the journal could not be written
+     * @throws IllegalArgumentException if a claim is not of this draw
+     */
+    public void appendCall(int drawCount, int calledNumber, List<Claim> claims) {
+        byte[][] combinationNames = new byte[claims.size()][];
+        int payloadLength = 2 * Integer.BYTES;
+        for (int i = 0; i < claims.size(); i++) {
+            Claim claim = claims.get(i);
+            if (claim.getDrawCount() != drawCount || claim.getCalledNumber() != calledNumber) {
+                throw new IllegalArgumentException("Claim of draw " + claim.getDrawCount() + " appended with draw " + drawCount);
+            }
+            combinationNames[i] = claim.getCombinationName().getBytes(StandardCharsets.UTF_8);
+            payloadLength += 4 * Integer.BYTES + combinationNames[i].length;
+        }
+        synchronized (lock) {
+            ByteBuffer record = startRecord(CALL_RECORD, payloadLength);
+            record.putInt(drawCount).putInt(calledNumber);
+            for (int i = 0; i < claims.size(); i++) {
+                Claim claim = claims.get(i);
+                record.putInt(claim.getPlayerId()).putInt(claim.getTier()).putInt(claim.getShareCount())
+                      .putInt(combinationNames[i].length).put(combinationNames[i]);
+            }
+            endRecord();
+        }
+    }
+
+    /***
+     * Waits for every record appended so far to be committed to the disk.
+     * @throws IOException if the journal could not be written or the wait was interrupted
+     */
+    public void sync() throws IOException {
+        synchronized (lock) {
+            long appended = appendedRecords;
+            while (committedRecords < appended && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the journal to be committed");
+                }
+            }
+            if (failure != null) {
+                throw new IOException("Journal could not be written", failure);
+            }
+        }
+    }
+
+    /***
+     * Commits the records appended so far, then closes the file.
+     * @throws IOException if the journal could not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fileChannel.close();
+        synchronized (lock) {
+            if (failure != null) {
+                throw new IOException("Journal could not be written", failure);
+            }
+        }
+    }
+
+    /***
+     * Starts a record in the pending buffer, growing it if needed, and wakes the flusher up if it was idle.
+     * Called while holding the lock.
+     * @param type type of the record
+     * @param payloadLength bytes of the payload
+     * @return pending buffer positioned at the payload
+     */
+    private ByteBuffer startRecord(byte type, int payloadLength) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal could not be written", failure);
+        }
+        if (pending.remaining() < RECORD_OVERHEAD + payloadLength) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + RECORD_OVERHEAD + payloadLength))
+                                         .order(ByteOrder.LITTLE_ENDIAN);
+            ((Buffer) pending).flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        if (pending.position() == 0) {
+            lock.notifyAll();
+        }
+        recordStart = pending.position();
+        return pending.put(type).putInt(payloadLength);
+    }
+
+    /***
+     * Ends the record started last with the CRC of the record. Called while holding the lock.
+     */
+    private void endRecord() {
+        crc32.reset();
+        crc32.update(pending.array(), recordStart, pending.position() - recordStart);
+        pending.putInt((int) crc32.getValue());
+        appendedRecords++;
+    }
+
+    /***
+     * Writes and forces the pending records to the disk until the journal is closed, run by the flusher thread.
+     * The buffers are swapped while holding the lock, so records keep being appended during the write.
+     */
+    private void flushCommittedRecords() {
+        while (true) {
+            long appended;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer written = flushing;
+                flushing = pending;
+                pending = written;
+                appended = appendedRecords;
+            }
+
+            try {
+                ((Buffer) flushing).flip();
+                writeFully(fileChannel, flushing);
+                fileChannel.force(false);
+                ((Buffer) flushing).clear();
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                committedRecords = appended;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /***
+     * Reads the records of a journal, stopping at the first record that is incomplete or fails its CRC.
+     * The position of the buffer is left after the last complete record.
+     * @param data contents of the file
+     * @param file file of the journal
+     * @return fingerprint, draws and claims read
+     * @throws IOException if the file is not a journal of this version or its draws are out of order
+     */
+    static JournalContents readRecords(ByteBuffer data, Path file) throws IOException {
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC) {
+            throw new IOException(file + " is not a game journal");
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " has unsupported game journal version " + version);
+        }
+
+        GameFingerprint gameFingerprint = null;
+        int[] calledNumbers = new int[16];
+        int drawCount = 0;
+        List<Claim> claims = new ArrayList<>();
+        CRC32 recordCrc32 = new CRC32();
+        while (data.remaining() >= RECORD_OVERHEAD) {
+            int start = data.position();
+            byte type = data.get();
+            int payloadLength = data.getInt();
+            if (payloadLength < 0 || data.remaining() < payloadLength + Integer.BYTES) {
+                data.position(start);
+                break;
+            }
+            recordCrc32.reset();
+            recordCrc32.update(data.array(), start, 1 + Integer.BYTES + payloadLength);
+            if (data.getInt(data.position() + payloadLength) != (int) recordCrc32.getValue()) {
+                data.position(start);
+                break;
+            }
+
+            if (type == GAME_RECORD) {
+                gameFingerprint = new GameFingerprint(data.getInt(), data.getInt(), data.getInt(), data.getInt(), data.getInt(), data.getInt());
+            } else if (type == DRAW_RECORD || type == CALL_RECORD) {
+                if (data.getInt() != drawCount + 1) {
+                    throw new IOException(file + " has draws out of order");
+                }
+                if (drawCount == calledNumbers.length) {
+                    calledNumbers = Arrays.copyOf(calledNumbers, drawCount * 2);
+                }
+                int calledNumber = data.getInt();
+                calledNumbers[drawCount++] = calledNumber;
+                int end = start + 1 + Integer.BYTES + payloadLength;
+                while (type == CALL_RECORD && data.position() < end) {
+                    int playerId = data.getInt();
+                    int tier = data.getInt();
+                    int shareCount = data.getInt();
+                    byte[] combinationName = new byte[data.getInt()];
+                    data.get(combinationName);
+                    claims.add(new Claim(new String(combinationName, StandardCharsets.UTF_8), playerId, drawCount, calledNumber, tier, shareCount));
+                }
+            } else if (type == CLAIM_RECORD || type == TIER_CLAIM_RECORD) {
+                int claimDrawCount = data.getInt();
+                int calledNumber = data.getInt();
+                int playerId = data.getInt();
+                int tier = type == TIER_CLAIM_RECORD ? data.getInt() : 1;
+                int shareCount = type == TIER_CLAIM_RECORD ? data.getInt() : 1;
+                byte[] combinationName = new byte[start + 1 + Integer.BYTES + payloadLength - data.position()];
+                data.get(combinationName);
+                claims.add(new Claim(new String(combinationName, StandardCharsets.UTF_8), playerId, claimDrawCount, calledNumber, tier, shareCount));
+            } else {
+                throw new IOException(file + " has a record of unknown type " + type);
+            }
+            data.position(start + RECORD_OVERHEAD + payloadLength);
+        }
+
+        return new JournalContents(gameFingerprint, Arrays.copyOf(calledNumbers, drawCount), claims);
+    }
+
+    private static void writeFully(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.irliao.housie.journal;
+
+import com.irliao.housie.ticket.TicketStore;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntSupplier;
+import java.util.zip.CRC32;
+
+/***
+ * Snapshot of the marks of every ticket of a game, taken after a given draw while the game goes on.
+ * The file holds a header with the draw count whose marks it holds at least and the shape of the bitsets,
+ * the mark words of every ticket in ticket ID order, the draw count whose marks it holds at most, then a CRC32
+ * of everything before it. All values are little-endian.
+ * The marks are read from the store as they are, in chunks, while the next draws are being marked: a snapshot
+ * started after draw N holds every mark of the first N draws and possibly some marks of the draws up to the
+ * marked draw count read once every word is written. Marks are only ever added, so replaying the journal from
+ * draw N + 1 brings the tickets back exactly, as long as the journal holds every draw the snapshot may hold marks of.
+ * A snapshot is written to a temporary file moved over the previous snapshot once complete, so there is
+ * always one complete snapshot at most.
+ */
+final class GameSnapshot {
+
+    static final int MAGIC = 0x534B4448; // "HDKS"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 24;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private GameSnapshot() {
+    }
+
+    /***
+     * Writes the marks of every ticket of the store to the snapshot file, reading them while they may still be marked.
+     * @param file snapshot file to replace
+     * @param ticketStore store holding the marks
+     * @param drawCount draws marked on every ticket when the snapshot is started
+     * @param markedDrawCount draws whose marks may be on the tickets, read once every mark word is written
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(Path file, TicketStore ticketStore, int drawCount, IntSupplier markedDrawCount) throws IOException {
+        int ticketCount = ticketStore.getTicketCount();
+        int wordsPerTicket = ticketStore.getWordsPerTicket();
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc32 = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+              .putInt(VERSION)
+              .putInt(drawCount)
+              .putInt(ticketCount)
+              .putInt(wordsPerTicket)
+              .putInt(0);
+
+        try (FileChannel fileChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int ticketId = 0; ticketId < ticketCount; ticketId++) {
+                for (int word = 0; word < wordsPerTicket; word++) {
+                    if (buffer.remaining() < Long.BYTES) {
+                        writeFully(fileChannel, buffer, crc32);
+                    }
+                    buffer.putLong(ticketStore.getMarkWord(ticketId, word));
+                }
+            }
+            if (buffer.remaining() < Integer.BYTES) {
+                writeFully(fileChannel, buffer, crc32);
+            }
+            buffer.putInt(markedDrawCount.getAsInt());
+            writeFully(fileChannel, buffer, crc32);
+            buffer.putInt((int) crc32.getValue());
+            writeFully(fileChannel, buffer, new CRC32());
+            fileChannel.force(false);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /***
+     * Restores the marks of every ticket of the store from the snapshot file.
+     * A snapshot that may hold marks of more draws than the journal holds, or failing its CRC, is not restored and
+     * every ticket is left unmarked, for the game to be replayed from the first draw.
+     * @param file snapshot file
+     * @param ticketStore store to restore the marks into
+     * @param maxDrawCount draws held by the journal
+     * @return draw count the snapshot was started at, the draws after it to be replayed, 0 if the snapshot was not restored
+     * @throws IOException if the snapshot cannot be read or was taken for other tickets
+     */
+    static int restore(Path file, TicketStore ticketStore, int maxDrawCount) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CRC32 crc32 = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(fileChannel, buffer, HEADER_SIZE, crc32, file);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException(file + " is not a game snapshot of this version");
+            }
+            int drawCount = buffer.getInt();
+            if (buffer.getInt() != ticketStore.getTicketCount() || buffer.getInt() != ticketStore.getWordsPerTicket()) {
+                throw new IOException(file + " is a snapshot of other tickets");
+            }
+            if (drawCount > maxDrawCount) {
+                ticketStore.clearMarks();
+                return 0;
+            }
+
+            int wordsPerTicket = ticketStore.getWordsPerTicket();
+            int ticketsPerRead = Math.max(1, BUFFER_SIZE / (wordsPerTicket * Long.BYTES));
+            long[] markWords = new long[ticketsPerRead * wordsPerTicket];
+            for (int firstTicketId = 0; firstTicketId < ticketStore.getTicketCount(); firstTicketId += ticketsPerRead) {
+                int ticketCount = Math.min(ticketsPerRead, ticketStore.getTicketCount() - firstTicketId);
+                readFully(fileChannel, buffer, ticketCount * wordsPerTicket * Long.BYTES, crc32, file);
+                buffer.asLongBuffer().get(markWords, 0, ticketCount * wordsPerTicket);
+                for (int i = 0; i < ticketCount; i++) {
+                    ticketStore.restoreMarks(firstTicketId + i, markWords, i * wordsPerTicket);
+                }
+            }
+
+            readFully(fileChannel, buffer, Integer.BYTES, crc32, file);
+            int markedDrawCount = buffer.getInt();
+            int expectedCrc = (int) crc32.getValue();
+            readFully(fileChannel, buffer, Integer.BYTES, new CRC32(), file);
+            if (buffer.getInt() != expectedCrc || markedDrawCount > maxDrawCount) {
+                ticketStore.clearMarks();
+                return 0;
+            }
+            return drawCount;
+        }
+    }
+
+    private static void writeFully(FileChannel fileChannel, ByteBuffer buffer, CRC32 crc32) throws IOException {
+        ((Buffer) buffer).flip();
+        crc32.update(buffer.array(), 0, buffer.limit());
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+
+    private static void readFully(FileChannel fileChannel, ByteBuffer buffer, int length, CRC32 crc32, Path file) throws IOException {
+        ((Buffer) buffer).clear();
+        ((Buffer) buffer).limit(length);
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer) < 0) {
+                throw new IOException(file + " is truncated");
+            }
+        }
+        ((Buffer) buffer).flip();
+        crc32.update(buffer.array(), 0, length);
+    }
+}
@@ -0,0 +1,121 @@
+package com.irliao.housie.journal;
+
+import com.irliao.housie.ticket.TicketStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+/***
+ * Takes periodic snapshots of the marks of a journaled game on a background thread, so restoring the game
+ * only replays the draws journaled after the latest snapshot.
+ * The draw loop never waits for a snapshot: the marks are streamed to the file in chunks on the background thread
+ * while the next numbers are being marked, without copying the marks of the hall on the heap.
+ * A snapshot started after draw N therefore holds every mark of the first N draws and possibly some marks of the
+ * later draws, up to the draw count of the Dealer read once the marks are written, which is saved with the snapshot.
+ * Restoring only takes the snapshot when the journal holds every one of those draws, then replays the draws after N,
+ * marking again the marks held already harmlessly; a snapshot holding marks of a draw that never reached the journal
+ * is not restored. Before writing, the snapshot waits for the journal to commit draw N.
+ * A draw falling due while the previous snapshot is still being written is skipped.
+ */
+public class GameSnapshotter implements Closeable {
+
+    private final Path snapshotFile;
+    private final int drawsPerSnapshot;
+    private final ExecutorService executorService;
+    private final AtomicBoolean snapshotInProgress;
+    private volatile int lastSnapshotDrawCount;
+    private volatile IOException failure;
+
+    /***
+     * Creates the snapshotter of a game.
+     * @param snapshotFile file holding the latest snapshot
+     * @param drawsPerSnapshot how many draws between two snapshots
+     * @throws IllegalArgumentException if drawsPerSnapshot is not positive
+     */
+    public GameSnapshotter(Path snapshotFile, int drawsPerSnapshot) {
+        if (drawsPerSnapshot <= 0) {
+            throw new IllegalArgumentException("Invalid draws per snapshot, must be > 0");
+        }
+        this.snapshotFile = snapshotFile;
+        this.drawsPerSnapshot = drawsPerSnapshot;
+        snapshotInProgress = new AtomicBoolean();
+        executorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /***
+     * Restores the marks of every ticket from the latest snapshot, if there is one.
+     * @param ticketStore store to restore the marks into
+     * @param journalDrawCount draws held by the journal of the game
+     * @return draws whose marks have been restored, 0 if there is no snapshot to restore
+     * @throws IOException if the snapshot cannot be read or was taken for other tickets
+     */
+    public int restore(TicketStore ticketStore, int journalDrawCount) throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return 0;
+        }
+        lastSnapshotDrawCount = GameSnapshot.restore(snapshotFile, ticketStore, journalDrawCount);
+        return lastSnapshotDrawCount;
+    }
+
+    /***
+     * Starts a snapshot on the background thread when the draw is due for one and no snapshot is in progress.
+     * Must be called on the thread marking the tickets, after the draw is marked and journaled.
+     * @param drawCount draws marked so far
+     * @param ticketStore store holding the marks
+     * @param gameJournal journal the draw was appended to
+     * @param markedDrawCount draws marked or being marked by the game, read from the background thread
+     */
+    public void drawCalled(int drawCount, TicketStore ticketStore, GameJournal gameJournal, IntSupplier markedDrawCount) {
+        if (drawCount % drawsPerSnapshot != 0 || !snapshotInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        executorService.execute(() -> {
+            try {
+                gameJournal.sync();
+                GameSnapshot.write(snapshotFile, ticketStore, drawCount, markedDrawCount);
+                lastSnapshotDrawCount = drawCount;
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                snapshotInProgress.set(false);
+            }
+        });
+    }
+
+    /***
+     * Gets the draw count of the latest snapshot written or restored.
+     * @return draw count, 0 if there has been no snapshot
+     */
+    public int getLastSnapshotDrawCount() {
+        return lastSnapshotDrawCount;
+    }
+
+    /***
+     * Waits for the snapshot in progress to be written, then stops the background thread.
+     * @throws IOException if a snapshot could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IOException("Snapshot could not be written", failure);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.irliao.housie.journal;
+
+import com.irliao.housie.combination.Claim;
+
+import java.util.Collections;
+import java.util.List;
+
+/***
+ * Draws and claims recovered from a GameJournal, in the order they were journaled, and the fingerprint of the game.
+ */
+public class JournalContents {
+
+    private final GameFingerprint gameFingerprint;
+    private final int[] calledNumbers;
+    private final List<Claim> claims;
+
+    JournalContents(GameFingerprint gameFingerprint, int[] calledNumbers, List<Claim> claims) {
+        this.gameFingerprint = gameFingerprint;
+        this.calledNumbers = calledNumbers;
+        this.claims = Collections.unmodifiableList(claims);
+    }
+
+    /***
+     * Gets the fingerprint of the tickets the journaled game is played with.
+     * @return fingerprint of the game, null if none was journaled
+     */
+    public GameFingerprint getGameFingerprint() {
+        return gameFingerprint;
+    }
+
+    /***
+     * Gets the numbers called, the number of the first draw first.
+     * @return numbers called
+     */
+    public int[] getCalledNumbers() {
+        return calledNumbers.clone();
+    }
+
+    /***
+     * Gets how many draws were journaled.
+     * @return number of draws
+     */
+    public int getDrawCount() {
+        return calledNumbers.length;
+    }
+
+    /***
+     * Gets the combinations claimed, in the order they were claimed.
+     * @return claims
+     */
+    public List<Claim> getClaims() {
+        return claims;
+    }
+}
@@ -0,0 +1,230 @@
+package com.irliao.housie.render;
+
+import com.irliao.housie.ticket.Ticket;
+import com.irliao.housie.ticket.TicketStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/***
+ * Renders the text output of a game, such as ticket grids, announcements and the summary, into one reusable buffer
+ * written to a channel only when the buffer is full or flushed, instead of a write per line.
+ * Numbers are written as digits straight into the buffer, so rendering a ticket creates no strings.
+ * The console renderer writes through System.out, so its text stays in order with the text printed to System.out
+ * directly and follows System.out when it is redirected.
+ */
+public class GameRenderer implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] EMPTY_SLOT_TEXT = "__ _ | ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MARKED_TEXT = " x | ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UNMARKED_TEXT = " _ | ".getBytes(StandardCharsets.US_ASCII);
+
+    private final WritableByteChannel channel;
+    private final boolean console;
+    private final ByteBuffer buffer;
+    private final byte[] digits;
+
+    /***
+     * Creates a renderer writing to the channel, closed with the renderer.
+     * @param channel channel to write the rendered text to
+     */
+    public GameRenderer(WritableByteChannel channel) {
+        this(channel, false);
+    }
+
+    private GameRenderer(WritableByteChannel channel, boolean console) {
+        this.channel = channel;
+        this.console = console;
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        digits = new byte[11];
+    }
+
+    /***
+     * Creates a renderer writing to System.out as it is set now. Closing it flushes the buffer but leaves
+     * System.out open.
+     * @return console renderer
+     */
+    public static GameRenderer toConsole() {
+        return new GameRenderer(Channels.newChannel(System.out), true);
+    }
+
+    /***
+     * Creates a renderer writing to the file, replacing its contents.
+     * @param file file to write the rendered text to
+     * @return file renderer
+     * @throws IOException if the file cannot be opened
+     */
+    public static GameRenderer toFile(Path file) throws IOException {
+        return new GameRenderer(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE));
+    }
+
+    /***
+     * Renders the text.
+     * @param text text to render
+     * @return this renderer
+     * @throws UncheckedIOException if the buffer had to be written and could not be
+     */
+    public GameRenderer text(String text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                bytes(text.substring(i).getBytes(StandardCharsets.UTF_8));
+                return this;
+            }
+            ensureRemaining(1);
+            buffer.put((byte) c);
+        }
+        return this;
+    }
+
+    /***
+     * Renders the text followed by a line separator.
+     * @param text text to render
+     * @return this renderer
+     * @throws UncheckedIOException if the buffer had to be written and could not be
+     */
+    public GameRenderer line(String text) {
+        return text(text).newLine();
+    }
+
+    /***
+     * Renders a line separator.
+     * @return this renderer
+     * @throws UncheckedIOException if the buffer had to be written and could not be
+     */
+    public GameRenderer newLine() {
+        ensureRemaining(1);
+        buffer.put((byte) '\n');
+        return this;
+    }
+
+    /***
+     * Renders the number in decimal.
+     * @param number number to render
+     * @return this renderer
+     * @throws UncheckedIOException if the buffer had to be written and could not be
+     */
+    public GameRenderer number(int number) {
+        if (number == Integer.MIN_VALUE) {
+            return text(Integer.toString(number));
+        }
+        ensureRemaining(digits.length);
+        if (number < 0) {
+            buffer.put((byte) '-');
+            number = -number;
+        }
+        int digitCount = 0;
+        do {
+            digits[digitCount++] = (byte) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+        while (digitCount > 0) {
+            buffer.put(digits[--digitCount]);
+        }
+        return this;
+    }
+
+    /***
+     * Renders the grid of the ticket, one line per row, showing the numbers and whether they are marked.
+     * @param ticket ticket to render
+     * @return this renderer
+     * @throws UncheckedIOException if the buffer had to be written and could not be
+     */
+    public GameRenderer ticket(Ticket ticket) {
+        TicketStore ticketStore = ticket.getTicketStore();
+        int ticketId = ticket.getTicketId();
+        int rowSize = ticketStore.getRowSize();
+        int colSize = ticketStore.getColSize();
+        for (int row = 0; row < rowSize; row++) {
+            for (int col = 0; col < colSize; col++) {
+                int slot = row * colSize + col;
+                int number = ticketStore.getNumber(ticketId, slot);
+                if (number == TicketStore.EMPTY_SLOT) {
+                    bytes(EMPTY_SLOT_TEXT);
+                } else {
+                    number(number);
+                    bytes(ticketStore.isMarked(ticketId, slot) ? MARKED_TEXT : UNMARKED_TEXT);
+                }
+            }
+            newLine();
+        }
+        return this;
+    }
+
+    /***
+     * Renders the ticket of the player under the player's ID, followed by a blank line.
+     * @param playerId ID of the player
+     * @param ticket ticket of the player
+     * @return this renderer
+     * @throws UncheckedIOException if the buffer had to be written and could not be
+     */
+    public GameRenderer playerTicket(int playerId, Ticket ticket) {
+        return text("Player#").number(playerId).line(":").ticket(ticket).line(" ");
+    }
+
+    /***
+     * Writes the text rendered so far to the channel.
+     * @throws UncheckedIOException if the text could not be written
+     */
+    public void flush() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        ((Buffer) buffer).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (console) {
+                System.out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Rendered text could not be written", e);
+        } finally {
+            ((Buffer) buffer).clear();
+        }
+    }
+
+    /***
+     * Writes the text rendered so far, then closes the channel unless it is the console.
+     * @throws IOException if the text could not be written or the channel closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!console) {
+                channel.close();
+            }
+        }
+    }
+
+    private void bytes(byte[] bytes) {
+        for (int offset = 0; offset < bytes.length; ) {
+            ensureRemaining(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensureRemaining(int length) {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+}
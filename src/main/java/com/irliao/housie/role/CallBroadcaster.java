@@ -0,0 +1,259 @@
+package com.irliao.housie.role;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/***
+ * Broadcasts the numbers called by a single caller to many listeners, such as game rooms or partitions of the
+ * tickets, each run on its own thread.
+ * This is a building block for hosting several games off one caller; the games themselves do not use it,
+ * their partitions are marked on the game thread by the PartitionedCallDispatcher.
+ * The calls are published into a ring buffer without locks: the caller writes the call into the next entry and
+ * advances the published sequence, and every listener follows the sequence at its own pace, handling all the calls
+ * published since it last looked in one batch. The caller never runs listener code, so a slow listener only holds
+ * the caller back once it falls a whole ring behind.
+ * Listeners waiting for calls spin briefly, then yield, then park until the caller publishes the next call.
+ * Only a single thread may publish.
+ */
+public class CallBroadcaster implements AutoCloseable {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 10_000L;
+
+    private final int[] drawCounts;
+    private final int[] numbers;
+    private final int mask;
+    private final AtomicLong cursor;
+    private final List<Subscription> subscriptions;
+    private long nextSequence;
+    private long cachedGatingSequence;
+    private volatile boolean started;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    /***
+     * Creates a broadcaster buffering up to capacity calls not handled by every listener yet.
+     * @param capacity size of the ring buffer, a power of two
+     * @throws IllegalArgumentException if the capacity is not a positive power of two
+     */
+    public CallBroadcaster(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Invalid capacity, must be a power of two");
+        }
+        drawCounts = new int[capacity];
+        numbers = new int[capacity];
+        mask = capacity - 1;
+        cursor = new AtomicLong(-1L);
+        subscriptions = new ArrayList<>();
+        cachedGatingSequence = -1L;
+    }
+
+    /***
+     * Adds a listener to receive every call published once the broadcaster is started.
+     * @param name name of the listener, used to name its thread
+     * @param listener listener to run on its own thread
+     * @throws IllegalStateException if the broadcaster has been started already
+     */
+    public void addListener(String name, CallListener listener) {
+        if (started) {
+            throw new IllegalStateException("Listeners must be added before the broadcaster is started");
+        }
+        subscriptions.add(new Subscription(name, listener));
+    }
+
+    /***
+     * Starts the thread of every listener.
+     * @throws IllegalStateException if the broadcaster has been started already
+     */
+    public void start() {
+        if (started) {
+            throw new IllegalStateException("Broadcaster has been started already");
+        }
+        started = true;
+        for (Subscription subscription : subscriptions) {
+            subscription.thread = new Thread(() -> consumeCalls(subscription), "call-listener-" + subscription.name);
+            subscription.thread.setDaemon(true);
+            subscription.thread.start();
+        }
+    }
+
+    /***
+     * Publishes a call to every listener, waiting only if the slowest listener is a whole ring behind.
+     * @param drawCount how many numbers have been drawn, including this draw
+     * @param number number called on the draw
+     * @throws IllegalStateException if the broadcaster is not running or a listener has failed
+     */
+    public void publish(int drawCount, int number) {
+        if (!started || closed) {
+            throw new IllegalStateException("Broadcaster is not running");
+        }
+        checkFailure();
+
+        long sequence = nextSequence;
+        long wrapPoint = sequence - drawCounts.length;
+        if (wrapPoint > cachedGatingSequence) {
+            int idleCount = 0;
+            while (wrapPoint > (cachedGatingSequence = getGatingSequence())) {
+                checkFailure();
+                idleCount = idle(idleCount);
+            }
+        }
+
+        int index = (int) sequence & mask;
+        drawCounts[index] = drawCount;
+        numbers[index] = number;
+        cursor.set(sequence);
+        nextSequence = sequence + 1;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.parked) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    /***
+     * Waits for every listener to handle all the calls published so far.
+     * @throws IllegalStateException if a listener has failed
+     */
+    public void awaitHandled() {
+        long published = cursor.get();
+        int idleCount = 0;
+        while (getGatingSequence() < published) {
+            checkFailure();
+            idleCount = idle(idleCount);
+        }
+        checkFailure();
+    }
+
+    /***
+     * Gets how many calls have been published so far.
+     * @return number of calls published
+     */
+    public long getPublishedCount() {
+        return cursor.get() + 1;
+    }
+
+    /***
+     * Lets every listener handle the calls published so far, then stops their threads.
+     * @throws IllegalStateException if a listener has failed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.thread != null) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.thread != null) {
+                try {
+                    subscription.thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        checkFailure();
+    }
+
+    /***
+     * Hands every published call to the listener of the subscription until the broadcaster is closed,
+     * run by the thread of the listener.
+     * @param subscription subscription of the listener
+     */
+    private void consumeCalls(Subscription subscription) {
+        long next = subscription.sequence.get() + 1;
+        int idleCount = 0;
+        try {
+            while (true) {
+                long available = cursor.get();
+                if (available >= next) {
+                    for (; next <= available; next++) {
+                        int index = (int) next & mask;
+                        subscription.listener.numberCalled(drawCounts[index], numbers[index]);
+                    }
+                    subscription.sequence.set(available);
+                    idleCount = 0;
+                } else if (closed) {
+                    if (cursor.get() < next) {
+                        return;
+                    }
+                } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                    idleCount = idle(idleCount);
+                } else {
+                    subscription.parked = true;
+                    if (cursor.get() < next && !closed) {
+                        LockSupport.park(this);
+                    }
+                    subscription.parked = false;
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            // a failed listener no longer holds the caller back
+            subscription.sequence.set(Long.MAX_VALUE);
+        }
+    }
+
+    /***
+     * Gets the sequence of the call handled last by the slowest listener.
+     * @return lowest sequence among the listeners, the published sequence if there is no listener
+     */
+    private long getGatingSequence() {
+        long gatingSequence = cursor.get();
+        for (Subscription subscription : subscriptions) {
+            gatingSequence = Math.min(gatingSequence, subscription.sequence.get());
+        }
+        return gatingSequence;
+    }
+
+    /***
+     * Backs off while waiting: spins first, then yields the processor, then parks for a short while.
+     * @param idleCount how many times the waiting thread has backed off so far
+     * @return updated idle count
+     */
+    private static int idle(int idleCount) {
+        if (idleCount < SPIN_TRIES) {
+            return idleCount + 1;
+        }
+        if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+            return idleCount + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return idleCount;
+    }
+
+    private void checkFailure() {
+        Throwable listenerFailure = failure;
+        if (listenerFailure != null) {
+            throw new IllegalStateException("Call listener failed", listenerFailure);
+        }
+    }
+
+    /***
+     * Listener with its own thread and the sequence of the last call it handled.
+     */
+    private static final class Subscription {
+
+        private final String name;
+        private final CallListener listener;
+        private final AtomicLong sequence;
+        private volatile Thread thread;
+        private volatile boolean parked;
+
+        private Subscription(String name, CallListener listener) {
+            this.name = name;
+            this.listener = listener;
+            sequence = new AtomicLong(-1L);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.irliao.housie.role;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/***
+ * Cadence of the numbers called automatically by the Dealer: one every fixed interval, or as fast as possible.
+ * The caller waits with awaitNextCall() before each call and reports it with callCompleted() once the tickets
+ * are marked and the winners determined, so the next call never starts before the previous one is complete.
+ * A call taking longer than the interval is counted as an overrun and the next call follows it right away,
+ * without trying to catch up on the calls missed, so a slow hall is called at the rate it can sustain.
+ * Also measures the calls, to find the rate a hall of a given size can sustain.
+ */
+public class CallCadence {
+
+    private final long intervalNanos;
+    private long firstCallStartNanos;
+    private long callStartNanos;
+    private long lastCallEndNanos;
+    private long callCount;
+    private long overrunCount;
+    private long totalCallNanos;
+    private long maxCallNanos;
+    private boolean calling;
+
+    /***
+     * Creates a cadence of one call every interval, measured from the start of a call to the start of the next.
+     * @param interval time between the start of two calls, 0 to call as fast as possible
+     * @param unit unit of the interval
+     * @throws IllegalArgumentException if the interval is < 0
+     */
+    public CallCadence(long interval, TimeUnit unit) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Invalid call interval, must be >= 0");
+        }
+        intervalNanos = unit.toNanos(interval);
+    }
+
+    /***
+     * Creates a cadence calling the next number as soon as the previous call is complete.
+     * @return cadence without any wait between calls
+     */
+    public static CallCadence asFastAsPossible() {
+        return new CallCadence(0, TimeUnit.NANOSECONDS);
+    }
+
+    /***
+     * Clears the measures, for the next call to start a new game without waiting.
+     */
+    public void reset() {
+        callCount = 0;
+        overrunCount = 0;
+        totalCallNanos = 0;
+        maxCallNanos = 0;
+        calling = false;
+    }
+
+    /***
+     * Waits until the next call is due: an interval after the start of the previous call, or right away if that
+     * time has passed or this is the first call.
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the previous call has not been reported complete
+     */
+    public void awaitNextCall() throws InterruptedException {
+        if (calling) {
+            throw new IllegalStateException("Previous call is not complete");
+        }
+        if (callCount > 0 && intervalNanos > 0) {
+            long dueNanos = callStartNanos + intervalNanos;
+            for (long waitNanos = dueNanos - System.nanoTime(); waitNanos > 0; waitNanos = dueNanos - System.nanoTime()) {
+                LockSupport.parkNanos(this, waitNanos);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+        callStartNanos = System.nanoTime();
+        if (callCount == 0) {
+            firstCallStartNanos = callStartNanos;
+        }
+        calling = true;
+    }
+
+    /***
+     * Reports the call started after the last awaitNextCall() as complete: the number is called,
+     * the tickets marked and the winners determined.
+     * @throws IllegalStateException if no call was started
+     */
+    public void callCompleted() {
+        if (!calling) {
+            throw new IllegalStateException("No call was started");
+        }
+        lastCallEndNanos = System.nanoTime();
+        long callNanos = lastCallEndNanos - callStartNanos;
+        callCount++;
+        totalCallNanos += callNanos;
+        maxCallNanos = Math.max(maxCallNanos, callNanos);
+        if (intervalNanos > 0 && callNanos > intervalNanos) {
+            overrunCount++;
+        }
+        calling = false;
+    }
+
+    /***
+     * Gets the time between the start of two calls.
+     * @return interval in nanoseconds, 0 if calling as fast as possible
+     */
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /***
+     * Gets how many calls have completed since the cadence was created or reset.
+     * @return number of calls
+     */
+    public long getCallCount() {
+        return callCount;
+    }
+
+    /***
+     * Gets how many calls took longer than the interval, delaying the next call.
+     * @return number of overruns, always 0 when calling as fast as possible
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /***
+     * Gets the longest time a call took, from its start until it was complete.
+     * @return longest call in nanoseconds
+     */
+    public long getMaxCallNanos() {
+        return maxCallNanos;
+    }
+
+    /***
+     * Gets the average time a call took, from its start until it was complete.
+     * @return mean call time in nanoseconds, NaN if no call has completed
+     */
+    public double getMeanCallNanos() {
+        return callCount == 0 ? Double.NaN : (double) totalCallNanos / callCount;
+    }
+
+    /***
+     * Gets the rate of the calls, from the start of the first call until the last one was complete.
+     * @return calls per second, NaN if no call has completed
+     */
+    public double getCallsPerSecond() {
+        long elapsedNanos = lastCallEndNanos - firstCallStartNanos;
+        return callCount == 0 ? Double.NaN : callCount * 1e9 / Math.max(elapsedNanos, 1);
+    }
+}
@@ -0,0 +1,173 @@
+package com.irliao.housie.role;
+
+import com.irliao.housie.ticket.Ticket;
+import com.irliao.housie.ticket.TicketStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/***
+ * Dispatches the numbers called by the Dealer to the players holding them.
+ * Keeps an inverted index from every number in the range to the compact list of players whose ticket
+ * has that number, so each call only touches the affected tickets instead of every player in the game.
+ * The slot holding the number is indexed next to every player, so a call marks the slot without looking it up.
+ * The players whose ticket was marked by the last call are kept so winners only need to be looked for among them,
+ * only those whose ticket passes the win check when one is set.
+ */
+public class CallDispatcher {
+
+    private static final Player[] NO_HOLDERS = new Player[0];
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final int numberRangeStart;
+    private final Player[][] holders;
+    private final int[][] holderSlots;
+    private final int[] holderCounts;
+    private final List<Player> markedPlayers;
+    private final List<Player> markedPlayersView;
+    private Predicate<Ticket> winCheck;
+
+    public CallDispatcher(int numberRangeStart, int numberRangeEnd) {
+        this.numberRangeStart = numberRangeStart;
+        int rangeSize = numberRangeEnd - numberRangeStart + 1;
+        holders = new Player[rangeSize][];
+        holderSlots = new int[rangeSize][];
+        holderCounts = new int[rangeSize];
+        Arrays.fill(holders, NO_HOLDERS);
+        Arrays.fill(holderSlots, NO_SLOTS);
+        markedPlayers = new ArrayList<>();
+        markedPlayersView = Collections.unmodifiableList(markedPlayers);
+    }
+
+    /***
+     * Indexes the player under every number on the player's ticket.
+     * @param player player to dispatch the calls to
+     * @throws IllegalArgumentException if the ticket holds a number outside of the range
+     */
+    public void register(Player player) {
+        Ticket ticket = player.getTicket();
+        for (int slot = 0, slotCount = ticket.getSlotCount(); slot < slotCount; slot++) {
+            int number = ticket.getNumber(slot);
+            if (number != TicketStore.EMPTY_SLOT) {
+                addHolder(number, slot, player);
+            }
+        }
+    }
+
+    /***
+     * Indexes all the players in one step.
+     * The numbers on the tickets are counted first so every list of the index is grown only once.
+     * @param players players to dispatch the calls to
+     * @throws IllegalArgumentException if a ticket holds a number outside of the range
+     */
+    public void registerAll(List<Player> players) {
+        int[] addedCounts = new int[holders.length];
+        for (Player player : players) {
+            player.getTicket().forEachNumber(number -> addedCounts[indexOf(number, player)]++);
+        }
+        for (int index = 0; index < holders.length; index++) {
+            if (addedCounts[index] > 0) {
+                holders[index] = Arrays.copyOf(holders[index], holderCounts[index] + addedCounts[index]);
+                holderSlots[index] = Arrays.copyOf(holderSlots[index], holders[index].length);
+            }
+        }
+        for (Player player : players) {
+            register(player);
+        }
+    }
+
+    /***
+     * Sets the check a ticket marked by a call must pass for its player to be kept as marked by the call,
+     * e.g. whether the ticket completes a combination not claimed yet.
+     * The check is run right after the ticket is marked, while the ticket is still in the cache.
+     * @param winCheck check of the marked tickets, null to keep every player marked
+     */
+    public void setWinCheck(Predicate<Ticket> winCheck) {
+        this.winCheck = winCheck;
+    }
+
+    /***
+     * Marks the number on the tickets of every player holding it.
+     * The players whose ticket was marked, and passes the win check if one is set, replace the ones kept
+     * from the previous call.
+     * @param number number called by the Dealer
+     */
+    public void dispatch(int number) {
+        markedPlayers.clear();
+        int index = number - numberRangeStart;
+        if (index < 0 || index >= holders.length) {
+            return;
+        }
+
+        Player[] numberHolders = holders[index];
+        int[] numberSlots = holderSlots[index];
+        for (int i = 0, count = holderCounts[index]; i < count; i++) {
+            Player player = numberHolders[i];
+            Ticket ticket = player.getTicket();
+            if (ticket.markSlot(numberSlots[i]) && (winCheck == null || winCheck.test(ticket))) {
+                markedPlayers.add(player);
+            }
+        }
+    }
+
+    /***
+     * Gets the players whose ticket was marked by the last dispatched number, and passes the win check if one is set,
+     * in the order the players were registered.
+     * The list is reused and only valid until the next dispatch.
+     * @return players marked by the last call
+     */
+    public List<Player> getMarkedPlayers() {
+        return markedPlayersView;
+    }
+
+    /***
+     * Gets how many players hold the number on their ticket.
+     * @param number number in the range
+     * @return number of players holding the number
+     */
+    public int getHolderCount(int number) {
+        int index = number - numberRangeStart;
+        return index < 0 || index >= holders.length ? 0 : holderCounts[index];
+    }
+
+    /***
+     * Appends the player to the list of the number, growing the list when full.
+     * A player is only added once per number even if the number appears more than once on the ticket,
+     * with the first slot holding it.
+     * @param number number on the player's ticket
+     * @param slot row-major position of the slot holding the number
+     * @param player player holding the number
+     */
+    private void addHolder(int number, int slot, Player player) {
+        int index = indexOf(number, player);
+        int count = holderCounts[index];
+        if (count > 0 && holders[index][count - 1] == player) {
+            return;
+        }
+        if (count == holders[index].length) {
+            holders[index] = Arrays.copyOf(holders[index], Math.max(4, count * 2));
+            holderSlots[index] = Arrays.copyOf(holderSlots[index], holders[index].length);
+        }
+        holders[index][count] = player;
+        holderSlots[index][count] = slot;
+        holderCounts[index] = count + 1;
+    }
+
+    /***
+     * Gets the position of the number in the index.
+     * @param number number on the player's ticket
+     * @param player player holding the number
+     * @return position of the number
+     * @throws IllegalArgumentException if the number is outside of the range
+     */
+    private int indexOf(int number, Player player) {
+        int index = number - numberRangeStart;
+        if (index < 0 || index >= holders.length) {
+            throw new IllegalArgumentException("Number " + number + " on Player#" + player.getId() + "'s ticket is outside of the range");
+        }
+        return index;
+    }
+}
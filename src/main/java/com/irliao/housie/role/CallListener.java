@@ -0,0 +1,16 @@
+package com.irliao.housie.role;
+
+/***
+ * Consumer of the numbers called through a CallBroadcaster, such as a game room or a partition
+ * of the tickets. Each listener is run on its own thread and receives every call in draw order.
+ */
+@FunctionalInterface
+public interface CallListener {
+
+    /***
+     * Handles a number called.
+     * @param drawCount how many numbers have been drawn, including this draw
+     * @param number number called on the draw
+     */
+    void numberCalled(int drawCount, int number);
+}
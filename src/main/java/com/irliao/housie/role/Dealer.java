@@ -1,23 +1,40 @@
 package com.irliao.housie.role;
 
+import com.irliao.housie.bingo.DrawSequence;
+
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.List;
 
 /***
  * Dealer of the bingo game.
- * Responsible for drawing a random number from a provided Deque and publishing the drawn number.
+ * Responsible for drawing a random number from a provided DrawSequence and publishing the drawn number.
+ * Players are reached through the CallDispatcher when one is given, so a call only touches the
+ * tickets holding the number, while other listeners are still notified through PropertyChangeSupport.
  */
 public class Dealer {
 
     private static final String NEXT_NUMBER_PROPERTY_NAME = "NEXT_NUMBER";
 
-    private final Deque<Integer> bingoNumbers;
+    private final DrawSequence drawSequence;
     private final PropertyChangeSupport propertyChangeSupport;
+    private final CallDispatcher callDispatcher;
     private int calledNumber;
+    private volatile int drawCount; // read by the snapshots of the marks, written before the draw is marked
 
     public Dealer(Deque<Integer> numberProvider) {
-        this.bingoNumbers = numberProvider;
+        this(numberProvider, null);
+    }
+
+    public Dealer(Deque<Integer> numberProvider, CallDispatcher callDispatcher) {
+        this(DrawSequence.of(numberProvider), callDispatcher);
+    }
+
+    public Dealer(DrawSequence drawSequence, CallDispatcher callDispatcher) {
+        this.drawSequence = drawSequence;
+        this.callDispatcher = callDispatcher;
         propertyChangeSupport = new PropertyChangeSupport(this);
     }
 
@@ -29,16 +46,114 @@ public class Dealer {
         propertyChangeSupport.addPropertyChangeListener(NEXT_NUMBER_PROPERTY_NAME, listener);
     }
 
+    /***
+     * Registers a player to have the called numbers marked on the player's ticket.
+     * Without a CallDispatcher the player is subscribed as a listener instead.
+     * @param player the player participating in the game
+     */
+    public void addPlayer(Player player) {
+        if (callDispatcher == null) {
+            addListener(player);
+        } else {
+            callDispatcher.register(player);
+        }
+    }
+
+    /***
+     * Registers all the players in one step to have the called numbers marked on their tickets.
+     * Without a CallDispatcher the players are subscribed as listeners instead.
+     * @param players the players participating in the game
+     */
+    public void addPlayers(List<Player> players) {
+        if (callDispatcher == null) {
+            players.forEach(this::addListener);
+        } else {
+            callDispatcher.registerAll(players);
+        }
+    }
+
+    /***
+     * Gets the players whose ticket was marked by the last number called, and passes the win check of the
+     * CallDispatcher if one is set.
+     * Only the players registered through a CallDispatcher are tracked.
+     * @return players marked by the last call, empty if there is no CallDispatcher
+     */
+    public List<Player> getPlayersMarkedByLastCall() {
+        return callDispatcher == null ? Collections.emptyList() : callDispatcher.getMarkedPlayers();
+    }
+
+    /***
+     * Gets the number called on the last draw.
+     * @return last number called, 0 if no number has been drawn yet
+     */
+    public int getCalledNumber() {
+        return calledNumber;
+    }
+
+    /***
+     * Gets how many numbers have been drawn so far.
+     * @return number of draws
+     */
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    /***
+     * Checks if there are numbers left for the Dealer to draw.
+     * @return true if drawAndCallNextNumber() can be called
+     */
+    public boolean hasNumbersLeft() {
+        return drawSequence.hasNext();
+    }
+
     /***
      * Draws the next random bingo number and publishes (call) the number to the subscribers.
-     * The Deque where the number is being drawn from should already be in random order.
+     * The DrawSequence where the number is being drawn from should draw in random order.
      * @return the number being drawn and called
      */
     public int drawAndCallNextNumber() {
-        int lastDrawnNumber = calledNumber;
-        int newDrawnNumber = bingoNumbers.pop();
-        calledNumber = newDrawnNumber;
-        propertyChangeSupport.firePropertyChange(NEXT_NUMBER_PROPERTY_NAME, lastDrawnNumber, newDrawnNumber);
+        callNumber(drawSequence.next());
         return calledNumber;
     }
+
+    /***
+     * Calls again a number drawn before the game was restored, as the next draw.
+     * The number is taken out of the numbers left to draw and published like a drawn number.
+     * @param number number called before
+     * @throws IllegalArgumentException if the number is not left to draw
+     */
+    public void replayCall(int number) {
+        if (!drawSequence.remove(number)) {
+            throw new IllegalArgumentException("Number " + number + " has been called already or is outside of the range");
+        }
+        callNumber(number);
+    }
+
+    /***
+     * Takes a number called before the game was restored out of the numbers left to draw, as the next draw,
+     * without publishing it, for a number whose marks have been restored already.
+     * @param number number called before
+     * @throws IllegalArgumentException if the number is not left to draw
+     */
+    public void restoreCall(int number) {
+        if (!drawSequence.remove(number)) {
+            throw new IllegalArgumentException("Number " + number + " has been called already or is outside of the range");
+        }
+        calledNumber = number;
+        drawCount++;
+    }
+
+    /***
+     * Makes the number the called number and publishes it to the subscribers.
+     * @param number number drawn
+     */
+    private void callNumber(int number) {
+        int lastDrawnNumber = calledNumber;
+        calledNumber = number;
+        drawCount++;
+        if (callDispatcher != null) {
+            callDispatcher.dispatch(number);
+        }
+        propertyChangeSupport.firePropertyChange(NEXT_NUMBER_PROPERTY_NAME, lastDrawnNumber, number);
+    }
 }
@@ -0,0 +1,145 @@
+package com.irliao.housie.role;
+
+import com.irliao.housie.ticket.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/***
+ * Dispatches the numbers called by the Dealer to the players holding them, with the players split into partitions
+ * marked and checked in parallel.
+ * Every partition owns a contiguous run of the registered players and its own CallDispatcher, so a partition only
+ * ever touches the tickets of its players and the partitions of a call share nothing while they run.
+ * Once every partition is done, the players kept by each partition are merged in partition order, which is the
+ * order the players were registered: the result of a call does not depend on which partition finished first,
+ * nor on how many partitions there are.
+ * Players registered later are added after the last partition holding players, so the runs stay contiguous:
+ * one at a time they all go to that partition, and registerAll() splits them over it and the partitions after it.
+ * The index of the CallDispatcher this extends is left empty, every call being handed to the partitions.
+ */
+public class PartitionedCallDispatcher extends CallDispatcher {
+
+    private final CallDispatcher[] partitions;
+    private int lastPartition; // highest partition holding players, 0 if there are none
+    private final List<Player> markedPlayers;
+    private final List<Player> markedPlayersView;
+
+    /***
+     * Creates a dispatcher splitting the players into the given number of partitions.
+     * @param numberRangeStart starting range of numbers allowed on the tickets
+     * @param numberRangeEnd ending range of numbers allowed on the tickets
+     * @param partitionCount number of partitions marked in parallel
+     * @throws IllegalArgumentException if the partition count is not positive
+     */
+    public PartitionedCallDispatcher(int numberRangeStart, int numberRangeEnd, int partitionCount) {
+        super(numberRangeStart, numberRangeStart - 1); // an empty range, the partitions hold the index
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("Invalid partition count, must be > 0");
+        }
+        partitions = new CallDispatcher[partitionCount];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions[partition] = new CallDispatcher(numberRangeStart, numberRangeEnd);
+        }
+        markedPlayers = new ArrayList<>();
+        markedPlayersView = Collections.unmodifiableList(markedPlayers);
+    }
+
+    /***
+     * Indexes the player in the last partition holding players, after the players registered before.
+     * @param player player to dispatch the calls to
+     * @throws IllegalArgumentException if the ticket holds a number outside of the range
+     */
+    @Override
+    public void register(Player player) {
+        partitions[lastPartition].register(player);
+    }
+
+    /***
+     * Splits the players into contiguous runs of about the same size, one per partition from the last partition
+     * holding players on, and indexes every run in its partition, the partitions in parallel.
+     * @param players players to dispatch the calls to
+     * @throws IllegalArgumentException if a ticket holds a number outside of the range
+     */
+    @Override
+    public void registerAll(List<Player> players) {
+        int firstPartition = lastPartition;
+        int runCount = partitions.length - firstPartition;
+        int playersPerRun = (players.size() + runCount - 1) / runCount;
+        forEachPartition(partition -> {
+            if (partition < firstPartition) {
+                return;
+            }
+            int fromIndex = Math.min(players.size(), (partition - firstPartition) * playersPerRun);
+            int toIndex = Math.min(players.size(), fromIndex + playersPerRun);
+            partitions[partition].registerAll(players.subList(fromIndex, toIndex));
+        });
+        if (playersPerRun > 0) {
+            lastPartition = firstPartition + (players.size() - 1) / playersPerRun;
+        }
+    }
+
+    /***
+     * Sets the win check of every partition, run by the partitions in parallel on the tickets they mark.
+     * The check must therefore only read the ticket it is given and state not changed during a dispatch.
+     * @param winCheck check of the marked tickets, null to keep every player marked
+     */
+    @Override
+    public void setWinCheck(Predicate<Ticket> winCheck) {
+        for (CallDispatcher partition : partitions) {
+            partition.setWinCheck(winCheck);
+        }
+    }
+
+    /***
+     * Marks the number on the tickets of every player holding it, every partition in parallel,
+     * then merges the players kept by the partitions in partition order.
+     * @param number number called by the Dealer
+     */
+    @Override
+    public void dispatch(int number) {
+        forEachPartition(partition -> partitions[partition].dispatch(number));
+
+        markedPlayers.clear();
+        for (CallDispatcher partition : partitions) {
+            markedPlayers.addAll(partition.getMarkedPlayers());
+        }
+    }
+
+    @Override
+    public List<Player> getMarkedPlayers() {
+        return markedPlayersView;
+    }
+
+    @Override
+    public int getHolderCount(int number) {
+        int holderCount = 0;
+        for (CallDispatcher partition : partitions) {
+            holderCount += partition.getHolderCount(number);
+        }
+        return holderCount;
+    }
+
+    /***
+     * Gets how many partitions the players are split into.
+     * @return number of partitions
+     */
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /***
+     * Runs the action for every partition, in parallel when there is more than one.
+     * @param action action taking the index of the partition
+     */
+    private void forEachPartition(IntConsumer action) {
+        IntStream partitionIndexes = IntStream.range(0, partitions.length);
+        if (partitions.length > 1) {
+            partitionIndexes = partitionIndexes.parallel();
+        }
+        partitionIndexes.forEach(action);
+    }
+}
@@ -0,0 +1,83 @@
+package com.irliao.housie.server;
+
+import java.nio.ByteBuffer;
+
+/***
+ * Binary frames exchanged between the GameServer and its clients, big-endian, starting with a type byte.
+ * Server to client:
+ * - WELCOME: type, player ID (int), rows (u8), columns (u8), then per slot in row-major order the number (u16),
+ *   0 for an empty slot, with the top bit set if the slot is marked already
+ * - CALL: type, draw count (u16), number called (u16)
+ * - CLAIM_RESULT: type, ClaimVerdict ordinal (u8), length of the combination name (u8), combination name (UTF-8)
+ * - GAME_OVER: type, draw count (u16)
+ * - FULL: type, sent when every seat of the game is taken, before the connection is closed
+ * Client to server:
+ * - CLAIM: type, length of the combination name (u8), combination name (UTF-8)
+ */
+final class GameFrames {
+
+    static final byte WELCOME = 1;
+    static final byte CALL = 2;
+    static final byte CLAIM = 3;
+    static final byte CLAIM_RESULT = 4;
+    static final byte GAME_OVER = 5;
+    static final byte FULL = 6;
+
+    static final int WELCOME_HEADER_SIZE = 7;
+    static final int CALL_SIZE = 5;
+    static final int GAME_OVER_SIZE = 3;
+    static final int MARKED_BIT = 0x8000;
+    static final int MAX_NUMBER = MARKED_BIT - 1;
+    static final int MAX_NAME_LENGTH = 255;
+    static final int MAX_CLAIM_SIZE = 2 + MAX_NAME_LENGTH;
+
+    private GameFrames() {
+    }
+
+    /***
+     * Gets the size of the frame sent by the server at the position of the buffer.
+     * @param buffer buffer holding received bytes from its position to its limit
+     * @return size of the frame, -1 if the buffer does not hold enough of the frame to know
+     * @throws IllegalArgumentException if the frame is of an unknown type
+     */
+    static int serverFrameSize(ByteBuffer buffer) {
+        int available = buffer.remaining();
+        if (available == 0) {
+            return -1;
+        }
+        int position = buffer.position();
+        switch (buffer.get(position)) {
+            case WELCOME:
+                return available < WELCOME_HEADER_SIZE ? -1
+                    : WELCOME_HEADER_SIZE + 2 * (buffer.get(position + 5) & 0xFF) * (buffer.get(position + 6) & 0xFF);
+            case CALL:
+                return CALL_SIZE;
+            case CLAIM_RESULT:
+                return available < 3 ? -1 : 3 + (buffer.get(position + 2) & 0xFF);
+            case GAME_OVER:
+                return GAME_OVER_SIZE;
+            case FULL:
+                return 1;
+            default:
+                throw new IllegalArgumentException("Unknown frame type " + buffer.get(position));
+        }
+    }
+
+    /***
+     * Gets the size of the frame sent by a client at the position of the buffer.
+     * @param buffer buffer holding received bytes from its position to its limit
+     * @return size of the frame, -1 if the buffer does not hold enough of the frame to know
+     * @throws IllegalArgumentException if the frame is of an unknown type
+     */
+    static int clientFrameSize(ByteBuffer buffer) {
+        int available = buffer.remaining();
+        if (available == 0) {
+            return -1;
+        }
+        int position = buffer.position();
+        if (buffer.get(position) != CLAIM) {
+            throw new IllegalArgumentException("Unknown frame type " + buffer.get(position));
+        }
+        return available < 2 ? -1 : 2 + (buffer.get(position + 1) & 0xFF);
+    }
+}
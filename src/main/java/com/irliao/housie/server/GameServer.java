@@ -0,0 +1,478 @@
+package com.irliao.housie.server;
+
+import com.irliao.housie.AbstractBingoGame;
+import com.irliao.housie.GameResult;
+import com.irliao.housie.combination.ClaimVerdict;
+import com.irliao.housie.role.CallCadence;
+import com.irliao.housie.ticket.TicketStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+
+/***
+ * Server of a game set up headless, broadcasting every called number to the players connected over TCP and
+ * verifying the combinations they claim against the ticket store, see GameFrames for the binary frames.
+ * A single thread runs a non-blocking Selector over every connection and is the only one touching the game:
+ * calls requested with callNextNumber() are queued to it, so claims are verified between calls.
+ * Each connection is seated as the next player of the game, and welcomed with the player's ticket.
+ * A called number is encoded once into a shared frame written to every connection; only a connection that
+ * cannot take the frame right away gets a buffer of its own for the rest, and a connection falling more than
+ * MAX_PENDING_BYTES behind is dropped, so one slow player never holds up the calls or the memory of the server.
+ * A connection failing to be served for any other reason, such as an invalid frame, is dropped too, never the server.
+ */
+public class GameServer implements Closeable {
+
+    static final int MAX_PENDING_BYTES = 1 << 16;
+    private static final int BACKLOG = 1024;
+
+    private final AbstractBingoGame game;
+    private final TicketStore ticketStore;
+    private final int playerCount;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread selectorThread;
+    private final Queue<CompletableFuture<Integer>> callRequests;
+    private final List<Connection> connections;
+    private final ByteBuffer frame;
+    private final byte[] nameBytes;
+    private int nextPlayerId;
+    private volatile boolean gameOver;
+    private volatile int connectionCount;
+    private volatile long droppedCount;
+    private volatile boolean closed;
+
+    /***
+     * Opens a server for the game, listening on the address, not accepting connections until started.
+     * @param game game set up headless, for example with setUpHeadless(), not to be touched by anything else once started
+     * @param address address to listen on, port 0 for any free port
+     * @throws IOException if the address cannot be listened on
+     * @throws IllegalArgumentException if the tickets or numbers of the game do not fit the frames
+     */
+    public GameServer(AbstractBingoGame game, InetSocketAddress address) throws IOException {
+        ticketStore = game.getTicketStore();
+        if (ticketStore.getRowSize() > 0xFF || ticketStore.getColSize() > 0xFF) {
+            throw new IllegalArgumentException("Tickets must have at most 255 rows and columns to be served");
+        }
+        for (int ticketId = 0; ticketId < game.getPlayerCount(); ticketId++) {
+            for (int slot = 0; slot < ticketStore.getSlotsPerTicket(); slot++) {
+                int number = ticketStore.getNumber(ticketId, slot);
+                if (number < 0 || number > GameFrames.MAX_NUMBER) {
+                    throw new IllegalArgumentException("Numbers must be within 0 - " + GameFrames.MAX_NUMBER + " to be served");
+                }
+            }
+        }
+
+        this.game = game;
+        playerCount = game.getPlayerCount();
+        gameOver = game.isGameOver();
+        callRequests = new ConcurrentLinkedQueue<>();
+        connections = new ArrayList<>();
+        frame = ByteBuffer.allocate(Math.max(GameFrames.WELCOME_HEADER_SIZE + 2 * ticketStore.getSlotsPerTicket(), GameFrames.MAX_CLAIM_SIZE + 1));
+        nameBytes = new byte[GameFrames.MAX_NAME_LENGTH];
+        nextPlayerId = 1;
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(address, BACKLOG);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | RuntimeException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        selectorThread = new Thread(this::serve, "game-server");
+    }
+
+    /***
+     * Starts accepting connections and serving the calls.
+     */
+    public void start() {
+        selectorThread.start();
+    }
+
+    /***
+     * Gets the address the server listens on.
+     * @return local address of the server
+     * @throws IOException if the address cannot be read
+     */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /***
+     * Has the Dealer call the next number on the thread of the server, then broadcasts it, followed by the end
+     * of the game if it is over. The future completes once the frames are written or buffered for every connection.
+     * @return future of the number called, failing if the game is over or the server is closed
+     */
+    public CompletableFuture<Integer> callNextNumber() {
+        CompletableFuture<Integer> callRequest = new CompletableFuture<>();
+        callRequests.add(callRequest);
+        if (closed) {
+            failCallRequests();
+        } else {
+            selector.wakeup();
+        }
+        return callRequest;
+    }
+
+    /***
+     * Calls the numbers at the cadence given until the game is over. The next number is only called once the
+     * previous call has been broadcast, so the cadence measures the calls the server sustains for its players.
+     * @param callCadence cadence of the calls, reset before the first one
+     * @return result of the game
+     * @throws InterruptedException if interrupted while waiting for a call
+     * @throws IllegalStateException if a call fails, e.g. because the server was closed
+     */
+    public GameResult play(CallCadence callCadence) throws InterruptedException {
+        callCadence.reset();
+        while (!gameOver) {
+            callCadence.awaitNextCall();
+            try {
+                callNextNumber().get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Call failed", e.getCause());
+            }
+            callCadence.callCompleted();
+        }
+        return game.getGameResult();
+    }
+
+    /***
+     * Checks if the game served is over.
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /***
+     * Gets how many players are connected.
+     * @return number of open connections
+     */
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    /***
+     * Gets how many connections were dropped for falling too far behind the calls, or sending an invalid frame.
+     * @return number of dropped connections
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /***
+     * Stops the server, closing every connection. Calls not made yet fail.
+     * @throws IOException if the server could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (selectorThread.isAlive()) {
+            selector.wakeup();
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            closeChannels();
+        }
+    }
+
+    private void serve() {
+        try {
+            while (!closed) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        acceptConnections();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            readClaims(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            writePending(connection);
+                        }
+                    } catch (RuntimeException e) {
+                        // whatever a player sends only ever costs that player its connection
+                        disconnect(connection, true);
+                    }
+                }
+                selector.selectedKeys().clear();
+                makeCalls();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Game server failed", e);
+        } finally {
+            closed = true;
+            closeChannels();
+        }
+    }
+
+    private void acceptConnections() throws IOException {
+        for (SocketChannel channel = serverChannel.accept(); channel != null; channel = serverChannel.accept()) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            if (nextPlayerId > playerCount) {
+                frame.clear();
+                frame.put(GameFrames.FULL);
+                ((Buffer) frame).flip();
+                channel.write(frame);
+                channel.close();
+                continue;
+            }
+
+            Connection connection = new Connection(channel, nextPlayerId++);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connection.index = connections.size();
+            connections.add(connection);
+            connectionCount = connections.size();
+
+            int ticketId = connection.playerId - 1;
+            frame.clear();
+            frame.put(GameFrames.WELCOME).putInt(connection.playerId)
+                 .put((byte) ticketStore.getRowSize()).put((byte) ticketStore.getColSize());
+            for (int slot = 0; slot < ticketStore.getSlotsPerTicket(); slot++) {
+                int number = ticketStore.getNumber(ticketId, slot);
+                frame.putShort((short) (ticketStore.isMarked(ticketId, slot) ? number | GameFrames.MARKED_BIT : number));
+            }
+            ((Buffer) frame).flip();
+            send(connection, frame);
+            if (gameOver && connection.isOpen()) {
+                send(connection, gameOverFrame());
+            }
+        }
+    }
+
+    private void makeCalls() {
+        for (CompletableFuture<Integer> callRequest = callRequests.poll(); callRequest != null; callRequest = callRequests.poll()) {
+            if (gameOver) {
+                callRequest.completeExceptionally(new IllegalStateException("Game is over"));
+                continue;
+            }
+            int calledNumber;
+            try {
+                calledNumber = game.callNextNumber();
+                gameOver = game.isGameOver();
+            } catch (RuntimeException e) {
+                callRequest.completeExceptionally(e);
+                continue;
+            }
+
+            frame.clear();
+            frame.put(GameFrames.CALL).putShort((short) game.getDrawCount()).putShort((short) calledNumber);
+            ((Buffer) frame).flip();
+            broadcast(frame);
+            if (gameOver) {
+                broadcast(gameOverFrame());
+            }
+            callRequest.complete(calledNumber);
+        }
+    }
+
+    private ByteBuffer gameOverFrame() {
+        frame.clear();
+        frame.put(GameFrames.GAME_OVER).putShort((short) game.getDrawCount());
+        ((Buffer) frame).flip();
+        return frame;
+    }
+
+    private void broadcast(ByteBuffer frame) {
+        // iterated backwards, as a dropped connection is replaced by the last one
+        for (int i = connections.size() - 1; i >= 0; i--) {
+            ((Buffer) frame).rewind();
+            send(connections.get(i), frame);
+        }
+    }
+
+    private void readClaims(Connection connection) {
+        ByteBuffer readBuffer = connection.readBuffer;
+        try {
+            if (connection.channel.read(readBuffer) < 0) {
+                disconnect(connection, false);
+                return;
+            }
+            ((Buffer) readBuffer).flip();
+            for (int frameSize = GameFrames.clientFrameSize(readBuffer); frameSize > 0 && frameSize <= readBuffer.remaining();
+                 frameSize = GameFrames.clientFrameSize(readBuffer)) {
+                readBuffer.get();
+                int nameLength = readBuffer.get() & 0xFF;
+                readBuffer.get(nameBytes, 0, nameLength);
+                verifyClaim(connection, nameLength);
+                if (!connection.isOpen()) {
+                    return;
+                }
+            }
+            readBuffer.compact();
+        } catch (IOException e) {
+            disconnect(connection, false);
+        }
+    }
+
+    /***
+     * Verifies the claim whose name was read into the name bytes, and answers it echoing the name as received.
+     * @param connection connection of the player claiming
+     * @param nameLength length of the name read
+     */
+    private void verifyClaim(Connection connection, int nameLength) {
+        ClaimVerdict claimVerdict = game.verifyClaim(connection.playerId, new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8));
+        frame.clear();
+        frame.put(GameFrames.CLAIM_RESULT).put((byte) claimVerdict.ordinal()).put((byte) nameLength).put(nameBytes, 0, nameLength);
+        ((Buffer) frame).flip();
+        send(connection, frame);
+    }
+
+    /***
+     * Writes the frame to the connection, keeping what the socket does not take in the connection's own buffer.
+     * The frame is consumed, so broadcasting rewinds it before writing it to the next connection.
+     * @param connection connection to write to
+     * @param frame frame to write, from its position to its limit
+     */
+    private void send(Connection connection, ByteBuffer frame) {
+        try {
+            if (connection.pending == null || connection.pending.position() == 0) {
+                connection.channel.write(frame);
+                if (!frame.hasRemaining()) {
+                    return;
+                }
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            if (!connection.keepPending(frame)) {
+                disconnect(connection, true);
+            }
+        } catch (IOException e) {
+            disconnect(connection, false);
+        }
+    }
+
+    private void writePending(Connection connection) {
+        ByteBuffer pending = connection.pending;
+        try {
+            ((Buffer) pending).flip();
+            connection.channel.write(pending);
+            pending.compact();
+            if (pending.position() == 0) {
+                connection.key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            disconnect(connection, false);
+        }
+    }
+
+    private void disconnect(Connection connection, boolean dropped) {
+        if (!connection.isOpen()) {
+            return;
+        }
+        Connection last = connections.remove(connections.size() - 1);
+        if (last != connection) {
+            last.index = connection.index;
+            connections.set(connection.index, last);
+        }
+        connection.index = -1;
+        connectionCount = connections.size();
+        if (dropped) {
+            droppedCount++;
+        }
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // the connection is gone either way
+        }
+    }
+
+    private void closeChannels() {
+        for (Connection connection : connections) {
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                // closing every connection regardless
+            }
+        }
+        connections.clear();
+        connectionCount = 0;
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+        failCallRequests();
+    }
+
+    private void failCallRequests() {
+        for (CompletableFuture<Integer> callRequest = callRequests.poll(); callRequest != null; callRequest = callRequests.poll()) {
+            callRequest.completeExceptionally(new IllegalStateException("Game server is closed"));
+        }
+    }
+
+    /***
+     * Connection of a player, only touched by the thread of the server.
+     */
+    private static class Connection {
+
+        private final SocketChannel channel;
+        private final int playerId;
+        private final ByteBuffer readBuffer;
+        private SelectionKey key;
+        private ByteBuffer pending;
+        private int index;
+
+        private Connection(SocketChannel channel, int playerId) {
+            this.channel = channel;
+            this.playerId = playerId;
+            readBuffer = ByteBuffer.allocate(GameFrames.MAX_CLAIM_SIZE);
+        }
+
+        private boolean isOpen() {
+            return index >= 0;
+        }
+
+        /***
+         * Keeps the rest of the frame to write it once the socket takes more.
+         * @param frame frame to keep, from its position to its limit
+         * @return false if the connection would fall more than MAX_PENDING_BYTES behind
+         */
+        private boolean keepPending(ByteBuffer frame) {
+            int required = (pending == null ? 0 : pending.position()) + frame.remaining();
+            if (required > MAX_PENDING_BYTES) {
+                return false;
+            }
+            if (pending == null || pending.remaining() < frame.remaining()) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.min(MAX_PENDING_BYTES, Math.max(256, Integer.highestOneBit(required - 1) << 1)));
+                if (pending != null) {
+                    ((Buffer) pending).flip();
+                    grown.put(pending);
+                }
+                pending = grown;
+            }
+            pending.put(frame);
+            return true;
+        }
+    }
+}
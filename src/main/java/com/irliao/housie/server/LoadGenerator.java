@@ -0,0 +1,343 @@
+package com.irliao.housie.server;
+
+import com.irliao.housie.combination.ClaimVerdict;
+import com.irliao.housie.combination.EarlyFiveCombination;
+import com.irliao.housie.combination.FullHouseCombination;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/***
+ * Client playing many connections to a GameServer from one thread, to load test the server locally.
+ * Every connection marks the numbers called on the ticket it was welcomed with, and claims Early Five on its
+ * fifth marked number and Full House once every number is marked, counting the verdicts of the server.
+ * A server with other combinations still verifies these claims, and answers UNKNOWN_COMBINATION if it has not got them.
+ */
+public class LoadGenerator implements Closeable {
+
+    private static final int EARLY_FIVE_MARKED_COUNT = 5;
+
+    private final Selector selector;
+    private final List<Client> clients;
+    private int welcomedCount;
+    private int refusedCount;
+    private int gameOverCount;
+    private int closedCount;
+    private long callFrameCount;
+    private long outstandingClaimCount;
+    private long claimCount;
+    private long acceptedClaimCount;
+    private long rejectedClaimCount;
+
+    /***
+     * Opens the connections to the server, connecting in the background.
+     * @param serverAddress address of the server
+     * @param connectionCount number of connections to open
+     * @throws IOException if a connection cannot be opened
+     * @throws IllegalArgumentException if the connection count is not > 0
+     */
+    public LoadGenerator(InetSocketAddress serverAddress, int connectionCount) throws IOException {
+        if (connectionCount <= 0) {
+            throw new IllegalArgumentException("Invalid connection count, must be > 0");
+        }
+        selector = Selector.open();
+        clients = new ArrayList<>(connectionCount);
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                SocketChannel channel = SocketChannel.open();
+                Client client = new Client(channel);
+                clients.add(client);
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                int interestOps = channel.connect(serverAddress) ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT;
+                client.key = channel.register(selector, interestOps, client);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /***
+     * Handles the frames of the server until every connection is welcomed or refused.
+     * @param timeout longest time to wait
+     * @param unit unit of the timeout
+     * @return true if every connection was welcomed or refused in time
+     * @throws IOException if the frames cannot be read
+     */
+    public boolean awaitWelcomed(long timeout, TimeUnit unit) throws IOException {
+        return runUntil(() -> welcomedCount + refusedCount + closedCount >= clients.size(), timeout, unit);
+    }
+
+    /***
+     * Handles the frames of the server until every welcomed connection has been told the game is over, and has
+     * had the verdict of all of its claims.
+     * @param timeout longest time to wait
+     * @param unit unit of the timeout
+     * @return true if the game ended in time
+     * @throws IOException if the frames cannot be read
+     */
+    public boolean awaitGameOver(long timeout, TimeUnit unit) throws IOException {
+        return runUntil(() -> gameOverCount + closedCount >= clients.size() - refusedCount && outstandingClaimCount == 0, timeout, unit);
+    }
+
+    /***
+     * Gets how many connections were welcomed as a player.
+     * @return number of welcomed connections
+     */
+    public int getWelcomedCount() {
+        return welcomedCount;
+    }
+
+    /***
+     * Gets how many connections were refused because every seat of the game was taken.
+     * @return number of refused connections
+     */
+    public int getRefusedCount() {
+        return refusedCount;
+    }
+
+    /***
+     * Gets how many call frames were received, over every connection.
+     * @return number of call frames
+     */
+    public long getCallFrameCount() {
+        return callFrameCount;
+    }
+
+    /***
+     * Gets how many claims were sent, over every connection.
+     * @return number of claims
+     */
+    public long getClaimCount() {
+        return claimCount;
+    }
+
+    /***
+     * Gets how many claims the server accepted.
+     * @return number of accepted claims
+     */
+    public long getAcceptedClaimCount() {
+        return acceptedClaimCount;
+    }
+
+    /***
+     * Gets how many claims the server rejected, for any reason.
+     * @return number of rejected claims
+     */
+    public long getRejectedClaimCount() {
+        return rejectedClaimCount;
+    }
+
+    /***
+     * Closes every connection.
+     * @throws IOException if the connections could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        selector.close();
+    }
+
+    private boolean runUntil(BooleanSupplier condition, long timeout, TimeUnit unit) throws IOException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (!condition.getAsBoolean()) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return false;
+            }
+            selector.select(remainingMillis);
+            for (SelectionKey key : selector.selectedKeys()) {
+                Client client = (Client) key.attachment();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isConnectable()) {
+                    finishConnect(client);
+                } else if (key.isReadable()) {
+                    readFrames(client);
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+        return true;
+    }
+
+    private void finishConnect(Client client) {
+        try {
+            if (client.channel.finishConnect()) {
+                client.key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            closeClient(client);
+        }
+    }
+
+    private void readFrames(Client client) throws IOException {
+        ByteBuffer readBuffer = client.readBuffer;
+        int read;
+        try {
+            read = client.channel.read(readBuffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        ((Buffer) readBuffer).flip();
+        for (int frameSize = GameFrames.serverFrameSize(readBuffer); frameSize > 0 && frameSize <= readBuffer.remaining();
+             frameSize = GameFrames.serverFrameSize(readBuffer)) {
+            handleFrame(client, readBuffer);
+        }
+        int frameSize = GameFrames.serverFrameSize(readBuffer);
+        if (frameSize > readBuffer.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocate(frameSize);
+            grown.put(readBuffer);
+            client.readBuffer = grown;
+        } else {
+            readBuffer.compact();
+        }
+        if (read < 0) {
+            closeClient(client);
+        }
+    }
+
+    private void handleFrame(Client client, ByteBuffer readBuffer) throws IOException {
+        byte type = readBuffer.get();
+        switch (type) {
+            case GameFrames.WELCOME:
+                readBuffer.getInt();
+                int slotCount = (readBuffer.get() & 0xFF) * (readBuffer.get() & 0xFF);
+                int[] numbers = new int[slotCount];
+                int numberCount = 0;
+                for (int slot = 0; slot < slotCount; slot++) {
+                    int slotValue = readBuffer.getShort() & 0xFFFF;
+                    int number = slotValue & GameFrames.MAX_NUMBER;
+                    if (number != 0) {
+                        numbers[numberCount++] = (slotValue & GameFrames.MARKED_BIT) != 0 ? -number : number;
+                    }
+                }
+                client.numbers = new int[numberCount];
+                System.arraycopy(numbers, 0, client.numbers, 0, numberCount);
+                for (int number : client.numbers) {
+                    client.markedCount += number < 0 ? 1 : 0;
+                }
+                welcomedCount++;
+                claimIfWon(client);
+                break;
+            case GameFrames.CALL:
+                readBuffer.getShort();
+                int calledNumber = readBuffer.getShort() & 0xFFFF;
+                callFrameCount++;
+                for (int i = 0; i < client.numbers.length; i++) {
+                    if (client.numbers[i] == calledNumber) {
+                        client.numbers[i] = -calledNumber;
+                        client.markedCount++;
+                        claimIfWon(client);
+                        break;
+                    }
+                }
+                break;
+            case GameFrames.CLAIM_RESULT:
+                int verdict = readBuffer.get() & 0xFF;
+                ((Buffer) readBuffer).position(readBuffer.position() + 1 + (readBuffer.get(readBuffer.position()) & 0xFF));
+                outstandingClaimCount--;
+                if (verdict == ClaimVerdict.ACCEPTED.ordinal()) {
+                    acceptedClaimCount++;
+                } else {
+                    rejectedClaimCount++;
+                }
+                break;
+            case GameFrames.GAME_OVER:
+                readBuffer.getShort();
+                client.gameOver = true;
+                gameOverCount++;
+                break;
+            case GameFrames.FULL:
+                client.refused = true;
+                refusedCount++;
+                break;
+            default:
+                throw new IllegalStateException("Unexpected frame type " + type);
+        }
+    }
+
+    private void claimIfWon(Client client) throws IOException {
+        if (!client.claimedEarlyFive && client.markedCount >= EARLY_FIVE_MARKED_COUNT) {
+            client.claimedEarlyFive = true;
+            claim(client, EarlyFiveCombination.COMBINATION_NAME);
+        }
+        if (!client.claimedFullHouse && client.numbers.length > 0 && client.markedCount == client.numbers.length) {
+            client.claimedFullHouse = true;
+            claim(client, FullHouseCombination.COMBINATION_NAME);
+        }
+    }
+
+    /***
+     * Sends the claim, blocking the generator until the socket takes it, as claims are rare and tiny.
+     * @param client client claiming
+     * @param combinationName name of the combination claimed
+     * @throws IOException if the claim cannot be sent
+     */
+    private void claim(Client client, String combinationName) throws IOException {
+        byte[] name = combinationName.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer claimFrame = ByteBuffer.allocate(2 + name.length);
+        claimFrame.put(GameFrames.CLAIM).put((byte) name.length).put(name);
+        ((Buffer) claimFrame).flip();
+        while (claimFrame.hasRemaining()) {
+            client.channel.write(claimFrame);
+        }
+        claimCount++;
+        outstandingClaimCount++;
+    }
+
+    private void closeClient(Client client) {
+        if (client.closed) {
+            return;
+        }
+        client.closed = true;
+        if (!client.gameOver && !client.refused) {
+            closedCount++;
+        }
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            // the connection is gone either way
+        }
+    }
+
+    /***
+     * Connection of one simulated player. Numbers of the ticket are negated once marked.
+     */
+    private static class Client {
+
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer readBuffer;
+        private int[] numbers;
+        private int markedCount;
+        private boolean claimedEarlyFive;
+        private boolean claimedFullHouse;
+        private boolean gameOver;
+        private boolean refused;
+        private boolean closed;
+
+        private Client(SocketChannel channel) {
+            this.channel = channel;
+            readBuffer = ByteBuffer.allocate(256);
+            numbers = new int[0];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.irliao.housie.simulation;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.combination.Claim;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/***
+ * Aggregated results of a batch of simulated games.
+ * Keeps a histogram per combination of the draw the combination was won on, plus a histogram of the
+ * draw every game ended on. Index i of a histogram counts the games where it happened on draw i.
+ * Results of games played on different threads are collected separately and merged afterwards.
+ */
+public class BatchResult {
+
+    private static final String GAME_END_KEY = "";
+
+    private final int maxDrawCount;
+    private final Map<String, long[]> winDrawHistograms;
+    private long gameCount;
+
+    public BatchResult(int maxDrawCount) {
+        this.maxDrawCount = maxDrawCount;
+        winDrawHistograms = new HashMap<>();
+    }
+
+    /***
+     * Adds the result of one game to the histograms.
+     * A combination shared or awarded in tiers counts once, on the draw it was first won on.
+     * @param gameResult result of a game played to completion
+     */
+    public void record(GameResult gameResult) {
+        gameCount++;
+        histogramOf(GAME_END_KEY)[gameResult.getDrawCount()]++;
+        Set<String> wonCombinationNames = new HashSet<>();
+        for (Claim claim : gameResult.getClaims()) {
+            if (wonCombinationNames.add(claim.getCombinationName())) {
+                histogramOf(claim.getCombinationName())[claim.getDrawCount()]++;
+            }
+        }
+    }
+
+    /***
+     * Adds the histograms of another batch into this one.
+     * @param other results of another batch of games played with the same settings
+     * @return this batch result
+     */
+    public BatchResult merge(BatchResult other) {
+        gameCount += other.gameCount;
+        other.winDrawHistograms.forEach((key, otherHistogram) -> {
+            long[] histogram = histogramOf(key);
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += otherHistogram[i];
+            }
+        });
+        return this;
+    }
+
+    /***
+     * Gets how many games were played in the batch.
+     * @return number of games
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /***
+     * Gets the histogram of the draw the combination was won on.
+     * @param combinationName name of the combination
+     * @return copy of the histogram, all zero if the combination was never won
+     */
+    public long[] getWinDrawHistogram(String combinationName) {
+        long[] histogram = winDrawHistograms.get(combinationName);
+        return histogram == null ? new long[maxDrawCount + 1] : Arrays.copyOf(histogram, histogram.length);
+    }
+
+    /***
+     * Gets the histogram of the draw the games ended on.
+     * @return copy of the histogram
+     */
+    public long[] getGameEndDrawHistogram() {
+        return getWinDrawHistogram(GAME_END_KEY);
+    }
+
+    /***
+     * Gets the average draw the combination was won on.
+     * @param combinationName name of the combination
+     * @return mean draw, NaN if the combination was never won
+     */
+    public double getMeanWinDraw(String combinationName) {
+        long[] histogram = getWinDrawHistogram(combinationName);
+        long wins = 0;
+        long drawTotal = 0;
+        for (int draw = 0; draw < histogram.length; draw++) {
+            wins += histogram[draw];
+            drawTotal += draw * histogram[draw];
+        }
+        return wins == 0 ? Double.NaN : (double) drawTotal / wins;
+    }
+
+    private long[] histogramOf(String key) {
+        return winDrawHistograms.computeIfAbsent(key, k -> new long[maxDrawCount + 1]);
+    }
+}
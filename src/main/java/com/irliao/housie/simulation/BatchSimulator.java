@@ -0,0 +1,84 @@
+package com.irliao.housie.simulation;
+
+import com.irliao.housie.GameSettings;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/***
+ * Runs batches of independent Housie games in parallel on a fork/join pool.
+ * The batch is split in halves until the parts are small enough, and every part owns its own random
+ * generator split from the one of its parent, so the workers never share any randomness.
+ * The same seed on a pool of the same parallelism gives the same results, however the parts are scheduled.
+ */
+public class BatchSimulator {
+
+    private static final int PARTS_PER_WORKER = 8;
+
+    private final GameSimulator gameSimulator;
+    private final ForkJoinPool forkJoinPool;
+
+    public BatchSimulator(GameSettings gameSettings) {
+        this(gameSettings, ForkJoinPool.commonPool());
+    }
+
+    public BatchSimulator(GameSettings gameSettings, ForkJoinPool forkJoinPool) {
+        this.gameSimulator = new GameSimulator(gameSettings);
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /***
+     * Plays the number of games to completion and aggregates their results.
+     * @param numberOfGames number of games to play
+     * @param seed seed of the random generator the games take their randomness from
+     * @return aggregated results of the games
+     */
+    public BatchResult simulate(int numberOfGames, long seed) {
+        int gamesPerPart = Math.max(1, numberOfGames / (forkJoinPool.getParallelism() * PARTS_PER_WORKER));
+        return forkJoinPool.invoke(new SimulationTask(numberOfGames, gamesPerPart, new SplittableRandom(seed)));
+    }
+
+    /***
+     * Part of a batch, either split further or played on the current worker.
+     */
+    private class SimulationTask extends RecursiveTask<BatchResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int numberOfGames;
+        private final int gamesPerPart;
+        private final SplittableRandom splittableRandom;
+
+        SimulationTask(int numberOfGames, int gamesPerPart, SplittableRandom splittableRandom) {
+            this.numberOfGames = numberOfGames;
+            this.gamesPerPart = gamesPerPart;
+            this.splittableRandom = splittableRandom;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            if (numberOfGames <= gamesPerPart) {
+                return playGames();
+            }
+
+            int half = numberOfGames / 2;
+            SimulationTask firstHalf = new SimulationTask(half, gamesPerPart, splittableRandom.split());
+            SimulationTask secondHalf = new SimulationTask(numberOfGames - half, gamesPerPart, splittableRandom);
+            firstHalf.fork();
+            BatchResult batchResult = secondHalf.compute();
+            return batchResult.merge(firstHalf.join());
+        }
+
+        private BatchResult playGames() {
+            GameSettings gameSettings = gameSimulator.getGameSettings();
+            BatchResult batchResult = new BatchResult(gameSettings.getNumberRangeEnd() - gameSettings.getNumberRangeStart() + 1);
+            Random random = new Random(splittableRandom.nextLong());
+            for (int i = 0; i < numberOfGames; i++) {
+                batchResult.record(gameSimulator.simulate(random));
+            }
+            return batchResult;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.irliao.housie.simulation;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.GameSettings;
+import com.irliao.housie.Housie;
+
+import java.util.Random;
+
+/***
+ * Runs complete Housie games without any console input or output.
+ * Every game is played with fresh tickets and a fresh draw order using the same settings,
+ * which is what is needed to model the payouts of a given hall and ticket shape.
+ */
+public class GameSimulator {
+
+    private final GameSettings gameSettings;
+
+    public GameSimulator(GameSettings gameSettings) {
+        this.gameSettings = gameSettings;
+    }
+
+    /***
+     * Plays one Housie game to completion.
+     * @return result of the game
+     */
+    public GameResult simulate() {
+        return simulate(new Random());
+    }
+
+    /***
+     * Plays one Housie game to completion, taking all of its randomness from the given Random.
+     * @param random source of randomness for the game, not to be shared with other threads
+     * @return result of the game
+     */
+    public GameResult simulate(Random random) {
+        return new Housie(random).playHeadless(gameSettings, random);
+    }
+
+    /***
+     * Gets the settings every game is played with.
+     * @return settings of the games
+     */
+    public GameSettings getGameSettings() {
+        return gameSettings;
+    }
+}
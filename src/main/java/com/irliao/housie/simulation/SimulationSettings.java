@@ -0,0 +1,86 @@
+package com.irliao.housie.simulation;
+
+import com.irliao.housie.GameSettings;
+
+/***
+ * Fixed settings for games run by the GameSimulator.
+ * The settings are validated against the same rules SettingHandler applies to the user input,
+ * so every simulated game is one that could also be played on the console.
+ */
+public class SimulationSettings implements GameSettings {
+
+    private final int numberRangeStart;
+    private final int numberRangeEnd;
+    private final int numberOfPlayers;
+    private final int numberOfRows;
+    private final int numberOfCols;
+    private final int numberPerRow;
+
+    /***
+     * Creates the settings of a simulated game.
+     * @param numberRangeStart starting range of numbers allowed on the ticket
+     * @param numberRangeEnd ending range of numbers allowed on the ticket
+     * @param numberOfPlayers number of players, each holding one ticket
+     * @param numberOfRows number of rows on the ticket
+     * @param numberOfCols number of columns on the ticket
+     * @param numberPerRow number of slots on each row to fill with a number
+     * @throws IllegalArgumentException if the settings do not form a proper game
+     */
+    public SimulationSettings(int numberRangeStart, int numberRangeEnd, int numberOfPlayers,
+                              int numberOfRows, int numberOfCols, int numberPerRow) {
+        int rangeSize = numberRangeEnd - numberRangeStart + 1;
+        if (numberRangeStart <= 0 || rangeSize < 5) {
+            throw new IllegalArgumentException("Invalid number range, range must start > 0 and hold at least 5 numbers");
+        }
+        if (numberOfPlayers < 1) {
+            throw new IllegalArgumentException("Invalid number of players, there must be at least 1 player");
+        }
+        if (numberOfRows <= 0 || numberOfRows > rangeSize) {
+            throw new IllegalArgumentException("Invalid number of rows, rows must be where 0 < rows <= " + rangeSize);
+        }
+        if (numberOfCols * numberOfRows < 5) {
+            throw new IllegalArgumentException("Invalid number of columns, ticket must have at least 5 slots");
+        }
+        if (numberPerRow <= 0 || numberPerRow > numberOfCols ||
+            numberPerRow * numberOfRows > rangeSize || numberPerRow * numberOfRows < 5) {
+            throw new IllegalArgumentException("Invalid numbers per row, ticket must hold between 5 and " + rangeSize + " numbers");
+        }
+
+        this.numberRangeStart = numberRangeStart;
+        this.numberRangeEnd = numberRangeEnd;
+        this.numberOfPlayers = numberOfPlayers;
+        this.numberOfRows = numberOfRows;
+        this.numberOfCols = numberOfCols;
+        this.numberPerRow = numberPerRow;
+    }
+
+    @Override
+    public int getNumberRangeStart() {
+        return numberRangeStart;
+    }
+
+    @Override
+    public int getNumberRangeEnd() {
+        return numberRangeEnd;
+    }
+
+    @Override
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    @Override
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    @Override
+    public int getNumberOfCols() {
+        return numberOfCols;
+    }
+
+    @Override
+    public int getNumberPerRow() {
+        return numberPerRow;
+    }
+}
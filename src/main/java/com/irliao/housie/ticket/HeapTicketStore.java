@@ -0,0 +1,115 @@
+package com.irliao.housie.ticket;
+
+/***
+ * TicketStore keeping the tickets in flat primitive arrays on the heap.
+ * The numbers of all the tickets are one int[] in ticket then slot order, so marking a call across the
+ * whole hall is a single sequential pass over that array.
+ * The filled slots bitset and the number to slot index are kept in arrays of their own next to the numbers.
+ */
+public class HeapTicketStore extends WritableTicketStore {
+
+    private final int slotsPerTicket;
+    private final int wordsPerTicket;
+    private final int[] numbers;
+    private final long[] filledBits;
+    private final TicketMarks ticketMarks;
+    private final TicketIndex ticketIndex;
+
+    public HeapTicketStore(int ticketCount, int rowSize, int colSize, int numbersPerRow) {
+        super(ticketCount, rowSize, colSize, numbersPerRow);
+        slotsPerTicket = getSlotsPerTicket();
+        wordsPerTicket = getWordsPerTicket();
+        numbers = new int[Math.multiplyExact(ticketCount, slotsPerTicket)];
+        filledBits = new long[Math.multiplyExact(ticketCount, wordsPerTicket)];
+        ticketMarks = new TicketMarks(ticketCount, rowSize, getWordsPerTicket());
+        ticketIndex = new TicketIndex(ticketCount, getIndexEntriesPerTicket());
+    }
+
+    /***
+     * Marks the number on every ticket with an ID in the range holding it, scanning the numbers array directly.
+     * @param number number called
+     * @param fromTicketId first ticket ID of the range, inclusive
+     * @param toTicketId last ticket ID of the range, exclusive
+     * @param markedTicketIds filled with the IDs of the tickets newly marked, in ascending order
+     * @param markedOffset position in markedTicketIds to start filling from
+     * @return how many tickets were newly marked
+     */
+    @Override
+    public int markNumberOnTickets(int number, int fromTicketId, int toTicketId, int[] markedTicketIds, int markedOffset) {
+        if (number == EMPTY_SLOT) {
+            return 0;
+        }
+
+        int markedCount = 0;
+        int end = toTicketId * slotsPerTicket;
+        for (int i = fromTicketId * slotsPerTicket; i < end; i++) {
+            if (numbers[i] == number) {
+                int ticketId = i / slotsPerTicket;
+                if (markSlot(ticketId, i - ticketId * slotsPerTicket)) {
+                    markedTicketIds[markedOffset + markedCount++] = ticketId;
+                }
+            }
+        }
+        return markedCount;
+    }
+
+    @Override
+    protected int readNumber(int ticketId, int slot) {
+        return numbers[ticketId * slotsPerTicket + slot];
+    }
+
+    @Override
+    protected void writeNumber(int ticketId, int slot, int number) {
+        numbers[ticketId * slotsPerTicket + slot] = number;
+    }
+
+    @Override
+    protected long readFilledWord(int ticketId, int word) {
+        return filledBits[ticketId * wordsPerTicket + word];
+    }
+
+    @Override
+    protected void writeFilledWord(int ticketId, int word, long bits) {
+        filledBits[ticketId * wordsPerTicket + word] = bits;
+    }
+
+    @Override
+    protected long readMarkWord(int ticketId, int word) {
+        return ticketMarks.readMarkWord(ticketId, word);
+    }
+
+    @Override
+    protected void writeMarkWord(int ticketId, int word, long bits) {
+        ticketMarks.writeMarkWord(ticketId, word, bits);
+    }
+
+    @Override
+    protected int readMarkedCount(int ticketId) {
+        return ticketMarks.readMarkedCount(ticketId);
+    }
+
+    @Override
+    protected void writeMarkedCount(int ticketId, int markedCount) {
+        ticketMarks.writeMarkedCount(ticketId, markedCount);
+    }
+
+    @Override
+    protected int readRowMarkedCount(int ticketId, int row) {
+        return ticketMarks.readRowMarkedCount(ticketId, row);
+    }
+
+    @Override
+    protected void writeRowMarkedCount(int ticketId, int row, int markedCount) {
+        ticketMarks.writeRowMarkedCount(ticketId, row, markedCount);
+    }
+
+    @Override
+    protected int readIndexEntry(int ticketId, int entry) {
+        return ticketIndex.readIndexEntry(ticketId, entry);
+    }
+
+    @Override
+    protected void writeIndexEntry(int ticketId, int entry, int slotPlusOne) {
+        ticketIndex.writeIndexEntry(ticketId, entry, slotPlusOne);
+    }
+}
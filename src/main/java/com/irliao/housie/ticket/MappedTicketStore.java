@@ -0,0 +1,299 @@
+package com.irliao.housie.ticket;
+
+import com.irliao.housie.GameSettings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/***
+ * TicketStore keeping the tickets off the heap, in a memory-mapped file, for halls larger than the heap.
+ * The file starts with a fixed size header holding the shape of the tickets and the range of numbers,
+ * followed by one fixed size record per ticket in ticket ID order:
+ * the numbers of the slots as ints, the marked count, the marked count of each row, the entries of the number
+ * to slot index as shorts, then the filled slots bitset and the marked slots bitset as longs aligned on 8 bytes.
+ * All values are little-endian.
+ * The records are mapped in segments of a power of two tickets, each segment below 1 GiB, as a single
+ * MappedByteBuffer cannot span more than 2 GiB. Marking and the combination checks read and write
+ * the mapped records directly, and the tickets and marks stay in the file, so a game can be set up
+ * again from the same file with open() instead of dealing new tickets.
+ * The marks reach the disk when the operating system writes the pages back, or on force().
+ */
+public class MappedTicketStore extends WritableTicketStore implements Closeable {
+
+    static final int MAGIC = 0x484B5453; // "HKTS"
+    static final int VERSION = 3;
+    static final int HEADER_SIZE = 64;
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final int numberRangeStart;
+    private final int numberRangeEnd;
+    private final int recordSize;
+    private final int markedCountOffset;
+    private final int rowMarkedCountsOffset;
+    private final int indexEntriesOffset;
+    private final int filledWordsOffset;
+    private final int markWordsOffset;
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private MappedTicketStore(FileChannel fileChannel, MappedByteBuffer header, int ticketCount, int rowSize,
+                              int colSize, int numbersPerRow, int numberRangeStart, int numberRangeEnd) throws IOException {
+        super(ticketCount, rowSize, colSize, numbersPerRow);
+        this.fileChannel = fileChannel;
+        this.header = header;
+        this.numberRangeStart = numberRangeStart;
+        this.numberRangeEnd = numberRangeEnd;
+
+        markedCountOffset = getSlotsPerTicket() * Integer.BYTES;
+        rowMarkedCountsOffset = markedCountOffset + Integer.BYTES;
+        indexEntriesOffset = rowMarkedCountsOffset + rowSize * Integer.BYTES;
+        filledWordsOffset = align8(indexEntriesOffset + getIndexEntriesPerTicket() * Short.BYTES);
+        markWordsOffset = filledWordsOffset + getWordsPerTicket() * Long.BYTES;
+        recordSize = recordSize(rowSize, colSize, numbersPerRow);
+
+        segmentShift = segmentShift(recordSize);
+        segmentMask = (1 << segmentShift) - 1;
+        segments = mapSegments(fileChannel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE, ticketCount, recordSize, segmentShift);
+    }
+
+    /***
+     * Creates the file of a store for the tickets of the game, replacing the file if it exists.
+     * The tickets are all empty and have to be dealt, e.g. with TicketFactory.dealTickets().
+     * @param file file to hold the store
+     * @param gameSettings settings of the game, one ticket per player
+     * @return store mapped to the new file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static MappedTicketStore create(Path file, GameSettings gameSettings) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = mapHeader(fileChannel);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, gameSettings.getNumberOfPlayers());
+            header.putInt(12, gameSettings.getNumberOfRows());
+            header.putInt(16, gameSettings.getNumberOfCols());
+            header.putInt(20, gameSettings.getNumberPerRow());
+            header.putInt(24, gameSettings.getNumberRangeStart());
+            header.putInt(28, gameSettings.getNumberRangeEnd());
+            return new MappedTicketStore(fileChannel, header, gameSettings.getNumberOfPlayers(), gameSettings.getNumberOfRows(),
+                gameSettings.getNumberOfCols(), gameSettings.getNumberPerRow(),
+                gameSettings.getNumberRangeStart(), gameSettings.getNumberRangeEnd());
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    /***
+     * Opens the file of a store created before, with the tickets and marks it holds.
+     * @param file file holding the store
+     * @return store mapped to the file
+     * @throws IOException if the file cannot be mapped or is not a ticket store of this version
+     */
+    public static MappedTicketStore open(Path file) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (fileChannel.size() < HEADER_SIZE) {
+                throw new IOException(file + " is not a ticket store");
+            }
+            MappedByteBuffer header = mapHeader(fileChannel);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a ticket store");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(file + " has unsupported ticket store version " + header.getInt(4));
+            }
+            int ticketCount = header.getInt(8);
+            int rowSize = header.getInt(12);
+            int colSize = header.getInt(16);
+            int numbersPerRow = header.getInt(20);
+            if (ticketCount < 0 || rowSize <= 0 || colSize <= 0 || numbersPerRow < 0 ||
+                fileChannel.size() < HEADER_SIZE + (long) ticketCount * recordSize(rowSize, colSize, numbersPerRow)) {
+                throw new IOException(file + " is truncated");
+            }
+            return new MappedTicketStore(fileChannel, header, ticketCount, rowSize, colSize,
+                numbersPerRow, header.getInt(24), header.getInt(28));
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    /***
+     * Gets the starting range of numbers of the game the store was created for.
+     * @return starting range
+     */
+    public int getNumberRangeStart() {
+        return numberRangeStart;
+    }
+
+    /***
+     * Gets the ending range of numbers of the game the store was created for.
+     * @return ending range
+     */
+    public int getNumberRangeEnd() {
+        return numberRangeEnd;
+    }
+
+    /***
+     * Writes the tickets and marks changed so far to the file.
+     */
+    public void force() {
+        header.force();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /***
+     * Closes the file; the mapped segments stay valid until they are garbage collected.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    @Override
+    protected int readNumber(int ticketId, int slot) {
+        return segment(ticketId).getInt(recordOffset(ticketId) + slot * Integer.BYTES);
+    }
+
+    @Override
+    protected void writeNumber(int ticketId, int slot, int number) {
+        segment(ticketId).putInt(recordOffset(ticketId) + slot * Integer.BYTES, number);
+    }
+
+    @Override
+    protected long readMarkWord(int ticketId, int word) {
+        return segment(ticketId).getLong(recordOffset(ticketId) + markWordsOffset + word * Long.BYTES);
+    }
+
+    @Override
+    protected void writeMarkWord(int ticketId, int word, long bits) {
+        segment(ticketId).putLong(recordOffset(ticketId) + markWordsOffset + word * Long.BYTES, bits);
+    }
+
+    @Override
+    protected int readMarkedCount(int ticketId) {
+        return segment(ticketId).getInt(recordOffset(ticketId) + markedCountOffset);
+    }
+
+    @Override
+    protected void writeMarkedCount(int ticketId, int markedCount) {
+        segment(ticketId).putInt(recordOffset(ticketId) + markedCountOffset, markedCount);
+    }
+
+    @Override
+    protected int readRowMarkedCount(int ticketId, int row) {
+        return segment(ticketId).getInt(recordOffset(ticketId) + rowMarkedCountsOffset + row * Integer.BYTES);
+    }
+
+    @Override
+    protected void writeRowMarkedCount(int ticketId, int row, int markedCount) {
+        segment(ticketId).putInt(recordOffset(ticketId) + rowMarkedCountsOffset + row * Integer.BYTES, markedCount);
+    }
+
+    @Override
+    protected long readFilledWord(int ticketId, int word) {
+        return segment(ticketId).getLong(recordOffset(ticketId) + filledWordsOffset + word * Long.BYTES);
+    }
+
+    @Override
+    protected void writeFilledWord(int ticketId, int word, long bits) {
+        segment(ticketId).putLong(recordOffset(ticketId) + filledWordsOffset + word * Long.BYTES, bits);
+    }
+
+    @Override
+    protected int readIndexEntry(int ticketId, int entry) {
+        return segment(ticketId).getShort(recordOffset(ticketId) + indexEntriesOffset + entry * Short.BYTES) & 0xFFFF;
+    }
+
+    @Override
+    protected void writeIndexEntry(int ticketId, int entry, int slotPlusOne) {
+        segment(ticketId).putShort(recordOffset(ticketId) + indexEntriesOffset + entry * Short.BYTES, (short) slotPlusOne);
+    }
+
+    private MappedByteBuffer segment(int ticketId) {
+        return segments[ticketId >>> segmentShift];
+    }
+
+    private int recordOffset(int ticketId) {
+        return (ticketId & segmentMask) * recordSize;
+    }
+
+    /***
+     * Maps the header at the start of the file.
+     * @param fileChannel channel of the file
+     * @return header buffer
+     * @throws IOException if the header cannot be mapped
+     */
+    private static MappedByteBuffer mapHeader(FileChannel fileChannel) throws IOException {
+        MappedByteBuffer header = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        return header;
+    }
+
+    /***
+     * Gets the number of tickets per mapped segment, the largest power of two keeping a segment below 1 GiB.
+     * @param recordSize bytes per ticket
+     * @return log2 of the number of tickets per segment
+     */
+    static int segmentShift(int recordSize) {
+        return 31 - Integer.numberOfLeadingZeros((int) Math.max(1, MAX_SEGMENT_SIZE / recordSize));
+    }
+
+    /***
+     * Maps the fixed size records of the tickets, growing the file to hold them if needed when mapped to write.
+     * @param fileChannel channel of the file
+     * @param mapMode mode to map the records with
+     * @param position position of the first record in the file, after the header
+     * @param ticketCount number of tickets
+     * @param recordSize bytes per ticket
+     * @param segmentShift log2 of the number of tickets per segment
+     * @return one buffer per segment
+     * @throws IOException if a segment cannot be mapped
+     */
+    static MappedByteBuffer[] mapSegments(FileChannel fileChannel, FileChannel.MapMode mapMode, long position,
+                                          int ticketCount, int recordSize, int segmentShift) throws IOException {
+        int ticketsPerSegment = 1 << segmentShift;
+        int segmentCount = (int) (((long) ticketCount + ticketsPerSegment - 1) >>> segmentShift);
+        MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            long firstTicket = (long) segment << segmentShift;
+            long segmentTickets = Math.min(ticketsPerSegment, ticketCount - firstTicket);
+            segments[segment] = fileChannel.map(mapMode,
+                position + firstTicket * recordSize, segmentTickets * recordSize);
+            segments[segment].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    /***
+     * Gets the size of the record of one ticket.
+     * @param rowSize number of rows of the ticket
+     * @param colSize number of columns of the ticket
+     * @param numbersPerRow number of slots filled with a number on each row
+     * @return bytes per ticket
+     */
+    static int recordSize(int rowSize, int colSize, int numbersPerRow) {
+        int wordsPerRow = (colSize + Long.SIZE - 1) / Long.SIZE;
+        int filledWordsOffset = align8((rowSize * colSize + 1 + rowSize) * Integer.BYTES +
+            TicketStore.indexEntriesPerTicket(rowSize, numbersPerRow) * Short.BYTES);
+        return filledWordsOffset + 2 * rowSize * wordsPerRow * Long.BYTES;
+    }
+
+    private static int align8(int offset) {
+        return (offset + 7) & ~7;
+    }
+}
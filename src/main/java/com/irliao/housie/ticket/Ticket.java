@@ -1,88 +1,236 @@
 package com.irliao.housie.ticket;
 
+import com.irliao.housie.render.GameRenderer;
+
 import java.util.*;
-import java.util.stream.IntStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
 
 /***
  * Ticket of the bingo game.
  * This is a N rows x M columns ticket with slots.
  * Each slot has a number and boolean to indicate if slot has been marked.
  * The numbers on the slots will be random when created.
+ * The ticket is a lightweight view of one ticket of a TicketStore: the numbers, the marked slots and the
+ * running counters of the filled and marked slots (total and per row) all live in the flat arrays of the store,
+ * so combinations can be checked against the counters without scanning the slots.
  */
 public class Ticket {
 
-    private final List<List<TicketSlot>> slots;
-    private final int rowSize;
-    private final int colSize;
+    private final TicketStore ticketStore;
+    private final int ticketId;
 
     public Ticket(int rowSize, int colSize, Deque<Integer> bingoNumbers, int numbersPerRow) {
-        this.rowSize = rowSize;
-        this.colSize = colSize;
-        slots = createSlotsWithRandomNumbers(bingoNumbers, numbersPerRow);
+        this(rowSize, colSize, bingoNumbers, numbersPerRow, ThreadLocalRandom.current());
+    }
+
+    public Ticket(int rowSize, int colSize, Deque<Integer> bingoNumbers, int numbersPerRow, Random random) {
+        this(rowSize, colSize, popNumbers(bingoNumbers, rowSize * numbersPerRow), numbersPerRow, random);
+    }
+
+    /***
+     * Creates the ticket with the numbers from the array, filling the rows top to bottom.
+     * The numbers are copied, so the array can be reused for the next ticket.
+     * @param rowSize number of rows
+     * @param colSize number of columns
+     * @param bingoNumbers numbers to fill the ticket with, at least rowSize x numbersPerRow of them
+     * @param numbersPerRow how many numbers should appear on each row of the ticket
+     * @param random source of randomness for choosing the slots
+     */
+    public Ticket(int rowSize, int colSize, int[] bingoNumbers, int numbersPerRow, Random random) {
+        this(createSingleTicketStore(rowSize, colSize, bingoNumbers, numbersPerRow, random), 0);
+    }
+
+    /***
+     * Creates the view of a ticket dealt into a TicketStore.
+     * Nothing is copied, marking the ticket marks the store.
+     * @param ticketStore store holding the ticket
+     * @param ticketId ID of the ticket in the store
+     */
+    public Ticket(TicketStore ticketStore, int ticketId) {
+        this.ticketStore = ticketStore;
+        this.ticketId = ticketId;
     }
 
     /***
      * Gets the slots of this ticket.
-     * @return List of List that contains the TicketSlot wrapped in an Optional
+     * The List view is built on every call from the store, it is meant for printing and tests and
+     * does not follow the marks made after it was built.
+     * @return List of List that contains the TicketSlot, null for an empty slot
      */
     public List<List<TicketSlot>> getSlots() {
-        return slots;
+        int rowSize = ticketStore.getRowSize();
+        int colSize = ticketStore.getColSize();
+        List<List<TicketSlot>> slotsView = new ArrayList<>(rowSize);
+        for (int row = 0; row < rowSize; row++) {
+            List<TicketSlot> slotRow = new ArrayList<>(Collections.nCopies(colSize, null));
+            for (int col = 0; col < colSize; col++) {
+                int slot = row * colSize + col;
+                int number = ticketStore.getNumber(ticketId, slot);
+                if (number != TicketStore.EMPTY_SLOT) {
+                    TicketSlot ticketSlot = new TicketSlot(number);
+                    ticketSlot.setMarked(ticketStore.isMarked(ticketId, slot));
+                    slotRow.set(col, ticketSlot);
+                }
+            }
+            slotsView.add(slotRow);
+        }
+        return slotsView;
+    }
+
+    /***
+     * Gets the store holding this ticket.
+     * @return TicketStore of the ticket
+     */
+    public TicketStore getTicketStore() {
+        return ticketStore;
+    }
+
+    /***
+     * Gets the ID of this ticket in its store.
+     * @return ID of the ticket
+     */
+    public int getTicketId() {
+        return ticketId;
+    }
+
+    /***
+     * Gets the number of slots filled with a number.
+     * @return number of filled slots
+     */
+    public int getFilledCount() {
+        return ticketStore.getFilledCount(ticketId);
+    }
+
+    /***
+     * Gets the number of slots marked so far.
+     * @return number of marked slots
+     */
+    public int getMarkedCount() {
+        return ticketStore.getMarkedCount(ticketId);
+    }
+
+    /***
+     * Gets the number of slots filled with a number on the row.
+     * @param row row of the ticket, starting at 0 for the top row
+     * @return number of filled slots on the row
+     */
+    public int getRowFilledCount(int row) {
+        return ticketStore.getRowFilledCount(ticketId, row);
+    }
+
+    /***
+     * Gets the number of slots marked so far on the row.
+     * @param row row of the ticket, starting at 0 for the top row
+     * @return number of marked slots on the row
+     */
+    public int getRowMarkedCount(int row) {
+        return ticketStore.getRowMarkedCount(ticketId, row);
+    }
+
+    /***
+     * Gets the number of slots of the ticket, filled or not.
+     * @return rows x columns
+     */
+    public int getSlotCount() {
+        return ticketStore.getSlotsPerTicket();
+    }
+
+    /***
+     * Gets the number on the slot.
+     * @param slot row-major position of the slot
+     * @return number on the slot, TicketStore.EMPTY_SLOT if the slot has no number
+     */
+    public int getNumber(int slot) {
+        return ticketStore.getNumber(ticketId, slot);
+    }
+
+    /***
+     * Gets a word of the marked slots bitset of this ticket.
+     * @param word position of the word, from 0 to words per ticket - 1
+     * @return bits of the word
+     */
+    public long getMarkWord(int word) {
+        return ticketStore.getMarkWord(ticketId, word);
+    }
+
+    /***
+     * Gets a word of the filled slots bitset of this ticket, laid out like the marked slots bitset.
+     * @param word position of the word, from 0 to words per ticket - 1
+     * @return bits of the word
+     */
+    public long getFilledWord(int word) {
+        return ticketStore.getFilledWord(ticketId, word);
+    }
+
+    /***
+     * Performs the action for every number on the ticket, in row-major order of the slots.
+     * @param action action to perform on each number
+     */
+    public void forEachNumber(IntConsumer action) {
+        for (int slot = 0, slotCount = getSlotCount(); slot < slotCount; slot++) {
+            int number = ticketStore.getNumber(ticketId, slot);
+            if (number != TicketStore.EMPTY_SLOT) {
+                action.accept(number);
+            }
+        }
     }
 
     /***
      * Checks the slots on the ticket for the number and marks the slot if found.
      * @param number number to search the ticket for
+     * @return true if the number was found and the slot was not marked before
      */
-    public void markNumberIfFound(int number) {
-        slots.stream()
-             .flatMap(Collection::stream)
-             .filter(Objects::nonNull)
-             .filter(ticketSlot -> ticketSlot.getNumber() == number)
-             .findFirst()
-             .ifPresent(ticketSlot -> ticketSlot.setMarked(true));
+    public boolean markNumberIfFound(int number) {
+        return ticketStore.markNumberIfFound(ticketId, number);
     }
 
     /***
-     * Creates the ticket with random numbers on random slots per row.
-     * The ticket is represented by a List of List since the ticket has 2 dimensional size.
-     * Which slots to put a number on is chosen at random and only limits to the numbers per row specified.
-     * @param bingoNumbers the Deque that will provide the numbers to fill the ticket with
-     * @param numbersPerRow how many numbers should appear on each row of the ticket
-     * @return ticket with random slots filled with random numbers.
+     * Marks the slot without looking the number up, for callers that already know where the number is.
+     * @param slot row-major position of a slot holding a number
+     * @return true if the slot was not marked before
      */
-    List<List<TicketSlot>> createSlotsWithRandomNumbers(Deque<Integer> bingoNumbers, int numbersPerRow) {
-        List<List<TicketSlot>> slots = new ArrayList<>(rowSize);
-        IntStream.range(0, rowSize).forEachOrdered(row -> {
-            List<TicketSlot> slotRow = new ArrayList<>(Collections.nCopies(colSize, null));
-            IntStream.range(0, numbersPerRow).forEachOrdered(i -> {
-                int randomNumber = bingoNumbers.pop();
-                TicketSlot ticketSlotWithNumber = new TicketSlot(randomNumber);
-                slotRow.set(i, ticketSlotWithNumber);
-            });
-            Collections.shuffle(slotRow);
-            slots.add(row, slotRow);
-        });
-
-        return slots;
+    public boolean markSlot(int slot) {
+        return ticketStore.markSlot(ticketId, slot);
     }
 
     /***
      * Prints the current ticket, showing the number on the ticket and whether the ticket is marked.
+     * The grid is rendered into the buffer of the renderer, written out when the renderer is flushed.
+     * @param gameRenderer renderer of the game, e.g. its console renderer
+     * @throws java.io.UncheckedIOException if the buffer had to be written and could not be
      */
-    public void printTicket() {
-        IntStream.range(0, rowSize).forEachOrdered(row -> {
-            StringBuilder stringBuilder = new StringBuilder();
-            IntStream.range(0, colSize).forEachOrdered(col -> {
-                TicketSlot slot = slots.get(row).get(col);
-                if (slot == null) {
-                    stringBuilder.append("__ _ | ");
-                } else {
-                    String markedString = slot.getMarked() ? "x" : "_";
-                    stringBuilder.append(slot.getNumber() + " " + markedString + " | ");
-                }
-            });
-            System.out.println(stringBuilder);
-        });
+    public void printTicket(GameRenderer gameRenderer) {
+        gameRenderer.ticket(this);
     }
-}
 
+    /***
+     * Creates a store holding only this ticket, filled with the numbers on random slots.
+     * @param rowSize number of rows
+     * @param colSize number of columns
+     * @param bingoNumbers numbers to fill the ticket with
+     * @param numbersPerRow how many numbers should appear on each row of the ticket
+     * @param random source of randomness for choosing the slots
+     * @return store holding the ticket as ID 0
+     */
+    private static TicketStore createSingleTicketStore(int rowSize, int colSize, int[] bingoNumbers,
+                                                       int numbersPerRow, Random random) {
+        WritableTicketStore ticketStore = new HeapTicketStore(1, rowSize, colSize, numbersPerRow);
+        ticketStore.fillTicket(0, bingoNumbers, random);
+        return ticketStore;
+    }
+
+    /***
+     * Pops the numbers to fill a ticket with from the Deque.
+     * @param bingoNumbers the Deque that will provide the numbers
+     * @param count how many numbers to pop
+     * @return the numbers popped, in order
+     */
+    private static int[] popNumbers(Deque<Integer> bingoNumbers, int count) {
+        int[] numbers = new int[count];
+        for (int i = 0; i < count; i++) {
+            numbers[i] = bingoNumbers.pop();
+        }
+        return numbers;
+    }
+}
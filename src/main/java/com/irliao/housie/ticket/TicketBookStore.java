@@ -0,0 +1,270 @@
+package com.irliao.housie.ticket;
+
+import com.irliao.housie.GameSettings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/***
+ * TicketStore over a ticket book, the compact file of the tickets dealt for a game ahead of time.
+ * The book starts with a fixed size header holding the format version, the shape of the tickets
+ * and the range of numbers, followed by the number of every slot of every ticket in ticket ID then
+ * row-major slot order, packed on as few bytes as the end of the range needs (1, 2 or 4, 0 for an empty slot).
+ * All values are little-endian.
+ * Loading a book checks the header and maps the numbers read-only, in segments of a power of two
+ * tickets below 1 GiB each, so the numbers are never copied onto the heap; only the marks of the game,
+ * and the number to slot index and filled slots bitset of every ticket built from the numbers as the book is
+ * loaded, are.
+ */
+public class TicketBookStore extends TicketStore implements Closeable {
+
+    static final int MAGIC = 0x424B5448; // "HTKB"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer[] segments;
+    private final TicketMarks ticketMarks;
+    private final long[] filledBits;
+    private final TicketIndex ticketIndex;
+    private final int numberRangeStart;
+    private final int numberRangeEnd;
+    private final int numberWidth;
+    private final int recordSize;
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private TicketBookStore(FileChannel fileChannel, int ticketCount, int rowSize, int colSize, int numbersPerRow,
+                            int numberRangeStart, int numberRangeEnd, int numberWidth) throws IOException {
+        super(ticketCount, rowSize, colSize, numbersPerRow);
+        this.fileChannel = fileChannel;
+        this.numberRangeStart = numberRangeStart;
+        this.numberRangeEnd = numberRangeEnd;
+        this.numberWidth = numberWidth;
+        recordSize = getSlotsPerTicket() * numberWidth;
+        segmentShift = MappedTicketStore.segmentShift(recordSize);
+        segmentMask = (1 << segmentShift) - 1;
+        segments = MappedTicketStore.mapSegments(fileChannel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE,
+            ticketCount, recordSize, segmentShift);
+        ticketMarks = new TicketMarks(ticketCount, rowSize, getWordsPerTicket());
+        filledBits = new long[Math.multiplyExact(ticketCount, getWordsPerTicket())];
+        ticketIndex = new TicketIndex(ticketCount, getIndexEntriesPerTicket());
+        for (int ticketId = 0; ticketId < ticketCount; ticketId++) {
+            indexTicket(ticketId);
+        }
+    }
+
+    /***
+     * Writes the tickets of the store to a ticket book, replacing the file if it exists.
+     * @param file file to write the book to
+     * @param ticketStore store holding the tickets dealt
+     * @param gameSettings settings of the game the tickets were dealt for
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the tickets do not have the shape or numbers of the settings
+     */
+    public static void write(Path file, TicketStore ticketStore, GameSettings gameSettings) throws IOException {
+        if (ticketStore.getRowSize() != gameSettings.getNumberOfRows() || ticketStore.getColSize() != gameSettings.getNumberOfCols() ||
+            ticketStore.getNumbersPerRow() != gameSettings.getNumberPerRow()) {
+            throw new IllegalArgumentException("Ticket store does not have the ticket shape of the settings");
+        }
+
+        int numberWidth = numberWidth(gameSettings.getNumberRangeEnd());
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+              .putInt(VERSION)
+              .putInt(ticketStore.getTicketCount())
+              .putInt(ticketStore.getRowSize())
+              .putInt(ticketStore.getColSize())
+              .putInt(ticketStore.getNumbersPerRow())
+              .putInt(gameSettings.getNumberRangeStart())
+              .putInt(gameSettings.getNumberRangeEnd())
+              .putInt(numberWidth);
+        buffer.position(HEADER_SIZE);
+
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+            for (int ticketId = 0; ticketId < ticketStore.getTicketCount(); ticketId++) {
+                for (int slot = 0; slot < ticketStore.getSlotsPerTicket(); slot++) {
+                    if (buffer.remaining() < Integer.BYTES) {
+                        writeFully(fileChannel, buffer);
+                    }
+                    putNumber(buffer, numberWidth, checkNumber(ticketStore.getNumber(ticketId, slot), gameSettings));
+                }
+            }
+            writeFully(fileChannel, buffer);
+        }
+    }
+
+    /***
+     * Loads a ticket book, mapping its numbers without copying them.
+     * @param file file holding the book
+     * @return store of the tickets of the book, with no slot marked
+     * @throws IOException if the file cannot be mapped or is not a ticket book of this version
+     */
+    public static TicketBookStore load(Path file) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (fileChannel.size() < HEADER_SIZE) {
+                throw new IOException(file + " is not a ticket book");
+            }
+            MappedByteBuffer header = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a ticket book");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(file + " has unsupported ticket book version " + header.getInt(4));
+            }
+            int ticketCount = header.getInt(8);
+            int rowSize = header.getInt(12);
+            int colSize = header.getInt(16);
+            int numberWidth = header.getInt(32);
+            if (ticketCount < 0 || rowSize <= 0 || colSize <= 0 || numberWidth != numberWidth(header.getInt(28)) ||
+                fileChannel.size() < HEADER_SIZE + (long) ticketCount * rowSize * colSize * numberWidth) {
+                throw new IOException(file + " is truncated or corrupted");
+            }
+            return new TicketBookStore(fileChannel, ticketCount, rowSize, colSize, header.getInt(20),
+                header.getInt(24), header.getInt(28), numberWidth);
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    /***
+     * Gets the starting range of numbers of the game the book was dealt for.
+     * @return starting range
+     */
+    public int getNumberRangeStart() {
+        return numberRangeStart;
+    }
+
+    /***
+     * Gets the ending range of numbers of the game the book was dealt for.
+     * @return ending range
+     */
+    public int getNumberRangeEnd() {
+        return numberRangeEnd;
+    }
+
+    /***
+     * Closes the file; the mapped segments stay valid until they are garbage collected.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    @Override
+    protected int readNumber(int ticketId, int slot) {
+        MappedByteBuffer segment = segments[ticketId >>> segmentShift];
+        int position = (ticketId & segmentMask) * recordSize + slot * numberWidth;
+        switch (numberWidth) {
+            case 1:
+                return segment.get(position) & 0xFF;
+            case 2:
+                return segment.getShort(position) & 0xFFFF;
+            default:
+                return segment.getInt(position);
+        }
+    }
+
+    @Override
+    protected long readMarkWord(int ticketId, int word) {
+        return ticketMarks.readMarkWord(ticketId, word);
+    }
+
+    @Override
+    protected void writeMarkWord(int ticketId, int word, long bits) {
+        ticketMarks.writeMarkWord(ticketId, word, bits);
+    }
+
+    @Override
+    protected int readMarkedCount(int ticketId) {
+        return ticketMarks.readMarkedCount(ticketId);
+    }
+
+    @Override
+    protected void writeMarkedCount(int ticketId, int markedCount) {
+        ticketMarks.writeMarkedCount(ticketId, markedCount);
+    }
+
+    @Override
+    protected int readRowMarkedCount(int ticketId, int row) {
+        return ticketMarks.readRowMarkedCount(ticketId, row);
+    }
+
+    @Override
+    protected void writeRowMarkedCount(int ticketId, int row, int markedCount) {
+        ticketMarks.writeRowMarkedCount(ticketId, row, markedCount);
+    }
+
+    @Override
+    protected long readFilledWord(int ticketId, int word) {
+        return filledBits[ticketId * getWordsPerTicket() + word];
+    }
+
+    @Override
+    protected void writeFilledWord(int ticketId, int word, long bits) {
+        filledBits[ticketId * getWordsPerTicket() + word] = bits;
+    }
+
+    @Override
+    protected int readIndexEntry(int ticketId, int entry) {
+        return ticketIndex.readIndexEntry(ticketId, entry);
+    }
+
+    @Override
+    protected void writeIndexEntry(int ticketId, int entry, int slotPlusOne) {
+        ticketIndex.writeIndexEntry(ticketId, entry, slotPlusOne);
+    }
+
+    /***
+     * Gets how many bytes each number of the book is packed on.
+     * @param numberRangeEnd ending range of numbers
+     * @return 1, 2 or 4 bytes
+     */
+    static int numberWidth(int numberRangeEnd) {
+        if (numberRangeEnd <= 0xFF) {
+            return 1;
+        }
+        return numberRangeEnd <= 0xFFFF ? 2 : 4;
+    }
+
+    private static int checkNumber(int number, GameSettings gameSettings) {
+        if (number != EMPTY_SLOT && (number < gameSettings.getNumberRangeStart() || number > gameSettings.getNumberRangeEnd())) {
+            throw new IllegalArgumentException("Number " + number + " on a ticket is outside of the range");
+        }
+        return number;
+    }
+
+    private static void putNumber(ByteBuffer buffer, int numberWidth, int number) {
+        switch (numberWidth) {
+            case 1:
+                buffer.put((byte) number);
+                break;
+            case 2:
+                buffer.putShort((short) number);
+                break;
+            default:
+                buffer.putInt(number);
+        }
+    }
+
+    private static void writeFully(FileChannel fileChannel, ByteBuffer buffer) throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+}
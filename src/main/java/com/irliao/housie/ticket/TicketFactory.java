@@ -0,0 +1,76 @@
+package com.irliao.housie.ticket;
+
+import com.irliao.housie.GameSettings;
+import com.irliao.housie.bingo.BingoNumberProvider;
+import com.irliao.housie.bingo.RandomBingoNumberProvider;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/***
+ * Deals the tickets of a game in bulk into a WritableTicketStore.
+ * The tickets are split in batches which are filled in parallel, each with its own bag of numbers
+ * and random generator, seeded one after the other from the game's Random so dealing stays reproducible.
+ */
+public class TicketFactory {
+
+    private static final int TICKETS_PER_BATCH = 4096;
+
+    private final GameSettings gameSettings;
+
+    public TicketFactory(GameSettings gameSettings) {
+        this.gameSettings = gameSettings;
+    }
+
+    /***
+     * Creates the tickets with random numbers from the range on random slots.
+     * @param ticketCount number of tickets to create
+     * @param random source of the seeds of the batches
+     * @return store holding the numbers of all the tickets
+     */
+    public TicketStore createTickets(int ticketCount, Random random) {
+        WritableTicketStore ticketStore = new HeapTicketStore(ticketCount, gameSettings.getNumberOfRows(),
+            gameSettings.getNumberOfCols(), gameSettings.getNumberPerRow());
+        dealTickets(ticketStore, random);
+        return ticketStore;
+    }
+
+    /***
+     * Fills every ticket of the store with random numbers from the range on random slots.
+     * @param ticketStore store to fill, e.g. a MappedTicketStore just created
+     * @param random source of the seeds of the batches
+     * @throws IllegalArgumentException if the tickets of the store do not have the shape of the settings
+     */
+    public void dealTickets(WritableTicketStore ticketStore, Random random) {
+        if (ticketStore.getRowSize() != gameSettings.getNumberOfRows() || ticketStore.getColSize() != gameSettings.getNumberOfCols() ||
+            ticketStore.getNumbersPerRow() != gameSettings.getNumberPerRow()) {
+            throw new IllegalArgumentException("Ticket store does not have the ticket shape of the settings");
+        }
+
+        int batchCount = (ticketStore.getTicketCount() + TICKETS_PER_BATCH - 1) / TICKETS_PER_BATCH;
+        long[] batchSeeds = random.longs(batchCount).toArray();
+
+        IntStream batches = IntStream.range(0, batchCount);
+        if (batchCount > 1) {
+            batches = batches.parallel();
+        }
+        batches.forEach(batch -> fillBatch(ticketStore, batch, new Random(batchSeeds[batch])));
+    }
+
+    /***
+     * Fills the tickets of one batch, reusing the same array of numbers for every ticket.
+     * @param ticketStore store to fill
+     * @param batch index of the batch
+     * @param random source of randomness of the batch
+     */
+    private void fillBatch(WritableTicketStore ticketStore, int batch, Random random) {
+        BingoNumberProvider bingoNumberProvider = new RandomBingoNumberProvider(gameSettings.getNumberRangeStart(),
+            gameSettings.getNumberRangeEnd(), random);
+        int[] ticketNumbers = new int[gameSettings.getNumberOfRows() * gameSettings.getNumberPerRow()];
+        int batchEnd = Math.min(ticketStore.getTicketCount(), (batch + 1) * TICKETS_PER_BATCH);
+        for (int ticketId = batch * TICKETS_PER_BATCH; ticketId < batchEnd; ticketId++) {
+            bingoNumberProvider.fillWithBingoNumbers(ticketNumbers);
+            ticketStore.fillTicket(ticketId, ticketNumbers, random);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.irliao.housie.ticket;
+
+/***
+ * Number to slot indexes of a hall of tickets, kept in a flat array on the heap.
+ * Shared by the stores that keep their indexes on the heap, whatever holds their numbers.
+ */
+final class TicketIndex {
+
+    private final int entriesPerTicket;
+    private final short[] entries;
+
+    TicketIndex(int ticketCount, int entriesPerTicket) {
+        this.entriesPerTicket = entriesPerTicket;
+        entries = new short[Math.multiplyExact(ticketCount, entriesPerTicket)];
+    }
+
+    int readIndexEntry(int ticketId, int entry) {
+        return entries[ticketId * entriesPerTicket + entry] & 0xFFFF;
+    }
+
+    void writeIndexEntry(int ticketId, int entry, int slotPlusOne) {
+        entries[ticketId * entriesPerTicket + entry] = (short) slotPlusOne;
+    }
+}
@@ -0,0 +1,46 @@
+package com.irliao.housie.ticket;
+
+/***
+ * Marked slots and marked counts of a hall of tickets, kept in flat arrays on the heap.
+ * Shared by the stores that keep their marks on the heap, whatever holds their numbers.
+ */
+final class TicketMarks {
+
+    private final int rowSize;
+    private final int wordsPerTicket;
+    private final long[] markedBits;
+    private final int[] markedCounts;
+    private final int[] rowMarkedCounts;
+
+    TicketMarks(int ticketCount, int rowSize, int wordsPerTicket) {
+        this.rowSize = rowSize;
+        this.wordsPerTicket = wordsPerTicket;
+        markedBits = new long[Math.multiplyExact(ticketCount, wordsPerTicket)];
+        markedCounts = new int[ticketCount];
+        rowMarkedCounts = new int[Math.multiplyExact(ticketCount, rowSize)];
+    }
+
+    long readMarkWord(int ticketId, int word) {
+        return markedBits[ticketId * wordsPerTicket + word];
+    }
+
+    void writeMarkWord(int ticketId, int word, long bits) {
+        markedBits[ticketId * wordsPerTicket + word] = bits;
+    }
+
+    int readMarkedCount(int ticketId) {
+        return markedCounts[ticketId];
+    }
+
+    void writeMarkedCount(int ticketId, int markedCount) {
+        markedCounts[ticketId] = markedCount;
+    }
+
+    int readRowMarkedCount(int ticketId, int row) {
+        return rowMarkedCounts[ticketId * rowSize + row];
+    }
+
+    void writeRowMarkedCount(int ticketId, int row, int markedCount) {
+        rowMarkedCounts[ticketId * rowSize + row] = markedCount;
+    }
+}
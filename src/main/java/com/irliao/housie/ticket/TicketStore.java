@@ -0,0 +1,462 @@
+package com.irliao.housie.ticket;
+
+/***
+ * Contiguous store of all the tickets of a game, indexed by ticket ID.
+ * Every ticket has the same shape and the store keeps, per ticket, the numbers on rowSize x colSize slots
+ * in row-major order (EMPTY_SLOT for a slot without a number), the marked slots as a bitset of long words
+ * where every row starts on its own word, and the running counts of marked slots per ticket and per row.
+ * Every ticket also has an open addressing index from number to slot and a bitset of its filled slots laid out
+ * like the marked slots, both built as the ticket is filled, so finding a number on a ticket is a single lookup
+ * instead of a scan of the slots, and a pattern is checked against the marks without reading the numbers.
+ * Subclasses only decide where these values live, on the heap or in a memory-mapped file; finding, marking
+ * and counting are the same for every store.
+ * Only a WritableTicketStore can be filled with tickets; the others hold tickets filled elsewhere.
+ */
+public abstract class TicketStore {
+
+    public static final int EMPTY_SLOT = 0;
+    public static final int NOT_FOUND = -1;
+    private static final int MAX_SLOTS_PER_TICKET = 0xFFFF; // index entries hold slot + 1 on 16 bits
+
+    private final int ticketCount;
+    private final int rowSize;
+    private final int colSize;
+    private final int numbersPerRow;
+    private final int slotsPerTicket;
+    private final int wordsPerRow;
+    private final int wordsPerTicket;
+    private final int indexEntriesPerTicket;
+
+    /***
+     * Creates a store of tickets of the same shape.
+     * @param ticketCount number of tickets
+     * @param rowSize number of rows of every ticket
+     * @param colSize number of columns of every ticket
+     * @param numbersPerRow number of slots filled with a number on each row
+     * @throws IllegalArgumentException if a ticket has more slots than the index can address
+     */
+    protected TicketStore(int ticketCount, int rowSize, int colSize, int numbersPerRow) {
+        this.ticketCount = ticketCount;
+        this.rowSize = rowSize;
+        this.colSize = colSize;
+        this.numbersPerRow = numbersPerRow;
+        slotsPerTicket = rowSize * colSize;
+        wordsPerRow = (colSize + Long.SIZE - 1) / Long.SIZE;
+        wordsPerTicket = rowSize * wordsPerRow;
+        if (slotsPerTicket > MAX_SLOTS_PER_TICKET) {
+            throw new IllegalArgumentException("Invalid ticket shape, must have at most " + MAX_SLOTS_PER_TICKET + " slots");
+        }
+        indexEntriesPerTicket = indexEntriesPerTicket(rowSize, numbersPerRow);
+    }
+
+    /***
+     * Reads the number on the slot of the ticket from the storage.
+     * @param ticketId ID of the ticket
+     * @param slot row-major position of the slot on the ticket
+     * @return number on the slot
+     */
+    protected abstract int readNumber(int ticketId, int slot);
+
+    /***
+     * Reads a word of the marked slots bitset of the ticket from the storage.
+     * @param ticketId ID of the ticket
+     * @param word position of the word in the bitset of the ticket
+     * @return bits of the word
+     */
+    protected abstract long readMarkWord(int ticketId, int word);
+
+    /***
+     * Writes a word of the marked slots bitset of the ticket to the storage.
+     * @param ticketId ID of the ticket
+     * @param word position of the word in the bitset of the ticket
+     * @param bits bits of the word
+     */
+    protected abstract void writeMarkWord(int ticketId, int word, long bits);
+
+    /***
+     * Reads the number of marked slots of the ticket from the storage.
+     * @param ticketId ID of the ticket
+     * @return number of marked slots
+     */
+    protected abstract int readMarkedCount(int ticketId);
+
+    /***
+     * Writes the number of marked slots of the ticket to the storage.
+     * @param ticketId ID of the ticket
+     * @param markedCount number of marked slots
+     */
+    protected abstract void writeMarkedCount(int ticketId, int markedCount);
+
+    /***
+     * Reads the number of marked slots on the row of the ticket from the storage.
+     * @param ticketId ID of the ticket
+     * @param row row of the ticket
+     * @return number of marked slots on the row
+     */
+    protected abstract int readRowMarkedCount(int ticketId, int row);
+
+    /***
+     * Writes the number of marked slots on the row of the ticket to the storage.
+     * @param ticketId ID of the ticket
+     * @param row row of the ticket
+     * @param markedCount number of marked slots on the row
+     */
+    protected abstract void writeRowMarkedCount(int ticketId, int row, int markedCount);
+
+    /***
+     * Reads a word of the filled slots bitset of the ticket from the storage.
+     * @param ticketId ID of the ticket
+     * @param word position of the word in the bitset of the ticket
+     * @return bits of the word
+     */
+    protected abstract long readFilledWord(int ticketId, int word);
+
+    /***
+     * Writes a word of the filled slots bitset of the ticket to the storage.
+     * @param ticketId ID of the ticket
+     * @param word position of the word in the bitset of the ticket
+     * @param bits bits of the word
+     */
+    protected abstract void writeFilledWord(int ticketId, int word, long bits);
+
+    /***
+     * Reads an entry of the number to slot index of the ticket from the storage.
+     * @param ticketId ID of the ticket
+     * @param entry position of the entry, from 0 to index entries per ticket - 1
+     * @return slot + 1 of the entry, 0 for an unused entry
+     */
+    protected abstract int readIndexEntry(int ticketId, int entry);
+
+    /***
+     * Writes an entry of the number to slot index of the ticket to the storage.
+     * @param ticketId ID of the ticket
+     * @param entry position of the entry, from 0 to index entries per ticket - 1
+     * @param slotPlusOne slot + 1 of the entry, 0 for an unused entry
+     */
+    protected abstract void writeIndexEntry(int ticketId, int entry, int slotPlusOne);
+
+    /***
+     * Builds the number to slot index of the ticket from the numbers on its slots, keeping the first slot
+     * of a number found more than once, and the filled slots bitset of the ticket.
+     * Done by WritableTicketStore.fillTicket(), and by the stores reading tickets filled elsewhere.
+     * @param ticketId ID of the ticket
+     */
+    protected void indexTicket(int ticketId) {
+        int mask = indexEntriesPerTicket - 1;
+        for (int entry = 0; entry < indexEntriesPerTicket; entry++) {
+            writeIndexEntry(ticketId, entry, 0);
+        }
+        for (int word = 0; word < wordsPerTicket; word++) {
+            writeFilledWord(ticketId, word, 0L);
+        }
+        for (int slot = 0; slot < slotsPerTicket; slot++) {
+            int number = readNumber(ticketId, slot);
+            if (number == EMPTY_SLOT) {
+                continue;
+            }
+            int row = slot / colSize;
+            int col = slot - row * colSize;
+            int word = wordIndex(row, col);
+            writeFilledWord(ticketId, word, readFilledWord(ticketId, word) | (1L << col));
+
+            int entry = hash(number) & mask;
+            int indexedSlot;
+            while ((indexedSlot = readIndexEntry(ticketId, entry)) != 0 && readNumber(ticketId, indexedSlot - 1) != number) {
+                entry = (entry + 1) & mask;
+            }
+            if (indexedSlot == 0) {
+                writeIndexEntry(ticketId, entry, slot + 1);
+            }
+        }
+    }
+
+    /***
+     * Gets the number on the slot of the ticket.
+     * @param ticketId ID of the ticket
+     * @param slot row-major position of the slot on the ticket
+     * @return number on the slot, EMPTY_SLOT if the slot has no number
+     */
+    public int getNumber(int ticketId, int slot) {
+        return readNumber(ticketId, slot);
+    }
+
+    /***
+     * Checks if the slot of the ticket has been marked.
+     * @param ticketId ID of the ticket
+     * @param slot row-major position of the slot on the ticket
+     * @return true if the slot is marked
+     */
+    public boolean isMarked(int ticketId, int slot) {
+        int row = slot / colSize;
+        int col = slot - row * colSize;
+        return (readMarkWord(ticketId, wordIndex(row, col)) & (1L << col)) != 0;
+    }
+
+    /***
+     * Marks the slot of the ticket and updates the running counts of the ticket.
+     * @param ticketId ID of the ticket
+     * @param slot row-major position of a slot holding a number
+     * @return true if the slot was not marked before
+     */
+    public boolean markSlot(int ticketId, int slot) {
+        int row = slot / colSize;
+        int col = slot - row * colSize;
+        int word = wordIndex(row, col);
+        long bits = readMarkWord(ticketId, word);
+        long mask = 1L << col; // shift distance is taken mod 64
+        if ((bits & mask) != 0) {
+            return false;
+        }
+
+        writeMarkWord(ticketId, word, bits | mask);
+        writeMarkedCount(ticketId, readMarkedCount(ticketId) + 1);
+        writeRowMarkedCount(ticketId, row, readRowMarkedCount(ticketId, row) + 1);
+        return true;
+    }
+
+    /***
+     * Looks up the first slot of the ticket holding the number in the index of the ticket.
+     * @param ticketId ID of the ticket
+     * @param number number to search the ticket for
+     * @return row-major position of the slot, or NOT_FOUND
+     */
+    public int findSlot(int ticketId, int number) {
+        int mask = indexEntriesPerTicket - 1;
+        int entry = hash(number) & mask;
+        int indexedSlot;
+        while ((indexedSlot = readIndexEntry(ticketId, entry)) != 0) {
+            if (readNumber(ticketId, indexedSlot - 1) == number) {
+                return indexedSlot - 1;
+            }
+            entry = (entry + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /***
+     * Checks the slots of the ticket for the number and marks the slot if found.
+     * @param ticketId ID of the ticket
+     * @param number number to search the ticket for
+     * @return true if the number was found and the slot was not marked before
+     */
+    public boolean markNumberIfFound(int ticketId, int number) {
+        int slot = number == EMPTY_SLOT ? NOT_FOUND : findSlot(ticketId, number);
+        return slot != NOT_FOUND && markSlot(ticketId, slot);
+    }
+
+    /***
+     * Marks the number on every ticket of the store holding it.
+     * This is a single sequential pass over the tickets of the whole hall, an alternative to looking the
+     * holders up when most tickets hold every number or the hall is split between threads by ticket ID.
+     * @param number number called
+     * @param markedTicketIds filled with the IDs of the tickets newly marked, in ascending order
+     * @return how many tickets were newly marked
+     */
+    public int markNumberOnAllTickets(int number, int[] markedTicketIds) {
+        return markNumberOnTickets(number, 0, ticketCount, markedTicketIds, 0);
+    }
+
+    /***
+     * Marks the number on every ticket with an ID in the range holding it, looking it up in the index of each ticket.
+     * @param number number called
+     * @param fromTicketId first ticket ID of the range, inclusive
+     * @param toTicketId last ticket ID of the range, exclusive
+     * @param markedTicketIds filled with the IDs of the tickets newly marked, in ascending order
+     * @param markedOffset position in markedTicketIds to start filling from
+     * @return how many tickets were newly marked
+     */
+    public int markNumberOnTickets(int number, int fromTicketId, int toTicketId, int[] markedTicketIds, int markedOffset) {
+        if (number == EMPTY_SLOT) {
+            return 0;
+        }
+
+        int markedCount = 0;
+        for (int ticketId = fromTicketId; ticketId < toTicketId; ticketId++) {
+            int slot = findSlot(ticketId, number);
+            if (slot != NOT_FOUND && markSlot(ticketId, slot)) {
+                markedTicketIds[markedOffset + markedCount++] = ticketId;
+            }
+        }
+        return markedCount;
+    }
+
+    /***
+     * Gets a word of the marked slots bitset of the ticket, every row of the ticket starting on its own word.
+     * Marks are only ever added, so a word read while the ticket is being marked on another thread holds
+     * the marks made before that call, with or without the new one.
+     * @param ticketId ID of the ticket
+     * @param word position of the word, from 0 to words per ticket - 1
+     * @return bits of the word, bit N of a row's first word for the slot of column N
+     */
+    public long getMarkWord(int ticketId, int word) {
+        return readMarkWord(ticketId, word);
+    }
+
+    /***
+     * Gets a word of the filled slots bitset of the ticket, laid out like the marked slots bitset, so a word of
+     * marks and the same word of filled slots can be compared with a mask.
+     * @param ticketId ID of the ticket
+     * @param word position of the word, from 0 to words per ticket - 1
+     * @return bits of the word, bit N of a row's first word set if the slot of column N holds a number
+     */
+    public long getFilledWord(int ticketId, int word) {
+        return readFilledWord(ticketId, word);
+    }
+
+    /***
+     * Replaces the marked slots of the ticket with the words of a bitset, recounting the marked slots.
+     * @param ticketId ID of the ticket
+     * @param markWords words of the bitset, as returned by getMarkWord()
+     * @param offset position of the first word of the ticket in markWords
+     */
+    public void restoreMarks(int ticketId, long[] markWords, int offset) {
+        int markedCount = 0;
+        for (int row = 0; row < rowSize; row++) {
+            int rowMarkedCount = 0;
+            for (int word = row * wordsPerRow; word < (row + 1) * wordsPerRow; word++) {
+                writeMarkWord(ticketId, word, markWords[offset + word]);
+                rowMarkedCount += Long.bitCount(markWords[offset + word]);
+            }
+            writeRowMarkedCount(ticketId, row, rowMarkedCount);
+            markedCount += rowMarkedCount;
+        }
+        writeMarkedCount(ticketId, markedCount);
+    }
+
+    /***
+     * Unmarks every slot of every ticket, for a game to be replayed from its first draw.
+     */
+    public void clearMarks() {
+        for (int ticketId = 0; ticketId < ticketCount; ticketId++) {
+            for (int word = 0; word < wordsPerTicket; word++) {
+                writeMarkWord(ticketId, word, 0L);
+            }
+            for (int row = 0; row < rowSize; row++) {
+                writeRowMarkedCount(ticketId, row, 0);
+            }
+            writeMarkedCount(ticketId, 0);
+        }
+    }
+
+    /***
+     * Gets the number of slots filled with a number on the ticket.
+     * @param ticketId ID of the ticket
+     * @return number of filled slots
+     */
+    public int getFilledCount(int ticketId) {
+        return rowSize * numbersPerRow;
+    }
+
+    /***
+     * Gets the number of slots marked so far on the ticket.
+     * @param ticketId ID of the ticket
+     * @return number of marked slots
+     */
+    public int getMarkedCount(int ticketId) {
+        return readMarkedCount(ticketId);
+    }
+
+    /***
+     * Gets the number of slots filled with a number on the row of the ticket.
+     * @param ticketId ID of the ticket
+     * @param row row of the ticket, starting at 0 for the top row
+     * @return number of filled slots on the row
+     */
+    public int getRowFilledCount(int ticketId, int row) {
+        return numbersPerRow;
+    }
+
+    /***
+     * Gets the number of slots marked so far on the row of the ticket.
+     * @param ticketId ID of the ticket
+     * @param row row of the ticket, starting at 0 for the top row
+     * @return number of marked slots on the row
+     */
+    public int getRowMarkedCount(int ticketId, int row) {
+        return readRowMarkedCount(ticketId, row);
+    }
+
+    /***
+     * Gets the number of tickets in the store.
+     * @return number of tickets
+     */
+    public int getTicketCount() {
+        return ticketCount;
+    }
+
+    /***
+     * Gets the number of rows of every ticket.
+     * @return number of rows
+     */
+    public int getRowSize() {
+        return rowSize;
+    }
+
+    /***
+     * Gets the number of columns of every ticket.
+     * @return number of columns
+     */
+    public int getColSize() {
+        return colSize;
+    }
+
+    /***
+     * Gets the number of slots filled with a number on each row of every ticket.
+     * @return numbers per row
+     */
+    public int getNumbersPerRow() {
+        return numbersPerRow;
+    }
+
+    /***
+     * Gets the number of slots of every ticket, filled or not.
+     * @return rowSize x colSize
+     */
+    public int getSlotsPerTicket() {
+        return slotsPerTicket;
+    }
+
+    /***
+     * Gets the number of long words of the marked slots bitset of every row, every row starting on its own word.
+     * @return (colSize + 63) / 64
+     */
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /***
+     * Gets the number of long words of the marked slots bitset of every ticket.
+     * @return rowSize x words per row
+     */
+    public int getWordsPerTicket() {
+        return wordsPerTicket;
+    }
+
+    /***
+     * Gets the number of entries of the number to slot index of every ticket.
+     * @return a power of two, at least twice the numbers of a ticket
+     */
+    protected int getIndexEntriesPerTicket() {
+        return indexEntriesPerTicket;
+    }
+
+    private int wordIndex(int row, int col) {
+        return row * wordsPerRow + (col >>> 6);
+    }
+
+    /***
+     * Gets the number of entries of the number to slot index of a ticket, at least twice as many as the numbers
+     * on the ticket, so a lookup rarely probes more than one entry.
+     * @param rowSize number of rows of the ticket
+     * @param numbersPerRow number of slots filled with a number on each row
+     * @return a power of two
+     */
+    static int indexEntriesPerTicket(int rowSize, int numbersPerRow) {
+        return Integer.highestOneBit(Math.max(1, rowSize * numbersPerRow)) << 2;
+    }
+
+    private static int hash(int number) {
+        int h = number * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,57 @@
+package com.irliao.housie.ticket;
+
+import java.util.Random;
+
+/***
+ * TicketStore that tickets can be dealt into, numbers being written slot by slot as the tickets are filled.
+ * Tickets are filled by ID, so disjoint ranges of tickets can be filled from different threads.
+ */
+public abstract class WritableTicketStore extends TicketStore {
+
+    /***
+     * Creates a store of tickets of the same shape, all empty until filled.
+     * @param ticketCount number of tickets
+     * @param rowSize number of rows of every ticket
+     * @param colSize number of columns of every ticket
+     * @param numbersPerRow number of slots filled with a number on each row
+     * @throws IllegalArgumentException if a ticket has more slots than the index can address
+     */
+    protected WritableTicketStore(int ticketCount, int rowSize, int colSize, int numbersPerRow) {
+        super(ticketCount, rowSize, colSize, numbersPerRow);
+    }
+
+    /***
+     * Writes the number on the slot of the ticket to the storage.
+     * @param ticketId ID of the ticket
+     * @param slot row-major position of the slot on the ticket
+     * @param number number on the slot
+     */
+    protected abstract void writeNumber(int ticketId, int slot, int number);
+
+    /***
+     * Fills the ticket with the numbers on random slots per row, filling the rows top to bottom.
+     * The slots of a row are chosen with selection sampling, so they are picked in column order and
+     * no scratch space is needed; the numbers are expected to already be in random order.
+     * @param ticketId ID of the ticket, from 0 to ticket count - 1
+     * @param bingoNumbers numbers to fill the ticket with, at least rowSize x numbersPerRow of them, all > 0
+     * @param random source of randomness for choosing the slots
+     */
+    public void fillTicket(int ticketId, int[] bingoNumbers, Random random) {
+        int nextNumber = 0;
+        int rowSize = getRowSize();
+        int colSize = getColSize();
+        for (int row = 0; row < rowSize; row++) {
+            int rowOffset = row * colSize;
+            int numbersLeft = getNumbersPerRow();
+            for (int col = 0; col < colSize; col++) {
+                if (random.nextInt(colSize - col) < numbersLeft) {
+                    writeNumber(ticketId, rowOffset + col, bingoNumbers[nextNumber++]);
+                    numbersLeft--;
+                } else {
+                    writeNumber(ticketId, rowOffset + col, EMPTY_SLOT);
+                }
+            }
+        }
+        indexTicket(ticketId);
+    }
+}
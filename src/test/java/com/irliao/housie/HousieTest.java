@@ -1,25 +1,31 @@
 package com.irliao.housie;
 
-import com.irliao.housie.bingo.BingoNumberProvider;
 import com.irliao.housie.combination.AbstractCombination;
+import com.irliao.housie.combination.Claim;
 import com.irliao.housie.combination.EarlyFiveCombination;
 import com.irliao.housie.combination.FullHouseCombination;
+import com.irliao.housie.combination.TiePolicy;
 import com.irliao.housie.combination.TopLineCombination;
 import com.irliao.housie.handler.SettingHandler;
 import com.irliao.housie.role.Dealer;
 import com.irliao.housie.role.Player;
+import com.irliao.housie.simulation.SimulationSettings;
 import com.irliao.housie.ticket.Ticket;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 
@@ -33,8 +39,6 @@ public class HousieTest {
 
     private final List<Player> mockPlayers = Mockito.mock(List.class);
     private final Set<AbstractCombination> winnableCombinations = new HashSet<>();
-    private final BingoNumberProvider mockBingoNumberProvider = Mockito.mock(BingoNumberProvider.class);
-    private final Deque<Integer> mockBingoNumbers = Mockito.mock(Deque.class);
     private final Dealer mockDealer = Mockito.mock(Dealer.class);
 
     Housie housie = new Housie();
@@ -42,15 +46,16 @@ public class HousieTest {
     @Before
     public void setup() {
         doNothing().when(mockDealer).addListener(any(Player.class));
+        doNothing().when(mockDealer).addPlayer(any(Player.class));
+        doNothing().when(mockDealer).addPlayers(anyList());
         ReflectionTestUtils.setField(housie, "dealer", mockDealer);
 
-        when(mockBingoNumbers.pop()).thenReturn(1);
-        when(mockBingoNumberProvider.createBingoNumbers()).thenReturn(mockBingoNumbers);
-        ReflectionTestUtils.setField(housie, "bingoNumberProvider", mockBingoNumberProvider);
-
         when(mockFullHouseCombination.getName()).thenReturn(FullHouseCombination.COMBINATION_NAME);
         when(mockTopLineCombination.getName()).thenReturn(TopLineCombination.COMBINATION_NAME);
         when(mockEarlyFiveCombination.getName()).thenReturn(EarlyFiveCombination.COMBINATION_NAME);
+        when(mockFullHouseCombination.getTiePolicy()).thenReturn(TiePolicy.FIRST_WINS);
+        when(mockTopLineCombination.getTiePolicy()).thenReturn(TiePolicy.FIRST_WINS);
+        when(mockEarlyFiveCombination.getTiePolicy()).thenReturn(TiePolicy.FIRST_WINS);
 
         winnableCombinations.add(mockFullHouseCombination);
         winnableCombinations.add(mockEarlyFiveCombination);
@@ -115,12 +120,162 @@ public class HousieTest {
         players.add(player2);
 
         ReflectionTestUtils.setField(housie, "players", players);
+        when(mockDealer.getPlayersMarkedByLastCall()).thenReturn(players);
+
+        housie.determineWinners();
+        Map<Integer, Set<AbstractCombination>> playerIdWinMap = housie.getCurrentWinners();
+
+        // either candidate may be checked first, but only that one claims both combinations
+        assertEquals(1, playerIdWinMap.keySet().size());
+        assertEquals(2, playerIdWinMap.values().iterator().next().size());
+    }
+
+    @Test
+    public void testDetermineWinners_onlyPlayersMarkedByLastCall() {
+        when(mockFullHouseCombination.getClaimed()).thenReturn(false);
+        when(mockTopLineCombination.getClaimed()).thenReturn(false);
+        when(mockEarlyFiveCombination.getClaimed()).thenReturn(false);
+        when(mockTopLineCombination.isWinningTicket(any(Ticket.class))).thenReturn(true);
+
+        Player player1 = new Player(1, mockTicket);
+        Player player2 = new Player(2, mockTicket);
+
+        List<Player> players = new ArrayList<>();
+        players.add(player1);
+        players.add(player2);
+
+        ReflectionTestUtils.setField(housie, "players", players);
+        when(mockDealer.getPlayersMarkedByLastCall()).thenReturn(Collections.singletonList(player2));
 
         housie.determineWinners();
         Map<Integer, Set<AbstractCombination>> playerIdWinMap = housie.getCurrentWinners();
 
         assertEquals(1, playerIdWinMap.keySet().size());
-        assertEquals(2, playerIdWinMap.get(1).size());
+        assertTrue(playerIdWinMap.get(2).contains(mockTopLineCombination));
+    }
+
+    @Test
+    public void testDetermineWinners_split() {
+        when(mockFullHouseCombination.getClaimed()).thenReturn(false);
+        when(mockTopLineCombination.getClaimed()).thenReturn(true);
+        when(mockEarlyFiveCombination.getClaimed()).thenReturn(true);
+        when(mockFullHouseCombination.getTiePolicy()).thenReturn(TiePolicy.SPLIT);
+        when(mockFullHouseCombination.getTierCount()).thenReturn(1);
+        when(mockFullHouseCombination.isWinningTicket(any(Ticket.class))).thenReturn(true);
+
+        List<Player> players = new ArrayList<>();
+        players.add(new Player(1, mockTicket));
+        players.add(new Player(2, mockTicket));
+        ReflectionTestUtils.setField(housie, "players", players);
+        when(mockDealer.getPlayersMarkedByLastCall()).thenReturn(players);
+        when(mockDealer.getDrawCount()).thenReturn(40);
+
+        housie.determineWinners();
+
+        assertEquals(2, housie.getCurrentWinners().size());
+        assertEquals(2, housie.getClaims().size());
+        for (Claim claim : housie.getClaims()) {
+            assertEquals(1, claim.getTier());
+            assertEquals(2, claim.getShareCount());
+            assertEquals(0.5, claim.getPrizeShare(), 0.0);
+        }
+        Mockito.verify(mockFullHouseCombination).claimTier();
+    }
+
+    @Test
+    public void testPlayHeadless_multiTier() {
+        Housie multiTierHousie = new Housie();
+        multiTierHousie.setTiePolicy(FullHouseCombination.COMBINATION_NAME, TiePolicy.MULTI_TIER, 3);
+        multiTierHousie.setTiePolicy(EarlyFiveCombination.COMBINATION_NAME, TiePolicy.SPLIT, 1);
+        GameResult gameResult = multiTierHousie.playHeadless(new SimulationSettings(1, 90, 500, 3, 10, 5), new Random(3L));
+
+        int earlyFiveDraw = 0;
+        int earlyFiveShareCount = 0;
+        int earlyFiveClaimCount = 0;
+        int lastTier = 0;
+        Set<Integer> fullHouseWinners = new HashSet<>();
+        for (Claim claim : gameResult.getClaims()) {
+            if (claim.getCombinationName().equals(EarlyFiveCombination.COMBINATION_NAME)) {
+                // every player reaching 5 marks on the first draw anyone does shares the prize
+                earlyFiveDraw = earlyFiveDraw == 0 ? claim.getDrawCount() : earlyFiveDraw;
+                assertEquals(earlyFiveDraw, claim.getDrawCount());
+                earlyFiveShareCount = claim.getShareCount();
+                earlyFiveClaimCount++;
+            } else if (claim.getCombinationName().equals(FullHouseCombination.COMBINATION_NAME)) {
+                assertTrue(claim.getTier() == lastTier || claim.getTier() == lastTier + 1);
+                lastTier = claim.getTier();
+                assertTrue(fullHouseWinners.add(claim.getPlayerId()));
+            }
+        }
+        assertEquals(3, lastTier);
+        assertEquals(earlyFiveClaimCount, earlyFiveShareCount);
+    }
+
+    @Test
+    public void testPlayHeadless_multiTierEndsWhenTiesUseUpThePlayers() {
+        // every ticket holds every number, so both players win every combination on the last draw
+        Housie multiTierHousie = new Housie();
+        multiTierHousie.setTiePolicy(FullHouseCombination.COMBINATION_NAME, TiePolicy.MULTI_TIER, 2);
+        GameResult gameResult = multiTierHousie.playHeadless(new SimulationSettings(1, 5, 2, 1, 5, 5), new Random(3L));
+
+        assertEquals(5, gameResult.getDrawCount());
+        for (Claim claim : gameResult.getClaims()) {
+            if (claim.getCombinationName().equals(FullHouseCombination.COMBINATION_NAME)) {
+                assertEquals(1, claim.getTier());
+                assertEquals(2, claim.getShareCount());
+            }
+        }
+        assertTrue(multiTierHousie.isGameOver());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlayHeadless_moreTiersThanPlayers() {
+        Housie multiTierHousie = new Housie();
+        multiTierHousie.setTiePolicy(FullHouseCombination.COMBINATION_NAME, TiePolicy.MULTI_TIER, 3);
+        multiTierHousie.playHeadless(new SimulationSettings(1, 90, 2, 3, 10, 5), new Random(3L));
+    }
+
+    @Test
+    public void testPlayHeadless_resultKeptWhenPlayedAgain() {
+        Housie replayedHousie = new Housie();
+        GameResult firstGameResult = replayedHousie.playHeadless(new SimulationSettings(1, 90, 50, 3, 10, 5), new Random(3L));
+        List<Claim> firstClaims = new ArrayList<>(firstGameResult.getClaims());
+        assertFalse(firstClaims.isEmpty());
+
+        GameResult secondGameResult = replayedHousie.playHeadless(new SimulationSettings(1, 90, 50, 3, 10, 5), new Random(4L));
+
+        assertEquals(firstClaims, firstGameResult.getClaims());
+        assertFalse(secondGameResult.getClaims().isEmpty());
+    }
+
+    @Test
+    public void testPlay_twoSessionsOverSameInput() {
+        StringBuilder input = new StringBuilder();
+        for (int numberOfPlayers = 2; numberOfPlayers <= 3; numberOfPlayers++) {
+            input.append("1\n90\n").append(numberOfPlayers).append("\n3\n10\n5\n");
+            // every number may be called before the game is over, the rest is skipped as invalid settings
+            for (int i = 0; i < 90; i++) {
+                input.append("N\n");
+            }
+        }
+        InputStream systemIn = System.in;
+        System.setIn(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)));
+        try {
+            Housie playedHousie = new Housie(new Random(3L));
+            playedHousie.play();
+            assertEquals(2, playedHousie.getPlayerCount());
+
+            playedHousie.play();
+            assertEquals(3, playedHousie.getPlayerCount());
+            assertTrue(playedHousie.isGameOver());
+        } finally {
+            System.setIn(systemIn);
+        }
+    }
+
+    @Test
+    public void testHousie_claimArbiterSeededFromRandom() {
+        assertEquals(new Random(7L).nextLong(), new Housie(new Random(7L)).getClaimArbiter().getSeed());
     }
 
     @Test
@@ -152,6 +307,8 @@ public class HousieTest {
     @Test
     public void testCreateAndRegisterPlayersWithTicket() {
         SettingHandler mockSettingHandler = Mockito.mock(SettingHandler.class);
+        when(mockSettingHandler.getNumberRangeStart()).thenReturn(1);
+        when(mockSettingHandler.getNumberRangeEnd()).thenReturn(90);
         when(mockSettingHandler.getNumberOfRows()).thenReturn(3);
         when(mockSettingHandler.getNumberOfCols()).thenReturn(10);
         when(mockSettingHandler.getNumberOfPlayers()).thenReturn(5);
@@ -0,0 +1,50 @@
+package com.irliao.housie.bingo;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RandomBingoNumberProviderTest {
+
+    private final BingoNumberProvider bingoNumberProvider = new RandomBingoNumberProvider(11, 100, new Random(1L));
+
+    @Test
+    public void testCreateBingoNumbers() {
+        Deque<Integer> bingoNumbers = bingoNumberProvider.createBingoNumbers();
+
+        assertEquals(90, bingoNumbers.size());
+        assertEquals(90, new HashSet<>(bingoNumbers).size());
+        assertTrue(bingoNumbers.stream().allMatch(number -> number >= 11 && number <= 100));
+    }
+
+    @Test
+    public void testFillWithBingoNumbers() {
+        int[] ticketNumbers = new int[15];
+        for (int i = 0; i < 1000; i++) {
+            bingoNumberProvider.fillWithBingoNumbers(ticketNumbers);
+
+            assertEquals(15, Arrays.stream(ticketNumbers).distinct().count());
+            assertTrue(Arrays.stream(ticketNumbers).allMatch(number -> number >= 11 && number <= 100));
+        }
+    }
+
+    @Test
+    public void testFillWithBingoNumbers_everyNumberDrawn() {
+        // after enough partial shuffles every number of the range should have been drawn at least once
+        Set<Integer> drawnNumbers = new HashSet<>();
+        int[] ticketNumbers = new int[5];
+        for (int i = 0; i < 1000; i++) {
+            bingoNumberProvider.fillWithBingoNumbers(ticketNumbers);
+            Arrays.stream(ticketNumbers).forEach(drawnNumbers::add);
+        }
+
+        assertEquals(90, drawnNumbers.size());
+    }
+}
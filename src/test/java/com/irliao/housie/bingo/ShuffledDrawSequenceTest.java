@@ -0,0 +1,83 @@
+package com.irliao.housie.bingo;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShuffledDrawSequenceTest {
+
+    @Test
+    public void testNext_everyNumberDrawnOnce() {
+        DrawSequence drawSequence = new ShuffledDrawSequence(5, 94, new Random(3L));
+        Set<Integer> drawnNumbers = new HashSet<>();
+        while (drawSequence.hasNext()) {
+            int drawnNumber = drawSequence.next();
+            assertTrue(drawnNumber >= 5 && drawnNumber <= 94);
+            assertTrue(drawnNumbers.add(drawnNumber));
+        }
+
+        assertEquals(90, drawnNumbers.size());
+    }
+
+    @Test
+    public void testNext_largeRange() {
+        DrawSequence drawSequence = new ShuffledDrawSequence(1, 1_000_000, new Random(3L));
+        Set<Integer> drawnNumbers = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            drawnNumbers.add(drawSequence.next());
+        }
+
+        assertEquals(1000, drawnNumbers.size());
+        assertTrue(drawSequence.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNext_rangeExhausted() {
+        DrawSequence drawSequence = new ShuffledDrawSequence(1, 5, new Random(3L));
+        for (int i = 0; i < 5; i++) {
+            drawSequence.next();
+        }
+
+        assertFalse(drawSequence.hasNext());
+        drawSequence.next();
+    }
+
+    @Test
+    public void testRemove_largeRange() {
+        DrawSequence drawSequence = new ShuffledDrawSequence(1, 1_000_000, new Random(3L));
+        Set<Integer> drawnNumbers = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            drawnNumbers.add(drawSequence.next());
+        }
+
+        for (int number = 1_000_000; number >= 1; number--) {
+            assertEquals(!drawnNumbers.contains(number), drawSequence.remove(number));
+        }
+        assertFalse(drawSequence.hasNext());
+    }
+
+    @Test
+    public void testRemove() {
+        DrawSequence drawSequence = new ShuffledDrawSequence(1, 90, new Random(3L));
+        int drawnNumber = drawSequence.next();
+
+        assertTrue(drawSequence.remove(42 == drawnNumber ? 43 : 42));
+        assertFalse(drawSequence.remove(drawnNumber));
+        assertFalse(drawSequence.remove(91));
+
+        Set<Integer> drawnNumbers = new HashSet<>();
+        while (drawSequence.hasNext()) {
+            drawnNumbers.add(drawSequence.next());
+        }
+        assertEquals(88, drawnNumbers.size());
+        assertFalse(drawnNumbers.contains(drawnNumber));
+        assertFalse(drawnNumbers.contains(42 == drawnNumber ? 43 : 42));
+    }
+}
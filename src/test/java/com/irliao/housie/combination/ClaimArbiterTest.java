@@ -0,0 +1,50 @@
+package com.irliao.housie.combination;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClaimArbiterTest {
+
+    private final ClaimArbiter claimArbiter = new ClaimArbiter(42L);
+
+    @Test
+    public void testPickWinner_reproducible() {
+        int[] playerIds = {3, 17, 25, 40};
+        int[] reversedPlayerIds = {40, 25, 17, 3};
+        ClaimArbiter sameSeedClaimArbiter = new ClaimArbiter(42L);
+
+        for (int drawCount = 1; drawCount <= 90; drawCount++) {
+            int winnerId = claimArbiter.pickWinner(drawCount, playerIds, 4);
+            assertEquals(winnerId, sameSeedClaimArbiter.pickWinner(drawCount, playerIds, 4));
+            assertEquals(winnerId, claimArbiter.pickWinner(drawCount, reversedPlayerIds, 4));
+            for (int playerId : playerIds) {
+                assertTrue(claimArbiter.getDrawScore(drawCount, winnerId) <= claimArbiter.getDrawScore(drawCount, playerId));
+            }
+        }
+    }
+
+    @Test
+    public void testPickWinner_onlyFirstWinnerCount() {
+        int[] playerIds = {8, 9, 10};
+        assertEquals(8, claimArbiter.pickWinner(5, playerIds, 1));
+    }
+
+    @Test
+    public void testPickWinner_fair() {
+        int[] playerIds = {1, 2, 3};
+        int[] winCounts = new int[4];
+        for (int drawCount = 1; drawCount <= 30000; drawCount++) {
+            winCounts[claimArbiter.pickWinner(drawCount, playerIds, 3)]++;
+        }
+        for (int playerId : playerIds) {
+            assertTrue(Math.abs(winCounts[playerId] - 10000) < 500);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPickWinner_noWinner() {
+        claimArbiter.pickWinner(1, new int[0], 0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.irliao.housie.combination;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.Housie;
+import com.irliao.housie.simulation.SimulationSettings;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CombinationRegistryTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 50, 3, 9, 5);
+
+    @Test
+    public void testCreateCombinations() {
+        CombinationRegistry combinationRegistry = CombinationRegistry.withPatterns();
+        List<String> names = Arrays.asList(EarlyFiveCombination.COMBINATION_NAME, FullHouseCombination.COMBINATION_NAME,
+            TopLineCombination.COMBINATION_NAME, CombinationRegistry.MIDDLE_LINE, CombinationRegistry.BOTTOM_LINE,
+            CombinationRegistry.FOUR_CORNERS, CombinationRegistry.PYRAMID);
+
+        List<AbstractCombination> combinations = combinationRegistry.createCombinations(simulationSettings);
+
+        assertEquals(names, combinations.stream().map(AbstractCombination::getName).collect(Collectors.toList()));
+        assertEquals(names, combinationRegistry.getNames().stream().collect(Collectors.toList()));
+        combinations.forEach(combination -> assertFalse(combination.getClaimed()));
+        assertFalse(combinations.get(0) == combinationRegistry.createCombinations(simulationSettings).get(0));
+    }
+
+    @Test
+    public void testPlayHeadless_withPatterns() {
+        Housie housie = new Housie();
+        housie.setCombinationRegistry(CombinationRegistry.withPatterns());
+        GameResult gameResult = housie.playHeadless(simulationSettings, new Random(9L));
+
+        Set<String> claimedNames = gameResult.getClaims().stream().map(Claim::getCombinationName).collect(Collectors.toSet());
+        assertEquals(new HashSet<>(CombinationRegistry.withPatterns().getNames()), claimedNames);
+    }
+
+    @Test
+    public void testUnregister() {
+        CombinationRegistry combinationRegistry = CombinationRegistry.standard();
+        combinationRegistry.unregister(EarlyFiveCombination.COMBINATION_NAME);
+
+        Housie housie = new Housie();
+        housie.setCombinationRegistry(combinationRegistry);
+        GameResult gameResult = housie.playHeadless(simulationSettings, new Random(9L));
+
+        assertEquals(2, gameResult.getClaims().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegister_duplicate() {
+        CombinationRegistry.standard().registerPattern(TopLineCombination.COMBINATION_NAME, gameSettings -> TicketPattern.rows(3, 9, 0));
+    }
+}
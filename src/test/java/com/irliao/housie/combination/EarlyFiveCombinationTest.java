@@ -1,63 +1,56 @@
 package com.irliao.housie.combination;
 
 import com.irliao.housie.ticket.Ticket;
-import com.irliao.housie.ticket.TicketSlot;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Mockito;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Deque;
+import java.util.LinkedList;
 import java.util.stream.IntStream;
 
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
-import static org.mockito.Mockito.when;
 
 public class EarlyFiveCombinationTest {
 
     private final AbstractCombination earlyFiveCombination = new EarlyFiveCombination();
-    private final Ticket mockTicket = Mockito.mock(Ticket.class);
-    private final List<List<TicketSlot>> slots = new ArrayList<>();
+    private Ticket ticket;
 
     @Before
     public void setup() {
-        // initialize ticket with empty slots
-        slots.clear();
-        List<TicketSlot> row1 = new ArrayList<>(Collections.nCopies(15, null));
-        List<TicketSlot> row2 = new ArrayList<>(Collections.nCopies(15, null));
-        // add slots with numbers
-        IntStream.range(0, 10).forEach(i -> {
-            row1.set(i, new TicketSlot(i));
-            row2.set(i, new TicketSlot(i));
-        });
-
-        slots.add(row1);
-        slots.add(row2);
-
-        when(mockTicket.getSlots()).thenReturn(slots);
+        // initialize 2 x 15 ticket, numbers 1 - 10 on first row and 11 - 20 on second row
+        Deque<Integer> bingoNumbers = new LinkedList<>();
+        IntStream.rangeClosed(1, 20).forEach(bingoNumbers::add);
+        ticket = new Ticket(2, 15, bingoNumbers, 10);
     }
 
     @Test
     public void testIsWinningTicket_false() {
         // set only 4 slots to marked
         IntStream.range(0, 2).forEach(i -> {
-            slots.get(0).get(i).setMarked(true);
-            slots.get(1).get(i).setMarked(true);
+            ticket.markNumberIfFound(1 + i);
+            ticket.markNumberIfFound(11 + i);
         });
 
-        assertFalse(earlyFiveCombination.isWinningTicket(mockTicket));
+        assertFalse(earlyFiveCombination.isWinningTicket(ticket));
+    }
+
+    @Test
+    public void testIsWinningTicket_false_sameNumberMarkedTwice() {
+        IntStream.rangeClosed(1, 4).forEach(ticket::markNumberIfFound);
+        ticket.markNumberIfFound(1);
+
+        assertFalse(earlyFiveCombination.isWinningTicket(ticket));
     }
 
     @Test
     public void testIsWinningTicket_true() {
         // set 6 slots to be marked
         IntStream.range(0, 3).forEach(i -> {
-            slots.get(0).get(i).setMarked(true);
-            slots.get(1).get(i).setMarked(true);
+            ticket.markNumberIfFound(1 + i);
+            ticket.markNumberIfFound(11 + i);
         });
 
-        assertTrue(earlyFiveCombination.isWinningTicket(mockTicket));
+        assertTrue(earlyFiveCombination.isWinningTicket(ticket));
     }
 }
@@ -0,0 +1,119 @@
+package com.irliao.housie.combination;
+
+import com.irliao.housie.ticket.Ticket;
+import com.irliao.housie.ticket.TicketStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternCombinationTest {
+
+    private Ticket ticket;
+    private int[][] rowNumbers;
+
+    @Before
+    public void setup() {
+        // initialize 3 x 9 ticket with 5 numbers per row, numbers 1 - 15 on random slots
+        ticket = new Ticket(3, 9, IntStream.rangeClosed(1, 15).toArray(), 5, new Random(1L));
+        rowNumbers = new int[3][5];
+        for (int row = 0; row < 3; row++) {
+            int ordinal = 0;
+            for (int col = 0; col < 9; col++) {
+                int number = ticket.getNumber(row * 9 + col);
+                if (number != TicketStore.EMPTY_SLOT) {
+                    rowNumbers[row][ordinal++] = number;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetFilledWord() {
+        for (int row = 0; row < 3; row++) {
+            long filled = 0L;
+            for (int col = 0; col < 9; col++) {
+                if (ticket.getNumber(row * 9 + col) != TicketStore.EMPTY_SLOT) {
+                    filled |= 1L << col;
+                }
+            }
+            assertEquals(filled, ticket.getFilledWord(row));
+        }
+    }
+
+    @Test
+    public void testIsWinningTicket_middleLine() {
+        AbstractCombination middleLine = new PatternCombination(CombinationRegistry.MIDDLE_LINE, TicketPattern.rows(3, 9, 1));
+        markNumbers(rowNumbers[1][0], rowNumbers[1][1], rowNumbers[1][2], rowNumbers[1][3]);
+        markNumbers(rowNumbers[0]);
+        assertFalse(middleLine.isWinningTicket(ticket));
+
+        markNumbers(rowNumbers[1][4]);
+        assertTrue(middleLine.isWinningTicket(ticket));
+    }
+
+    @Test
+    public void testIsWinningTicket_fourCorners() {
+        AbstractCombination fourCorners = new PatternCombination(CombinationRegistry.FOUR_CORNERS, TicketPattern.fourCorners(3, 9));
+        markNumbers(rowNumbers[0][0], rowNumbers[0][4], rowNumbers[2][0], rowNumbers[1][4], rowNumbers[2][3]);
+        assertFalse(fourCorners.isWinningTicket(ticket));
+
+        markNumbers(rowNumbers[2][4]);
+        assertTrue(fourCorners.isWinningTicket(ticket));
+    }
+
+    @Test
+    public void testIsWinningTicket_pyramid() {
+        AbstractCombination pyramid = new PatternCombination(CombinationRegistry.PYRAMID, TicketPattern.pyramid(3, 9, 5));
+        markNumbers(rowNumbers[0][2], rowNumbers[1][1], rowNumbers[1][2], rowNumbers[1][3]);
+        markNumbers(rowNumbers[2][0], rowNumbers[2][1], rowNumbers[2][2], rowNumbers[2][3]);
+        markNumbers(rowNumbers[0][0], rowNumbers[1][0]);
+        assertFalse(pyramid.isWinningTicket(ticket));
+
+        markNumbers(rowNumbers[2][4]);
+        assertTrue(pyramid.isWinningTicket(ticket));
+    }
+
+    @Test
+    public void testIsWinningTicket_cellsOnlyNeedTheirNumbersMarked() {
+        int emptyCol = 0;
+        while (ticket.getNumber(emptyCol) != TicketStore.EMPTY_SLOT) {
+            emptyCol++;
+        }
+        int filledCol = 0;
+        while (ticket.getNumber(filledCol) == TicketStore.EMPTY_SLOT) {
+            filledCol++;
+        }
+        AbstractCombination emptyCell = new PatternCombination("Empty Cell", TicketPattern.cells(3, 9, new int[]{0, emptyCol}));
+        AbstractCombination cells = new PatternCombination("Cells", TicketPattern.cells(3, 9, new int[]{0, emptyCol}, new int[]{0, filledCol}));
+        int filledNumber = ticket.getNumber(filledCol);
+        IntStream.rangeClosed(1, 15).filter(number -> number != filledNumber).forEach(ticket::markNumberIfFound);
+        assertFalse(emptyCell.isWinningTicket(ticket));
+        assertFalse(cells.isWinningTicket(ticket));
+
+        markNumbers(filledNumber);
+        assertFalse(emptyCell.isWinningTicket(ticket));
+        assertTrue(cells.isWinningTicket(ticket));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCells_outsideOfTicket() {
+        TicketPattern.cells(3, 9, new int[]{3, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIsWinningTicket_otherShape() {
+        new PatternCombination(CombinationRegistry.BOTTOM_LINE, TicketPattern.rows(3, 10, 2)).isWinningTicket(ticket);
+    }
+
+    private void markNumbers(int... numbers) {
+        for (int number : numbers) {
+            assertTrue(ticket.markNumberIfFound(number));
+        }
+    }
+}
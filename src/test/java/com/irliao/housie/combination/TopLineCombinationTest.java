@@ -1,66 +1,51 @@
 package com.irliao.housie.combination;
 
 import com.irliao.housie.ticket.Ticket;
-import com.irliao.housie.ticket.TicketSlot;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Mockito;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Deque;
+import java.util.LinkedList;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Mockito.when;
 
 public class TopLineCombinationTest {
 
     private final AbstractCombination topLineCombination = new TopLineCombination();
-    private final Ticket mockTicket = Mockito.mock(Ticket.class);
-    private final List<List<TicketSlot>> slots = new ArrayList<>();
+    private Ticket ticket;
 
     @Before
     public void setup() {
-        // initialize ticket
-        slots.clear();
-        List<TicketSlot> row1 = new ArrayList<>(Collections.nCopies(15, null));
-        List<TicketSlot> row2 = new ArrayList<>(Collections.nCopies(15, null));
-        // add slots with numbers
-        IntStream.range(0, 10).forEach(i -> {
-            row1.set(i, new TicketSlot(i));
-            row2.set(i, new TicketSlot(i));
-        });
-
-        slots.add(row1);
-        slots.add(row2);
-
-        when(mockTicket.getSlots()).thenReturn(slots);
+        // initialize 2 x 15 ticket, numbers 1 - 10 on first row and 11 - 20 on second row
+        Deque<Integer> bingoNumbers = new LinkedList<>();
+        IntStream.rangeClosed(1, 20).forEach(bingoNumbers::add);
+        ticket = new Ticket(2, 15, bingoNumbers, 10);
     }
 
     @Test
     public void testIsWinningTicket_false_secondLineMarked() {
-        IntStream.range(0, 10).forEach(i -> slots.get(1).get(i).setMarked(true));
+        IntStream.range(0, 10).forEach(i -> ticket.markNumberIfFound(11 + i));
 
-        assertFalse(topLineCombination.isWinningTicket(mockTicket));
+        assertFalse(topLineCombination.isWinningTicket(ticket));
     }
 
     @Test
     public void testIsWinningTicket_false_topLineMissing1() {
         IntStream.range(0, 9).forEach(i -> {
-            slots.get(1).get(i).setMarked(true);
-            slots.get(0).get(i).setMarked(true);
+            ticket.markNumberIfFound(11 + i);
+            ticket.markNumberIfFound(1 + i);
         });
 
-        assertFalse(topLineCombination.isWinningTicket(mockTicket));
+        assertFalse(topLineCombination.isWinningTicket(ticket));
     }
 
     @Test
     public void testIsWinningTicket_true() {
         // set all slots to marked
-        IntStream.range(0, 10).forEach(i -> slots.get(0).get(i).setMarked(true));
+        IntStream.rangeClosed(1, 10).forEach(ticket::markNumberIfFound);
 
-        assertTrue(topLineCombination.isWinningTicket(mockTicket));
+        assertTrue(topLineCombination.isWinningTicket(ticket));
     }
 }
@@ -0,0 +1,74 @@
+package com.irliao.housie.export;
+
+import com.irliao.housie.Housie;
+import com.irliao.housie.combination.Claim;
+import com.irliao.housie.render.GameRenderer;
+import com.irliao.housie.simulation.SimulationSettings;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ResultExporterTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 200, 3, 10, 5);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testExportClaim() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ResultExporter resultExporter = new ResultExporter(new GameRenderer(Channels.newChannel(outputStream)))) {
+            resultExporter.exportClaim(new Claim("Top Line", 3, 12, 45));
+            resultExporter.exportClaim(new Claim("Lines, \"Two\"", 17, 40, 9, 2, 3));
+            assertEquals(2, resultExporter.getExportedClaimCount());
+        }
+
+        assertEquals(ResultExporter.HEADER + "\n" +
+                     "12,45,3,Top Line,1,1\n" +
+                     "40,9,17,\"Lines, \"\"Two\"\"\",2,3\n",
+                     new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAttachResultExporter_exportsClaimsAsWon() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("results.csv");
+        Housie housie = new Housie();
+        housie.setUpHeadless(simulationSettings, new Random(5L));
+        try (ResultExporter resultExporter = ResultExporter.toFile(file)) {
+            housie.attachResultExporter(resultExporter);
+            int claimCount = 0;
+            while (housie.getGameResult().getClaims().size() < 3) {
+                housie.callNextNumber();
+                // every claim is in the file by the end of the call that won it
+                if (housie.getGameResult().getClaims().size() > claimCount) {
+                    claimCount = housie.getGameResult().getClaims().size();
+                    assertEquals(claimCount + 1, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+                }
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<Claim> claims = housie.getGameResult().getClaims();
+        assertEquals(ResultExporter.HEADER, lines.get(0));
+        assertEquals(claims.size() + 1, lines.size());
+        for (int i = 0; i < claims.size(); i++) {
+            Claim claim = claims.get(i);
+            assertEquals(claim.getDrawCount() + "," + claim.getCalledNumber() + "," + claim.getPlayerId() + "," +
+                         claim.getCombinationName() + "," + claim.getTier() + "," + claim.getShareCount(), lines.get(i + 1));
+        }
+        assertTrue(claims.size() >= 3);
+    }
+}
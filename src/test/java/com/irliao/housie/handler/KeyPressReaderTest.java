@@ -0,0 +1,69 @@
+package com.irliao.housie.handler;
+
+import com.irliao.housie.command.Command;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class KeyPressReaderTest {
+
+    private final Command mockCallCommand = Mockito.mock(Command.class);
+    private final Command mockQuitCommand = Mockito.mock(Command.class);
+    private final KeyPressHandler keyPressHandler = new KeyPressHandler();
+
+    @Test
+    public void testNextKeyPress() throws InterruptedException {
+        keyPressHandler.registerCommand("N", mockCallCommand);
+        keyPressHandler.registerImmediateCommand("Q", mockQuitCommand);
+        try (KeyPressReader keyPressReader = new KeyPressReader(new Scanner("n\nq\n\nN\n"), keyPressHandler, 2)) {
+            keyPressReader.start();
+            assertEquals("n", keyPressReader.nextKeyPress());
+            assertEquals("", keyPressReader.nextKeyPress());
+            assertEquals("N", keyPressReader.nextKeyPress());
+            assertEndOfInput(keyPressReader);
+            assertEndOfInput(keyPressReader);
+        }
+
+        // the immediate command was run by the reader, the others are left to the game loop
+        verify(mockQuitCommand, times(1)).execute();
+        verify(mockCallCommand, never()).execute();
+    }
+
+    @Test
+    public void testRunCommand_immediateCommand() {
+        keyPressHandler.registerImmediateCommand("Q", mockQuitCommand);
+        keyPressHandler.runCommand("q");
+        verify(mockQuitCommand, times(1)).execute();
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        KeyPressReader keyPressReader = new KeyPressReader(new Scanner("n\nn\nn\nn\n"), keyPressHandler, 1);
+        keyPressReader.start();
+        assertEquals("n", keyPressReader.nextKeyPress());
+        keyPressReader.close();
+        assertEndOfInput(keyPressReader);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyPressReader_invalidCapacity() {
+        new KeyPressReader(new Scanner(""), keyPressHandler, 0);
+    }
+
+    private static void assertEndOfInput(KeyPressReader keyPressReader) throws InterruptedException {
+        try {
+            keyPressReader.nextKeyPress();
+            fail("Expected the input to have ended");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+}
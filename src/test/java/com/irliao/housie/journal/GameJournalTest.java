@@ -0,0 +1,292 @@
+package com.irliao.housie.journal;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.Housie;
+import com.irliao.housie.combination.Claim;
+import com.irliao.housie.combination.EarlyFiveCombination;
+import com.irliao.housie.combination.FullHouseCombination;
+import com.irliao.housie.combination.TiePolicy;
+import com.irliao.housie.simulation.SimulationSettings;
+import com.irliao.housie.ticket.TicketFactory;
+import com.irliao.housie.ticket.TicketStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GameJournalTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 200, 3, 10, 5);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAppendAndRecover() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            assertEquals(0, gameJournal.getRecoveredContents().getDrawCount());
+            gameJournal.appendDraw(1, 42);
+            gameJournal.appendDraw(2, 7);
+            gameJournal.appendClaim(new Claim("Top Line", 3, 2, 7));
+            gameJournal.sync();
+            gameJournal.appendDraw(3, 90);
+            gameJournal.appendClaim(new Claim("Full House", 5, 3, 90, 2, 3));
+        }
+
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            JournalContents journalContents = gameJournal.getRecoveredContents();
+            assertArrayEquals(new int[]{42, 7, 90}, journalContents.getCalledNumbers());
+            assertEquals(2, journalContents.getClaims().size());
+            Claim claim = journalContents.getClaims().get(0);
+            assertEquals("Top Line", claim.getCombinationName());
+            assertEquals(3, claim.getPlayerId());
+            assertEquals(2, claim.getDrawCount());
+            assertEquals(7, claim.getCalledNumber());
+            assertEquals(1, claim.getTier());
+            assertEquals(1, claim.getShareCount());
+            Claim tierClaim = journalContents.getClaims().get(1);
+            assertEquals("Full House", tierClaim.getCombinationName());
+            assertEquals(5, tierClaim.getPlayerId());
+            assertEquals(3, tierClaim.getDrawCount());
+            assertEquals(90, tierClaim.getCalledNumber());
+            assertEquals(2, tierClaim.getTier());
+            assertEquals(3, tierClaim.getShareCount());
+        }
+    }
+
+    @Test
+    public void testOpen_tornRecordDropped() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            gameJournal.appendDraw(1, 42);
+            gameJournal.appendDraw(2, 7);
+        }
+        long completeSize = Files.size(file);
+        Files.write(file, new byte[]{GameJournal.DRAW_RECORD, 8, 0, 0, 0, 3}, StandardOpenOption.APPEND);
+
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            assertArrayEquals(new int[]{42, 7}, gameJournal.getRecoveredContents().getCalledNumbers());
+            assertEquals(completeSize, Files.size(file));
+            gameJournal.appendDraw(3, 11);
+        }
+
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            assertArrayEquals(new int[]{42, 7, 11}, gameJournal.getRecoveredContents().getCalledNumbers());
+        }
+    }
+
+    @Test
+    public void testAppendCall_tornCallDroppedWithItsClaims() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            gameJournal.appendCall(1, 42, Collections.emptyList());
+        }
+        long firstCallSize = Files.size(file);
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            gameJournal.appendCall(2, 7, Arrays.asList(new Claim("Top Line", 3, 2, 7), new Claim("Early Five", 5, 2, 7, 1, 2)));
+        }
+        byte[] contents = Files.readAllBytes(file);
+
+        // a stop at any point of the second call recovers the draw with both claims, or neither
+        for (long size = firstCallSize; size <= contents.length; size++) {
+            ByteBuffer data = ByteBuffer.wrap(Arrays.copyOf(contents, (int) size)).order(ByteOrder.LITTLE_ENDIAN);
+            JournalContents journalContents = GameJournal.readRecords(data, file);
+            if (size < contents.length) {
+                assertArrayEquals(new int[]{42}, journalContents.getCalledNumbers());
+                assertTrue(journalContents.getClaims().isEmpty());
+            } else {
+                assertArrayEquals(new int[]{42, 7}, journalContents.getCalledNumbers());
+                assertEquals(2, journalContents.getClaims().size());
+                Claim claim = journalContents.getClaims().get(1);
+                assertEquals("Early Five", claim.getCombinationName());
+                assertEquals(5, claim.getPlayerId());
+                assertEquals(2, claim.getDrawCount());
+                assertEquals(7, claim.getCalledNumber());
+                assertEquals(2, claim.getShareCount());
+            }
+        }
+    }
+
+    @Test
+    public void testAppendCall_flushedWhileAppending() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            Thread appender = new Thread(() -> {
+                for (int drawCount = 1; drawCount <= 2000; drawCount++) {
+                    gameJournal.appendCall(drawCount, drawCount, Collections.singletonList(new Claim("Top Line", drawCount, drawCount, drawCount)));
+                }
+            });
+            appender.start();
+
+            // the flusher commits whatever is appended whenever it wakes up, and never a draw without its claim
+            while (appender.isAlive()) {
+                gameJournal.sync();
+                ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+                JournalContents journalContents = GameJournal.readRecords(data, file);
+                assertEquals(journalContents.getDrawCount(), journalContents.getClaims().size());
+            }
+            appender.join();
+        }
+
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            assertEquals(2000, gameJournal.getRecoveredContents().getDrawCount());
+            assertEquals(2000, gameJournal.getRecoveredContents().getClaims().size());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpen_notAJournal() throws IOException {
+        Path file = temporaryFolder.newFile("game.journal").toPath();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        GameJournal.open(file);
+    }
+
+    @Test
+    public void testAttachJournal_restoresGame() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        Housie housie = new Housie();
+        housie.setUpHeadless(simulationSettings, new Random(5L));
+        Set<Integer> calledNumbers = new HashSet<>();
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            housie.attachJournal(gameJournal);
+            for (int i = 0; i < 40; i++) {
+                calledNumbers.add(housie.callNextNumber());
+            }
+        }
+        GameResult gameResult = housie.getGameResult();
+        TicketStore ticketStore = housie.getTicketStore();
+
+        // same seed deals the same tickets, the journal brings back the draws and claims
+        Housie restoredHousie = new Housie();
+        restoredHousie.setUpHeadless(simulationSettings, new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            restoredHousie.attachJournal(gameJournal);
+
+            GameResult restoredGameResult = restoredHousie.getGameResult();
+            TicketStore restoredTicketStore = restoredHousie.getTicketStore();
+            assertEquals(40, restoredGameResult.getDrawCount());
+            assertClaimsEqual(gameResult.getClaims(), restoredGameResult.getClaims());
+            for (int ticketId = 0; ticketId < ticketStore.getTicketCount(); ticketId++) {
+                assertEquals(ticketStore.getMarkedCount(ticketId), restoredTicketStore.getMarkedCount(ticketId));
+                for (int slot = 0; slot < ticketStore.getSlotsPerTicket(); slot++) {
+                    assertEquals(ticketStore.isMarked(ticketId, slot), restoredTicketStore.isMarked(ticketId, slot));
+                }
+            }
+
+            for (int i = 0; i < 10; i++) {
+                assertFalse(calledNumbers.contains(restoredHousie.callNextNumber()));
+            }
+        }
+
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            assertEquals(50, gameJournal.getRecoveredContents().getDrawCount());
+        }
+    }
+
+    @Test
+    public void testAttachJournal_restoresSharedClaims() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        Housie housie = new Housie();
+        housie.setTiePolicy(EarlyFiveCombination.COMBINATION_NAME, TiePolicy.SPLIT, 1);
+        housie.setTiePolicy(FullHouseCombination.COMBINATION_NAME, TiePolicy.MULTI_TIER, 2);
+        housie.setUpHeadless(simulationSettings, new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            housie.attachJournal(gameJournal);
+            while (housie.getGameResult().getDrawCount() < 90) {
+                housie.callNextNumber();
+            }
+        }
+
+        Housie restoredHousie = new Housie();
+        restoredHousie.setTiePolicy(EarlyFiveCombination.COMBINATION_NAME, TiePolicy.SPLIT, 1);
+        restoredHousie.setTiePolicy(FullHouseCombination.COMBINATION_NAME, TiePolicy.MULTI_TIER, 2);
+        restoredHousie.setUpHeadless(simulationSettings, new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            restoredHousie.attachJournal(gameJournal);
+            assertClaimsEqual(housie.getGameResult().getClaims(), restoredHousie.getGameResult().getClaims());
+            for (int i = 0; i < housie.getGameResult().getClaims().size(); i++) {
+                assertEquals(housie.getGameResult().getClaims().get(i).getTier(), restoredHousie.getGameResult().getClaims().get(i).getTier());
+                assertEquals(housie.getGameResult().getClaims().get(i).getShareCount(), restoredHousie.getGameResult().getClaims().get(i).getShareCount());
+            }
+        }
+    }
+
+    @Test
+    public void testAttachJournal_emptyJournalClearsMarks() throws IOException {
+        TicketStore ticketStore = new TicketFactory(simulationSettings).createTickets(200, new Random(5L));
+        int[] markedTicketIds = new int[200];
+        for (int number = 1; number <= 30; number++) {
+            ticketStore.markNumberOnAllTickets(number, markedTicketIds);
+        }
+
+        Housie housie = new Housie();
+        housie.setUpHeadless(simulationSettings, ticketStore, new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(temporaryFolder.getRoot().toPath().resolve("game.journal"))) {
+            housie.attachJournal(gameJournal);
+        }
+
+        for (int ticketId = 0; ticketId < 200; ticketId++) {
+            assertEquals(0, ticketStore.getMarkedCount(ticketId));
+            for (int row = 0; row < ticketStore.getRowSize(); row++) {
+                assertEquals(0, ticketStore.getRowMarkedCount(ticketId, row));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAttachJournal_otherGame() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        Housie housie = new Housie();
+        housie.setUpHeadless(simulationSettings, new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            housie.attachJournal(gameJournal);
+            housie.callNextNumber();
+        }
+
+        Housie otherHousie = new Housie();
+        otherHousie.setUpHeadless(new SimulationSettings(1, 90, 100, 3, 10, 5), new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(file)) {
+            assertEquals(new GameFingerprint(200, 3, 10, 5, 1, 90), gameJournal.getRecoveredContents().getGameFingerprint());
+            otherHousie.attachJournal(gameJournal);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAttachJournal_afterFirstCall() throws IOException {
+        Housie housie = new Housie();
+        housie.setUpHeadless(simulationSettings, new Random(5L));
+        housie.callNextNumber();
+        try (GameJournal gameJournal = GameJournal.open(temporaryFolder.getRoot().toPath().resolve("game.journal"))) {
+            housie.attachJournal(gameJournal);
+        }
+    }
+
+    private static void assertClaimsEqual(List<Claim> expectedClaims, List<Claim> claims) {
+        assertEquals(expectedClaims.size(), claims.size());
+        for (int i = 0; i < claims.size(); i++) {
+            assertEquals(expectedClaims.get(i).getCombinationName(), claims.get(i).getCombinationName());
+            assertEquals(expectedClaims.get(i).getPlayerId(), claims.get(i).getPlayerId());
+            assertEquals(expectedClaims.get(i).getDrawCount(), claims.get(i).getDrawCount());
+            assertEquals(expectedClaims.get(i).getCalledNumber(), claims.get(i).getCalledNumber());
+        }
+        assertTrue(claims.size() > 0);
+    }
+}
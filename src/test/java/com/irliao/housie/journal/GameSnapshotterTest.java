@@ -0,0 +1,164 @@
+package com.irliao.housie.journal;
+
+import com.irliao.housie.Housie;
+import com.irliao.housie.simulation.SimulationSettings;
+import com.irliao.housie.ticket.TicketFactory;
+import com.irliao.housie.ticket.TicketStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameSnapshotterTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 200, 3, 10, 5);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRestore() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.snapshot");
+        TicketStore ticketStore = createMarkedTicketStore();
+        writeSnapshot(file, ticketStore, 30);
+
+        TicketStore restoredTicketStore = new TicketFactory(simulationSettings).createTickets(200, new Random(5L));
+        assertEquals(30, GameSnapshot.restore(file, restoredTicketStore, 30));
+        assertMarksEqual(ticketStore, restoredTicketStore);
+    }
+
+    @Test
+    public void testRestore_corruptedSnapshotIgnored() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.snapshot");
+        writeSnapshot(file, createMarkedTicketStore(), 30);
+        byte[] snapshot = Files.readAllBytes(file);
+        snapshot[GameSnapshot.HEADER_SIZE + 100] ^= 1;
+        Files.write(file, snapshot);
+
+        TicketStore restoredTicketStore = new TicketFactory(simulationSettings).createTickets(200, new Random(5L));
+        assertEquals(0, GameSnapshot.restore(file, restoredTicketStore, 30));
+        for (int ticketId = 0; ticketId < 200; ticketId++) {
+            assertEquals(0, restoredTicketStore.getMarkedCount(ticketId));
+        }
+    }
+
+    @Test
+    public void testRestore_snapshotAheadOfJournalIgnored() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.snapshot");
+        writeSnapshot(file, createMarkedTicketStore(), 30);
+
+        TicketStore restoredTicketStore = new TicketFactory(simulationSettings).createTickets(200, new Random(5L));
+        assertEquals(0, GameSnapshot.restore(file, restoredTicketStore, 29));
+    }
+
+    @Test
+    public void testAttachJournal_restoresFromSnapshot() throws IOException {
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("game.snapshot");
+        Housie housie = new Housie();
+        housie.setUpHeadless(simulationSettings, new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(journalFile);
+             GameSnapshotter gameSnapshotter = new GameSnapshotter(snapshotFile, 10)) {
+            housie.attachJournal(gameJournal, gameSnapshotter);
+            for (int i = 0; i < 45; i++) {
+                housie.callNextNumber();
+            }
+        }
+
+        Housie restoredHousie = new Housie();
+        restoredHousie.setUpHeadless(simulationSettings, new Random(5L));
+        try (GameJournal gameJournal = GameJournal.open(journalFile);
+             GameSnapshotter gameSnapshotter = new GameSnapshotter(snapshotFile, 10)) {
+            restoredHousie.attachJournal(gameJournal, gameSnapshotter);
+
+            int snapshotDrawCount = gameSnapshotter.getLastSnapshotDrawCount();
+            assertTrue(snapshotDrawCount > 0 && snapshotDrawCount <= 40 && snapshotDrawCount % 10 == 0);
+            assertEquals(45, restoredHousie.getGameResult().getDrawCount());
+            assertEquals(housie.getGameResult().getClaims().size(), restoredHousie.getGameResult().getClaims().size());
+            assertMarksEqual(housie.getTicketStore(), restoredHousie.getTicketStore());
+        }
+    }
+
+    @Test
+    public void testRestore_laterMarksReplayed() throws IOException {
+        // snapshot started after draw 30 while numbers 31 - 35 were being marked
+        Path file = temporaryFolder.getRoot().toPath().resolve("game.snapshot");
+        TicketStore ticketStore = createMarkedTicketStore();
+        int[] markedTicketIds = new int[200];
+        GameSnapshot.write(file, ticketStore, 30, () -> {
+            for (int number = 31; number <= 35; number++) {
+                ticketStore.markNumberOnAllTickets(number, markedTicketIds);
+            }
+            return 35;
+        });
+
+        TicketStore restoredTicketStore = new TicketFactory(simulationSettings).createTickets(200, new Random(5L));
+        assertEquals(0, GameSnapshot.restore(file, restoredTicketStore, 34));
+        for (int ticketId = 0; ticketId < 200; ticketId++) {
+            assertEquals(0, restoredTicketStore.getMarkedCount(ticketId));
+        }
+
+        assertEquals(30, GameSnapshot.restore(file, restoredTicketStore, 35));
+        assertMarksEqual(createMarkedTicketStore(), restoredTicketStore);
+    }
+
+    @Test
+    public void testDrawCalled_snapshotTakenInBackground() throws IOException {
+        Path journalFile = temporaryFolder.getRoot().toPath().resolve("game.journal");
+        Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("game.snapshot");
+        TicketStore ticketStore = createMarkedTicketStore();
+        int[] markedTicketIds = new int[200];
+        try (GameJournal gameJournal = GameJournal.open(journalFile);
+             GameSnapshotter gameSnapshotter = new GameSnapshotter(snapshotFile, 10)) {
+            gameSnapshotter.drawCalled(30, ticketStore, gameJournal, () -> 90);
+            for (int number = 31; number <= 90; number++) {
+                ticketStore.markNumberOnAllTickets(number, markedTicketIds);
+            }
+        }
+
+        // the snapshot may hold any of the later marks, so it is only restored over a journal of every draw
+        TicketStore restoredTicketStore = new TicketFactory(simulationSettings).createTickets(200, new Random(5L));
+        assertEquals(0, GameSnapshot.restore(snapshotFile, restoredTicketStore, 89));
+        assertEquals(30, GameSnapshot.restore(snapshotFile, restoredTicketStore, 90));
+        for (int ticketId = 0; ticketId < 200; ticketId++) {
+            for (int slot = 0; slot < restoredTicketStore.getSlotsPerTicket(); slot++) {
+                int number = restoredTicketStore.getNumber(ticketId, slot);
+                if (number != TicketStore.EMPTY_SLOT && number <= 30) {
+                    assertTrue(restoredTicketStore.isMarked(ticketId, slot));
+                }
+            }
+        }
+    }
+
+    private static void writeSnapshot(Path file, TicketStore ticketStore, int drawCount) throws IOException {
+        GameSnapshot.write(file, ticketStore, drawCount, () -> drawCount);
+    }
+
+    private TicketStore createMarkedTicketStore() {
+        TicketStore ticketStore = new TicketFactory(simulationSettings).createTickets(200, new Random(5L));
+        int[] markedTicketIds = new int[200];
+        for (int number = 1; number <= 30; number++) {
+            ticketStore.markNumberOnAllTickets(number, markedTicketIds);
+        }
+        return ticketStore;
+    }
+
+    private static void assertMarksEqual(TicketStore expectedTicketStore, TicketStore ticketStore) {
+        for (int ticketId = 0; ticketId < expectedTicketStore.getTicketCount(); ticketId++) {
+            assertEquals(expectedTicketStore.getMarkedCount(ticketId), ticketStore.getMarkedCount(ticketId));
+            for (int row = 0; row < expectedTicketStore.getRowSize(); row++) {
+                assertEquals(expectedTicketStore.getRowMarkedCount(ticketId, row), ticketStore.getRowMarkedCount(ticketId, row));
+            }
+            for (int slot = 0; slot < expectedTicketStore.getSlotsPerTicket(); slot++) {
+                assertEquals(expectedTicketStore.isMarked(ticketId, slot), ticketStore.isMarked(ticketId, slot));
+            }
+        }
+    }
+}
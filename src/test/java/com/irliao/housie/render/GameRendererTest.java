@@ -0,0 +1,120 @@
+package com.irliao.housie.render;
+
+import com.irliao.housie.ticket.Ticket;
+import com.irliao.housie.ticket.TicketStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class GameRendererTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Ticket ticket;
+    private ByteArrayOutputStream outputStream;
+    private GameRenderer gameRenderer;
+
+    @Before
+    public void setup() {
+        // initialize 3 x 9 ticket with 5 numbers per row, numbers 1 - 15 on random slots
+        ticket = new Ticket(3, 9, IntStream.rangeClosed(1, 15).toArray(), 5, new Random(1L));
+        ticket.markNumberIfFound(7);
+        outputStream = new ByteArrayOutputStream();
+        gameRenderer = new GameRenderer(Channels.newChannel(outputStream));
+    }
+
+    @Test
+    public void testNumber() throws IOException {
+        gameRenderer.number(0).text(" ").number(42).text(" ").number(-1234567890).text(" ").number(Integer.MIN_VALUE);
+        assertEquals("", output());
+
+        gameRenderer.close();
+        assertEquals("0 42 -1234567890 " + Integer.MIN_VALUE, output());
+    }
+
+    @Test
+    public void testPlayerTicket() throws IOException {
+        gameRenderer.playerTicket(3, ticket);
+        gameRenderer.close();
+        assertEquals("Player#3:\n" + expectedGrid(ticket) + " \n", output());
+    }
+
+    @Test
+    public void testText_nonAscii() throws IOException {
+        gameRenderer.line("Prize: \u20ac10");
+        gameRenderer.close();
+        assertEquals("Prize: \u20ac10\n", output());
+    }
+
+    @Test
+    public void testFlush_bufferFilled() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            gameRenderer.playerTicket(i + 1, ticket);
+            expected.append("Player#").append(i + 1).append(":\n").append(expectedGrid(ticket)).append(" \n");
+        }
+        gameRenderer.flush();
+        assertEquals(expected.toString(), output());
+    }
+
+    @Test
+    public void testToFile() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("tickets.txt");
+        Files.write(file, "previous contents that are longer than the rendered text".getBytes(StandardCharsets.US_ASCII));
+        try (GameRenderer fileRenderer = GameRenderer.toFile(file)) {
+            fileRenderer.ticket(ticket);
+        }
+        assertEquals(expectedGrid(ticket), new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testToConsole_writesThroughSystemOut() throws IOException {
+        PrintStream systemOut = System.out;
+        System.setOut(new PrintStream(outputStream, true, "UTF-8"));
+        try (GameRenderer consoleRenderer = GameRenderer.toConsole()) {
+            System.out.println("printed");
+            consoleRenderer.text("Next number is: ").number(42).line(" ");
+            consoleRenderer.flush();
+            System.out.println("printed again");
+            ticket.printTicket(consoleRenderer);
+        } finally {
+            System.setOut(systemOut);
+        }
+        assertEquals("printed\nNext number is: 42 \nprinted again\n" + expectedGrid(ticket), output());
+    }
+
+    private String output() {
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String expectedGrid(Ticket ticket) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 9; col++) {
+                int slot = row * 9 + col;
+                int number = ticket.getNumber(slot);
+                if (number == TicketStore.EMPTY_SLOT) {
+                    stringBuilder.append("__ _ | ");
+                } else {
+                    stringBuilder.append(number).append(" ").append(ticket.getTicketStore().isMarked(ticket.getTicketId(), slot) ? "x" : "_").append(" | ");
+                }
+            }
+            stringBuilder.append("\n");
+        }
+        return stringBuilder.toString();
+    }
+}
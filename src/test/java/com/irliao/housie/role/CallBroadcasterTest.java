@@ -0,0 +1,106 @@
+package com.irliao.housie.role;
+
+import com.irliao.housie.bingo.ShuffledDrawSequence;
+import com.irliao.housie.simulation.SimulationSettings;
+import com.irliao.housie.ticket.TicketFactory;
+import com.irliao.housie.ticket.TicketStore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CallBroadcasterTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 1000, 3, 10, 5);
+
+    @Test
+    public void testPublish_partitionsMarkTheirTickets() {
+        TicketFactory ticketFactory = new TicketFactory(simulationSettings);
+        TicketStore ticketStore = ticketFactory.createTickets(1000, new Random(5L));
+        List<Integer> calledNumbers = new ArrayList<>();
+        Dealer dealer;
+        try (CallBroadcaster callBroadcaster = new CallBroadcaster(16)) {
+            for (int partition = 0; partition < 4; partition++) {
+                int fromTicketId = partition * 250;
+                int[] markedTicketIds = new int[250];
+                callBroadcaster.addListener("partition-" + partition, (drawCount, number) ->
+                    ticketStore.markNumberOnTickets(number, fromTicketId, fromTicketId + 250, markedTicketIds, 0));
+            }
+            callBroadcaster.addListener("caller", (drawCount, number) -> {
+                assertEquals(calledNumbers.size() + 1, drawCount);
+                calledNumbers.add(number);
+            });
+            callBroadcaster.start();
+
+            dealer = new Dealer(new ShuffledDrawSequence(1, 90, new Random(7L)), null);
+            while (dealer.hasNumbersLeft()) {
+                int number = dealer.drawAndCallNextNumber();
+                callBroadcaster.publish(dealer.getDrawCount(), number);
+            }
+            callBroadcaster.awaitHandled();
+            assertEquals(90, callBroadcaster.getPublishedCount());
+        }
+
+        TicketStore expectedTicketStore = ticketFactory.createTickets(1000, new Random(5L));
+        int[] markedTicketIds = new int[1000];
+        for (int number : calledNumbers) {
+            expectedTicketStore.markNumberOnAllTickets(number, markedTicketIds);
+        }
+        assertEquals(90, calledNumbers.size());
+        assertEquals(dealer.getCalledNumber(), (int) calledNumbers.get(89));
+        for (int ticketId = 0; ticketId < 1000; ticketId++) {
+            assertEquals(expectedTicketStore.getMarkedCount(ticketId), ticketStore.getMarkedCount(ticketId));
+            assertEquals(15, ticketStore.getMarkedCount(ticketId));
+        }
+    }
+
+    @Test
+    public void testPublish_slowListenerWrapsTheRing() {
+        List<Integer> slowNumbers = new ArrayList<>();
+        List<Integer> fastNumbers = new ArrayList<>();
+        try (CallBroadcaster callBroadcaster = new CallBroadcaster(4)) {
+            callBroadcaster.addListener("slow", (drawCount, number) -> {
+                Thread.yield();
+                slowNumbers.add(number);
+            });
+            callBroadcaster.addListener("fast", (drawCount, number) -> fastNumbers.add(number));
+            callBroadcaster.start();
+            for (int number = 1; number <= 100; number++) {
+                callBroadcaster.publish(number, number);
+            }
+        }
+
+        assertEquals(100, slowNumbers.size());
+        assertEquals(slowNumbers, fastNumbers);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, (int) slowNumbers.get(i));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClose_listenerFailure() {
+        try (CallBroadcaster callBroadcaster = new CallBroadcaster(4)) {
+            callBroadcaster.addListener("failing", (drawCount, number) -> {
+                throw new IllegalArgumentException("Number " + number);
+            });
+            callBroadcaster.start();
+            callBroadcaster.publish(1, 42);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddListener_afterStart() {
+        try (CallBroadcaster callBroadcaster = new CallBroadcaster(4)) {
+            callBroadcaster.start();
+            callBroadcaster.addListener("late", (drawCount, number) -> { });
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCallBroadcaster_capacityNotPowerOfTwo() {
+        new CallBroadcaster(6);
+    }
+}
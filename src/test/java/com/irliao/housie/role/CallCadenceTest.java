@@ -0,0 +1,80 @@
+package com.irliao.housie.role;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.Housie;
+import com.irliao.housie.simulation.SimulationSettings;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CallCadenceTest {
+
+    @Test
+    public void testAwaitNextCall_fixedInterval() throws InterruptedException {
+        CallCadence callCadence = new CallCadence(20, TimeUnit.MILLISECONDS);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            callCadence.awaitNextCall();
+            callCadence.callCompleted();
+        }
+
+        // the first call is not delayed, each of the next three waits an interval
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(60));
+        assertEquals(4, callCadence.getCallCount());
+        assertEquals(0, callCadence.getOverrunCount());
+    }
+
+    @Test
+    public void testCallCompleted_overrun() throws InterruptedException {
+        CallCadence callCadence = new CallCadence(5, TimeUnit.MILLISECONDS);
+        callCadence.awaitNextCall();
+        Thread.sleep(20);
+        callCadence.callCompleted();
+
+        // the call after an overrun starts right away
+        long startNanos = System.nanoTime();
+        callCadence.awaitNextCall();
+        callCadence.callCompleted();
+        assertTrue(System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(2, callCadence.getCallCount());
+        assertEquals(1, callCadence.getOverrunCount());
+        assertTrue(callCadence.getMaxCallNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void testPlayAutoCalled_asFastAsPossible() throws InterruptedException {
+        SimulationSettings simulationSettings = new SimulationSettings(1, 90, 200, 3, 10, 5);
+        CallCadence callCadence = CallCadence.asFastAsPossible();
+        GameResult gameResult = new Housie().playAutoCalled(simulationSettings, new Random(11L), callCadence);
+        GameResult headlessGameResult = new Housie().playHeadless(simulationSettings, new Random(11L));
+
+        // same game as played headless, every call measured
+        assertEquals(headlessGameResult.getDrawCount(), gameResult.getDrawCount());
+        assertEquals(headlessGameResult.getClaims().size(), gameResult.getClaims().size());
+        assertEquals(gameResult.getDrawCount(), callCadence.getCallCount());
+        assertTrue(callCadence.getCallsPerSecond() > 0);
+        assertTrue(callCadence.getMeanCallNanos() <= callCadence.getMaxCallNanos());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAwaitNextCall_previousCallNotComplete() throws InterruptedException {
+        CallCadence callCadence = CallCadence.asFastAsPossible();
+        callCadence.awaitNextCall();
+        callCadence.awaitNextCall();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCallCompleted_noCallStarted() {
+        CallCadence.asFastAsPossible().callCompleted();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCallCadence_negativeInterval() {
+        new CallCadence(-1, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,103 @@
+package com.irliao.housie.role;
+
+import com.irliao.housie.ticket.Ticket;
+import com.irliao.housie.ticket.TicketSlot;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class CallDispatcherTest {
+
+    private final CallDispatcher callDispatcher = new CallDispatcher(1, 90);
+
+    @Test
+    public void testDispatch_onlyHoldersMarked() {
+        Ticket ticket1 = Mockito.spy(createTicket(1));   // numbers 1 - 15
+        Ticket ticket2 = Mockito.spy(createTicket(11));  // numbers 11 - 25
+        callDispatcher.register(new Player(1, ticket1));
+        callDispatcher.register(new Player(2, ticket2));
+
+        callDispatcher.dispatch(3);
+        callDispatcher.dispatch(12);
+        callDispatcher.dispatch(90); // held by no one
+
+        verify(ticket1, times(2)).markSlot(anyInt());
+        verify(ticket2, times(1)).markSlot(anyInt());
+        verify(ticket1, never()).markNumberIfFound(anyInt());
+        verify(ticket2, never()).markNumberIfFound(anyInt());
+        assertEquals(2, countMarked(ticket1));
+        assertEquals(1, countMarked(ticket2));
+    }
+
+    @Test
+    public void testGetMarkedPlayers() {
+        Player player1 = new Player(1, createTicket(1));
+        Player player2 = new Player(2, createTicket(11));
+        callDispatcher.register(player1);
+        callDispatcher.register(player2);
+
+        callDispatcher.dispatch(12);
+        assertEquals(Arrays.asList(player1, player2), callDispatcher.getMarkedPlayers());
+
+        callDispatcher.dispatch(20);
+        assertEquals(Collections.singletonList(player2), callDispatcher.getMarkedPlayers());
+
+        callDispatcher.dispatch(20); // already marked
+        assertTrue(callDispatcher.getMarkedPlayers().isEmpty());
+    }
+
+    @Test
+    public void testGetHolderCount() {
+        callDispatcher.register(new Player(1, createTicket(1)));
+        callDispatcher.register(new Player(2, createTicket(11)));
+
+        assertEquals(1, callDispatcher.getHolderCount(1));
+        assertEquals(2, callDispatcher.getHolderCount(15));
+        assertEquals(0, callDispatcher.getHolderCount(26));
+        assertEquals(0, callDispatcher.getHolderCount(91));
+    }
+
+    @Test
+    public void testRegisterAll() {
+        Player player1 = new Player(1, createTicket(1));
+        Player player2 = new Player(2, createTicket(11));
+        callDispatcher.register(new Player(3, createTicket(14)));
+        callDispatcher.registerAll(Arrays.asList(player1, player2));
+
+        assertEquals(3, callDispatcher.getHolderCount(14));
+        assertEquals(2, callDispatcher.getHolderCount(25));
+
+        callDispatcher.dispatch(12);
+        assertEquals(Arrays.asList(player1, player2), callDispatcher.getMarkedPlayers());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegister_numberOutOfRange() {
+        callDispatcher.register(new Player(1, createTicket(80)));
+    }
+
+    private static Ticket createTicket(int firstNumber) {
+        Deque<Integer> bingoNumbers = new LinkedList<>();
+        IntStream.range(firstNumber, firstNumber + 15).forEach(bingoNumbers::add);
+        return new Ticket(3, 10, bingoNumbers, 5);
+    }
+
+    private static long countMarked(Ticket ticket) {
+        return ticket.getSlots().stream()
+                     .flatMap(List::stream)
+                     .filter(Objects::nonNull)
+                     .filter(TicketSlot::getMarked)
+                     .count();
+    }
+}
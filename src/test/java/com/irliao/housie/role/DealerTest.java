@@ -23,10 +23,10 @@ public class DealerTest {
         Dealer dealer = new Dealer(mockNumberProvider);
 
         Ticket mockTicket1 = Mockito.mock(Ticket.class);
-        doNothing().when(mockTicket1).markNumberIfFound(anyInt());
+        when(mockTicket1.markNumberIfFound(anyInt())).thenReturn(true);
         Player player1 = new Player(1, mockTicket1);
         Ticket mockTicket2 = Mockito.mock(Ticket.class);
-        doNothing().when(mockTicket2).markNumberIfFound(anyInt());
+        when(mockTicket2.markNumberIfFound(anyInt())).thenReturn(true);
         Player player2 = new Player(2, mockTicket2);
 
         dealer.addListener(player1);
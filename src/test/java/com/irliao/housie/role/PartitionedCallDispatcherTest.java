@@ -0,0 +1,100 @@
+package com.irliao.housie.role;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.Housie;
+import com.irliao.housie.simulation.SimulationSettings;
+import com.irliao.housie.ticket.Ticket;
+import com.irliao.housie.ticket.TicketFactory;
+import com.irliao.housie.ticket.TicketStore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedCallDispatcherTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 1000, 3, 10, 5);
+
+    @Test
+    public void testDispatch_sameAsSingleDispatcher() {
+        CallDispatcher callDispatcher = new CallDispatcher(1, 90);
+        PartitionedCallDispatcher partitionedCallDispatcher = new PartitionedCallDispatcher(1, 90, 4);
+        callDispatcher.registerAll(createPlayers());
+        partitionedCallDispatcher.registerAll(createPlayers());
+        callDispatcher.setWinCheck(ticket -> ticket.getMarkedCount() >= 3);
+        partitionedCallDispatcher.setWinCheck(ticket -> ticket.getMarkedCount() >= 3);
+
+        for (int number = 90; number >= 1; number--) {
+            callDispatcher.dispatch(number);
+            partitionedCallDispatcher.dispatch(number);
+
+            assertEquals(callDispatcher.getHolderCount(number), partitionedCallDispatcher.getHolderCount(number));
+            assertEquals(getPlayerIds(callDispatcher.getMarkedPlayers()), getPlayerIds(partitionedCallDispatcher.getMarkedPlayers()));
+            for (Player player : partitionedCallDispatcher.getMarkedPlayers()) {
+                assertTrue(player.getTicket().getMarkedCount() >= 3);
+            }
+        }
+    }
+
+    @Test
+    public void testDispatch_registeredOneAtATimeInOrder() {
+        CallDispatcher callDispatcher = new CallDispatcher(1, 90);
+        PartitionedCallDispatcher partitionedCallDispatcher = new PartitionedCallDispatcher(1, 90, 4);
+        List<Player> players = createPlayers();
+        List<Player> partitionedPlayers = createPlayers();
+        callDispatcher.registerAll(players);
+        partitionedCallDispatcher.registerAll(partitionedPlayers.subList(0, 10));
+        for (Player player : partitionedPlayers.subList(10, 500)) {
+            partitionedCallDispatcher.register(player);
+        }
+        partitionedCallDispatcher.registerAll(partitionedPlayers.subList(500, 1000));
+
+        for (int number = 1; number <= 90; number++) {
+            callDispatcher.dispatch(number);
+            partitionedCallDispatcher.dispatch(number);
+
+            assertEquals(callDispatcher.getHolderCount(number), partitionedCallDispatcher.getHolderCount(number));
+            assertEquals(getPlayerIds(callDispatcher.getMarkedPlayers()), getPlayerIds(partitionedCallDispatcher.getMarkedPlayers()));
+        }
+    }
+
+    @Test
+    public void testPlayHeadless_sameResultForAnyPartitionCount() {
+        Housie housie = new Housie();
+        GameResult gameResult = housie.playHeadless(simulationSettings, new Random(11L));
+
+        Housie partitionedHousie = new Housie();
+        partitionedHousie.setPartitionCount(3);
+        GameResult partitionedGameResult = partitionedHousie.playHeadless(simulationSettings, new Random(11L));
+
+        assertEquals(gameResult.getDrawCount(), partitionedGameResult.getDrawCount());
+        assertEquals(gameResult.getClaims().size(), partitionedGameResult.getClaims().size());
+        for (int i = 0; i < gameResult.getClaims().size(); i++) {
+            assertEquals(gameResult.getClaims().get(i).getCombinationName(), partitionedGameResult.getClaims().get(i).getCombinationName());
+            assertEquals(gameResult.getClaims().get(i).getPlayerId(), partitionedGameResult.getClaims().get(i).getPlayerId());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartitionedCallDispatcher_noPartition() {
+        new PartitionedCallDispatcher(1, 90, 0);
+    }
+
+    private List<Player> createPlayers() {
+        TicketStore ticketStore = new TicketFactory(simulationSettings).createTickets(1000, new Random(5L));
+        List<Player> players = new ArrayList<>();
+        for (int ticketId = 0; ticketId < 1000; ticketId++) {
+            players.add(new Player(ticketId + 1, new Ticket(ticketStore, ticketId)));
+        }
+        return players;
+    }
+
+    private static List<Integer> getPlayerIds(List<Player> players) {
+        return players.stream().map(Player::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,169 @@
+package com.irliao.housie.server;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.Housie;
+import com.irliao.housie.combination.Claim;
+import com.irliao.housie.combination.ClaimVerdict;
+import com.irliao.housie.combination.EarlyFiveCombination;
+import com.irliao.housie.combination.FullHouseCombination;
+import com.irliao.housie.role.CallCadence;
+import com.irliao.housie.simulation.SimulationSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameServerTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 50, 3, 10, 5);
+
+    private Housie housie;
+    private GameServer gameServer;
+
+    @Before
+    public void setup() throws IOException {
+        housie = new Housie();
+        housie.setUpHeadless(simulationSettings, new Random(3L));
+        gameServer = new GameServer(housie, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        gameServer.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        gameServer.close();
+    }
+
+    @Test
+    public void testPlay_loadGenerator() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (LoadGenerator loadGenerator = new LoadGenerator(gameServer.getLocalAddress(), 60)) {
+            // 50 seats for 60 connections
+            assertTrue(loadGenerator.awaitWelcomed(10, TimeUnit.SECONDS));
+            assertEquals(50, loadGenerator.getWelcomedCount());
+            assertEquals(10, loadGenerator.getRefusedCount());
+
+            Future<GameResult> gameResultFuture = executorService.submit(() -> gameServer.play(CallCadence.asFastAsPossible()));
+            assertTrue(loadGenerator.awaitGameOver(10, TimeUnit.SECONDS));
+            GameResult gameResult = gameResultFuture.get(10, TimeUnit.SECONDS);
+
+            // every player got every call, and exactly the claims awarded by the game were accepted
+            assertEquals(50L * gameResult.getDrawCount(), loadGenerator.getCallFrameCount());
+            long awardedCount = gameResult.getClaims().stream()
+                .map(Claim::getCombinationName)
+                .filter(name -> name.equals(EarlyFiveCombination.COMBINATION_NAME) || name.equals(FullHouseCombination.COMBINATION_NAME))
+                .count();
+            assertEquals(awardedCount, loadGenerator.getAcceptedClaimCount());
+            assertEquals(loadGenerator.getClaimCount(), loadGenerator.getAcceptedClaimCount() + loadGenerator.getRejectedClaimCount());
+            assertEquals(50, gameServer.getConnectionCount());
+            assertEquals(0, gameServer.getDroppedCount());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClaim_verifiedAgainstTicket() throws IOException {
+        try (SocketChannel channel = SocketChannel.open(gameServer.getLocalAddress())) {
+            ByteBuffer welcome = read(channel, GameFrames.WELCOME_HEADER_SIZE + 2 * 30);
+            assertEquals(GameFrames.WELCOME, welcome.get());
+            assertEquals(1, welcome.getInt());
+            assertEquals(3, welcome.get());
+            assertEquals(10, welcome.get());
+            for (int slot = 0; slot < 30; slot++) {
+                assertEquals(housie.getTicketStore().getNumber(0, slot), welcome.getShort());
+            }
+
+            assertEquals(ClaimVerdict.NOT_WON, claim(channel, FullHouseCombination.COMBINATION_NAME));
+            assertEquals(ClaimVerdict.UNKNOWN_COMBINATION, claim(channel, "Two Lines"));
+        }
+    }
+
+    @Test
+    public void testClaim_malformedNameEchoedAsSent() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(gameServer.getLocalAddress())) {
+            read(channel, GameFrames.WELCOME_HEADER_SIZE + 2 * 30);
+
+            // 255 bytes of invalid UTF-8, which would take 765 bytes encoded again
+            ByteBuffer claim = ByteBuffer.allocate(2 + 255);
+            claim.put(GameFrames.CLAIM).put((byte) 255);
+            while (claim.hasRemaining()) {
+                claim.put((byte) 0xFF);
+            }
+            ((Buffer) claim).flip();
+            while (claim.hasRemaining()) {
+                channel.write(claim);
+            }
+
+            ByteBuffer claimResult = read(channel, 3 + 255);
+            assertEquals(GameFrames.CLAIM_RESULT, claimResult.get());
+            assertEquals(ClaimVerdict.UNKNOWN_COMBINATION, ClaimVerdict.values()[claimResult.get()]);
+            assertEquals(255, claimResult.get() & 0xFF);
+            while (claimResult.hasRemaining()) {
+                assertEquals((byte) 0xFF, claimResult.get());
+            }
+
+            // the server keeps serving the player
+            int calledNumber = gameServer.callNextNumber().get(10, TimeUnit.SECONDS);
+            ByteBuffer call = read(channel, GameFrames.CALL_SIZE);
+            assertEquals(GameFrames.CALL, call.get());
+            assertEquals(calledNumber, call.getShort(3));
+        }
+    }
+
+    @Test
+    public void testCallNextNumber_broadcast() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(gameServer.getLocalAddress())) {
+            read(channel, GameFrames.WELCOME_HEADER_SIZE + 2 * 30);
+            int calledNumber = gameServer.callNextNumber().get(10, TimeUnit.SECONDS);
+
+            ByteBuffer call = read(channel, GameFrames.CALL_SIZE);
+            assertEquals(GameFrames.CALL, call.get());
+            assertEquals(1, call.getShort());
+            assertEquals(calledNumber, call.getShort());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPlay_closed() throws Exception {
+        gameServer.close();
+        gameServer.play(CallCadence.asFastAsPossible());
+    }
+
+    private static ClaimVerdict claim(SocketChannel channel, String combinationName) throws IOException {
+        byte[] name = combinationName.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer claim = ByteBuffer.allocate(2 + name.length);
+        claim.put(GameFrames.CLAIM).put((byte) name.length).put(name);
+        ((Buffer) claim).flip();
+        channel.write(claim);
+
+        ByteBuffer claimResult = read(channel, 3 + name.length);
+        assertEquals(GameFrames.CLAIM_RESULT, claimResult.get());
+        return ClaimVerdict.values()[claimResult.get()];
+    }
+
+    private static ByteBuffer read(SocketChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,45 @@
+package com.irliao.housie.simulation;
+
+import com.irliao.housie.combination.EarlyFiveCombination;
+import com.irliao.housie.combination.FullHouseCombination;
+import com.irliao.housie.combination.TopLineCombination;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchSimulatorTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 10, 3, 10, 5);
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+    @Test
+    public void testSimulate() {
+        BatchResult batchResult = new BatchSimulator(simulationSettings, forkJoinPool).simulate(500, 42L);
+
+        assertEquals(500, batchResult.getGameCount());
+        assertEquals(500, Arrays.stream(batchResult.getWinDrawHistogram(EarlyFiveCombination.COMBINATION_NAME)).sum());
+        assertEquals(500, Arrays.stream(batchResult.getWinDrawHistogram(TopLineCombination.COMBINATION_NAME)).sum());
+        assertEquals(500, Arrays.stream(batchResult.getWinDrawHistogram(FullHouseCombination.COMBINATION_NAME)).sum());
+        assertEquals(500, Arrays.stream(batchResult.getGameEndDrawHistogram()).sum());
+
+        // early five can not be won before the 5th draw, and is won before full house on average
+        assertEquals(0, Arrays.stream(batchResult.getWinDrawHistogram(EarlyFiveCombination.COMBINATION_NAME), 0, 5).sum());
+        assertTrue(batchResult.getMeanWinDraw(EarlyFiveCombination.COMBINATION_NAME) <
+                   batchResult.getMeanWinDraw(FullHouseCombination.COMBINATION_NAME));
+    }
+
+    @Test
+    public void testSimulate_sameSeedSameResult() {
+        BatchResult batchResult1 = new BatchSimulator(simulationSettings, forkJoinPool).simulate(200, 7L);
+        BatchResult batchResult2 = new BatchSimulator(simulationSettings, forkJoinPool).simulate(200, 7L);
+
+        assertArrayEquals(batchResult1.getWinDrawHistogram(FullHouseCombination.COMBINATION_NAME),
+                          batchResult2.getWinDrawHistogram(FullHouseCombination.COMBINATION_NAME));
+        assertArrayEquals(batchResult1.getGameEndDrawHistogram(), batchResult2.getGameEndDrawHistogram());
+    }
+}
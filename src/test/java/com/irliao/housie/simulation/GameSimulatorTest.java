@@ -0,0 +1,49 @@
+package com.irliao.housie.simulation;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.combination.Claim;
+import com.irliao.housie.combination.EarlyFiveCombination;
+import com.irliao.housie.combination.FullHouseCombination;
+import com.irliao.housie.combination.TopLineCombination;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameSimulatorTest {
+
+    private final GameSimulator gameSimulator = new GameSimulator(new SimulationSettings(1, 90, 5, 3, 10, 5));
+
+    @Test
+    public void testSimulate() {
+        GameResult gameResult = gameSimulator.simulate();
+        List<Claim> claims = gameResult.getClaims();
+
+        Set<String> combinationNames = claims.stream().map(Claim::getCombinationName).collect(Collectors.toSet());
+        assertEquals(3, claims.size());
+        assertTrue(combinationNames.contains(EarlyFiveCombination.COMBINATION_NAME));
+        assertTrue(combinationNames.contains(TopLineCombination.COMBINATION_NAME));
+        assertTrue(combinationNames.contains(FullHouseCombination.COMBINATION_NAME));
+
+        // game ends on the draw the last combination is claimed
+        assertEquals(gameResult.getDrawCount(), claims.get(claims.size() - 1).getDrawCount());
+        assertTrue(gameResult.getDrawCount() >= 15 && gameResult.getDrawCount() <= 90);
+        claims.forEach(claim -> assertTrue(claim.getPlayerId() >= 1 && claim.getPlayerId() <= 5));
+    }
+
+    @Test
+    public void testSimulate_multipleGames() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(3, gameSimulator.simulate().getClaims().size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSimulationSettings_tooManyNumbersPerTicket() {
+        new SimulationSettings(1, 20, 5, 3, 10, 7);
+    }
+}
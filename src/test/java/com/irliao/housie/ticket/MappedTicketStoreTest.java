@@ -0,0 +1,109 @@
+package com.irliao.housie.ticket;
+
+import com.irliao.housie.GameResult;
+import com.irliao.housie.Housie;
+import com.irliao.housie.simulation.SimulationSettings;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappedTicketStoreTest {
+
+    private final SimulationSettings simulationSettings = new SimulationSettings(1, 90, 1_000, 3, 10, 5);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCreateAndOpen() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("tickets.store");
+        TicketStore heapTicketStore = new TicketFactory(simulationSettings).createTickets(1_000, new Random(5L));
+        int slot = heapTicketStore.findSlot(7, firstNumber(heapTicketStore, 7));
+
+        try (MappedTicketStore ticketStore = MappedTicketStore.create(file, simulationSettings)) {
+            new TicketFactory(simulationSettings).dealTickets(ticketStore, new Random(5L));
+            assertTrue(ticketStore.markNumberIfFound(7, ticketStore.getNumber(7, slot)));
+            ticketStore.force();
+        }
+
+        try (MappedTicketStore ticketStore = MappedTicketStore.open(file)) {
+            assertEquals(1_000, ticketStore.getTicketCount());
+            assertEquals(3, ticketStore.getRowSize());
+            assertEquals(10, ticketStore.getColSize());
+            assertEquals(5, ticketStore.getNumbersPerRow());
+            assertEquals(1, ticketStore.getNumberRangeStart());
+            assertEquals(90, ticketStore.getNumberRangeEnd());
+            for (int ticketId = 0; ticketId < 1_000; ticketId++) {
+                for (int i = 0; i < 30; i++) {
+                    assertEquals(heapTicketStore.getNumber(ticketId, i), ticketStore.getNumber(ticketId, i));
+                }
+                for (int word = 0; word < 3; word++) {
+                    assertEquals(heapTicketStore.getFilledWord(ticketId, word), ticketStore.getFilledWord(ticketId, word));
+                }
+            }
+
+            // marks are kept in the file
+            assertTrue(ticketStore.isMarked(7, slot));
+            assertEquals(1, ticketStore.getMarkedCount(7));
+            assertEquals(1, ticketStore.getRowMarkedCount(7, slot / 10));
+            assertEquals(0, ticketStore.getMarkedCount(8));
+            assertFalse(ticketStore.markNumberIfFound(7, ticketStore.getNumber(7, slot)));
+        }
+    }
+
+    @Test
+    public void testPlayOverOpenedStore() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("tickets.store");
+        try (MappedTicketStore ticketStore = MappedTicketStore.create(file, simulationSettings)) {
+            new TicketFactory(simulationSettings).dealTickets(ticketStore, new Random(5L));
+        }
+
+        try (MappedTicketStore ticketStore = MappedTicketStore.open(file)) {
+            Housie housie = new Housie();
+            housie.setUpHeadless(simulationSettings, ticketStore, new Random(9L));
+            while (housie.getGameResult().getClaims().size() < 3) {
+                housie.callNextNumber();
+            }
+
+            GameResult gameResult = housie.getGameResult();
+            int fullHouseTicketId = gameResult.getClaims().get(2).getPlayerId() - 1;
+            assertEquals(ticketStore.getFilledCount(fullHouseTicketId), ticketStore.getMarkedCount(fullHouseTicketId));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpen_notATicketStore() throws IOException {
+        Path file = temporaryFolder.newFile("tickets.store").toPath();
+        Files.write(file, new byte[MappedTicketStore.HEADER_SIZE]);
+        MappedTicketStore.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpen_truncated() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("tickets.store");
+        MappedTicketStore.create(file, simulationSettings).close();
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            fileChannel.truncate(MappedTicketStore.HEADER_SIZE + 100);
+        }
+        MappedTicketStore.open(file);
+    }
+
+    private static int firstNumber(TicketStore ticketStore, int ticketId) {
+        for (int i = 0; ; i++) {
+            if (ticketStore.getNumber(ticketId, i) != TicketStore.EMPTY_SLOT) {
+                return ticketStore.getNumber(ticketId, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.irliao.housie.ticket;
+
+import com.irliao.housie.Housie;
+import com.irliao.housie.simulation.SimulationSettings;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TicketBookStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndLoad() throws IOException {
+        SimulationSettings simulationSettings = new SimulationSettings(1, 90, 10_000, 3, 10, 5);
+        assertWriteAndLoad(simulationSettings, 1);
+    }
+
+    @Test
+    public void testWriteAndLoad_wideRange() throws IOException {
+        SimulationSettings simulationSettings = new SimulationSettings(1, 1_000, 100, 3, 9, 5);
+        assertWriteAndLoad(simulationSettings, 2);
+    }
+
+    @Test
+    public void testPlayLoadedBook() throws IOException {
+        SimulationSettings simulationSettings = new SimulationSettings(1, 90, 100, 3, 10, 5);
+        Path file = temporaryFolder.getRoot().toPath().resolve("tickets.book");
+        Housie housie = new Housie();
+        housie.setUpHeadless(simulationSettings, new Random(5L));
+        TicketBookStore.write(file, housie.getTicketStore(), simulationSettings);
+
+        try (TicketBookStore ticketStore = TicketBookStore.load(file)) {
+            housie.setUpHeadless(simulationSettings, ticketStore, new Random(9L));
+            while (housie.getGameResult().getClaims().size() < 3) {
+                housie.callNextNumber();
+            }
+
+            int fullHouseTicketId = housie.getGameResult().getClaims().get(2).getPlayerId() - 1;
+            assertEquals(15, ticketStore.getMarkedCount(fullHouseTicketId));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoad_notATicketBook() throws IOException {
+        Path file = temporaryFolder.newFile("tickets.book").toPath();
+        Files.write(file, new byte[TicketBookStore.HEADER_SIZE]);
+        TicketBookStore.load(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrite_numberOutOfRange() throws IOException {
+        SimulationSettings simulationSettings = new SimulationSettings(1, 90, 10, 3, 10, 5);
+        TicketStore ticketStore = new TicketFactory(simulationSettings).createTickets(10, new Random(5L));
+        TicketBookStore.write(temporaryFolder.getRoot().toPath().resolve("tickets.book"), ticketStore,
+            new SimulationSettings(1, 50, 10, 3, 10, 5));
+    }
+
+    private void assertWriteAndLoad(SimulationSettings simulationSettings, int numberWidth) throws IOException {
+        int ticketCount = simulationSettings.getNumberOfPlayers();
+        int slotCount = simulationSettings.getNumberOfRows() * simulationSettings.getNumberOfCols();
+        Path file = temporaryFolder.getRoot().toPath().resolve("tickets.book");
+        TicketStore heapTicketStore = new TicketFactory(simulationSettings).createTickets(ticketCount, new Random(5L));
+
+        TicketBookStore.write(file, heapTicketStore, simulationSettings);
+        assertEquals(TicketBookStore.HEADER_SIZE + (long) ticketCount * slotCount * numberWidth, Files.size(file));
+
+        try (TicketBookStore ticketStore = TicketBookStore.load(file)) {
+            assertEquals(ticketCount, ticketStore.getTicketCount());
+            assertEquals(simulationSettings.getNumberOfRows(), ticketStore.getRowSize());
+            assertEquals(simulationSettings.getNumberOfCols(), ticketStore.getColSize());
+            assertEquals(simulationSettings.getNumberPerRow(), ticketStore.getNumbersPerRow());
+            assertEquals(simulationSettings.getNumberRangeStart(), ticketStore.getNumberRangeStart());
+            assertEquals(simulationSettings.getNumberRangeEnd(), ticketStore.getNumberRangeEnd());
+            for (int ticketId = 0; ticketId < ticketCount; ticketId++) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    assertEquals(heapTicketStore.getNumber(ticketId, slot), ticketStore.getNumber(ticketId, slot));
+                }
+                for (int word = 0; word < ticketStore.getWordsPerTicket(); word++) {
+                    assertEquals(heapTicketStore.getFilledWord(ticketId, word), ticketStore.getFilledWord(ticketId, word));
+                }
+            }
+
+            int number = firstNumber(ticketStore);
+            assertTrue(ticketStore.markNumberIfFound(0, number));
+            assertEquals(1, ticketStore.getMarkedCount(0));
+        }
+    }
+
+    private static int firstNumber(TicketStore ticketStore) {
+        for (int slot = 0; ; slot++) {
+            if (ticketStore.getNumber(0, slot) != TicketStore.EMPTY_SLOT) {
+                return ticketStore.getNumber(0, slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.irliao.housie.ticket;
+
+import com.irliao.housie.simulation.SimulationSettings;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TicketFactoryTest {
+
+    private final TicketFactory ticketFactory = new TicketFactory(new SimulationSettings(1, 90, 10_000, 3, 10, 5));
+
+    @Test
+    public void testCreateTickets() {
+        TicketStore ticketStore = ticketFactory.createTickets(10_000, new Random(5L));
+
+        assertEquals(10_000, ticketStore.getTicketCount());
+        for (int ticketId = 0; ticketId < ticketStore.getTicketCount(); ticketId++) {
+            Set<Integer> ticketNumbers = new HashSet<>();
+            for (int row = 0; row < 3; row++) {
+                int rowNumberCount = 0;
+                for (int col = 0; col < 10; col++) {
+                    int number = ticketStore.getNumber(ticketId, row * 10 + col);
+                    if (number != TicketStore.EMPTY_SLOT) {
+                        assertTrue(number >= 1 && number <= 90);
+                        ticketNumbers.add(number);
+                        rowNumberCount++;
+                    }
+                }
+                assertEquals(5, rowNumberCount);
+            }
+            assertEquals(15, ticketNumbers.size());
+        }
+    }
+
+    @Test
+    public void testCreateTickets_sameSeedSameTickets() {
+        TicketStore ticketStore1 = ticketFactory.createTickets(10_000, new Random(5L));
+        TicketStore ticketStore2 = ticketFactory.createTickets(10_000, new Random(5L));
+
+        for (int ticketId = 0; ticketId < 10_000; ticketId += 997) {
+            for (int slot = 0; slot < 30; slot++) {
+                assertEquals(ticketStore1.getNumber(ticketId, slot), ticketStore2.getNumber(ticketId, slot));
+            }
+        }
+    }
+
+    @Test
+    public void testFindSlot() {
+        TicketStore ticketStore = ticketFactory.createTickets(1_000, new Random(5L));
+
+        for (int ticketId = 0; ticketId < ticketStore.getTicketCount(); ticketId++) {
+            for (int slot = 0; slot < 30; slot++) {
+                int number = ticketStore.getNumber(ticketId, slot);
+                if (number != TicketStore.EMPTY_SLOT) {
+                    assertEquals(slot, ticketStore.findSlot(ticketId, number));
+                }
+            }
+            int foundCount = 0;
+            for (int number = 0; number <= 91; number++) {
+                if (ticketStore.findSlot(ticketId, number) != TicketStore.NOT_FOUND) {
+                    foundCount++;
+                }
+            }
+            assertEquals(15, foundCount);
+        }
+    }
+
+    @Test
+    public void testMarkNumberOnAllTickets() {
+        TicketStore ticketStore = ticketFactory.createTickets(10_000, new Random(5L));
+        int[] markedTicketIds = new int[ticketStore.getTicketCount()];
+
+        int markedCount = ticketStore.markNumberOnAllTickets(42, markedTicketIds);
+
+        int holderCount = 0;
+        for (int ticketId = 0; ticketId < ticketStore.getTicketCount(); ticketId++) {
+            Ticket ticket = new Ticket(ticketStore, ticketId);
+            int slot = ticketStore.findSlot(ticketId, 42);
+            if (slot != TicketStore.NOT_FOUND) {
+                assertEquals(ticketId, markedTicketIds[holderCount++]);
+                assertTrue(ticketStore.isMarked(ticketId, slot));
+                assertEquals(1, ticket.getMarkedCount());
+                assertEquals(1, ticket.getRowMarkedCount(slot / 10));
+            } else {
+                assertEquals(0, ticket.getMarkedCount());
+            }
+        }
+        assertEquals(holderCount, markedCount);
+        assertTrue(markedCount > 0);
+        assertEquals(0, ticketStore.markNumberOnAllTickets(42, markedTicketIds)); // already marked
+    }
+}
@@ -5,11 +5,15 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.Deque;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 public class TicketTest {
@@ -32,4 +36,29 @@ public class TicketTest {
 
         assertEquals(numOfRows * numPerRow, flattenedSlots.stream().filter(Objects::nonNull).count());
     }
+
+    @Test
+    public void testMarkNumberIfFound() {
+        Deque<Integer> bingoNumbers = new LinkedList<>();
+        IntStream.rangeClosed(1, 15).forEach(bingoNumbers::add);
+        Ticket ticket = new Ticket(3, 10, bingoNumbers, 5);
+
+        ticket.markNumberIfFound(7);
+        ticket.markNumberIfFound(99); // not on the ticket
+
+        List<TicketSlot> flattenedSlots = ticket.getSlots().stream()
+                                                .flatMap(List::stream)
+                                                .filter(Objects::nonNull)
+                                                .collect(Collectors.toList());
+        assertEquals(1, flattenedSlots.stream().filter(TicketSlot::getMarked).count());
+        assertTrue(flattenedSlots.stream().anyMatch(slot -> slot.getNumber() == 7 && slot.getMarked()));
+
+        // marks are kept by the store, a new view shows marks made after the last one was built
+        ticket.markNumberIfFound(15);
+        assertTrue(ticket.getSlots().stream()
+                         .flatMap(List::stream)
+                         .anyMatch(slot -> slot != null && slot.getNumber() == 15 && slot.getMarked()));
+        assertFalse(flattenedSlots.stream().anyMatch(slot -> slot.getNumber() == 15 && slot.getMarked()));
+        assertEquals(2, ticket.getMarkedCount());
+    }
 }